@@ -7,9 +7,9 @@ plugins {
 
 dependencies {
   api("com.google.code.findbugs:jsr305:3.0.2")
-  implementation(commonLibs.uuidcreator)
 
   testImplementation(commonLibs.junit.jupiter)
+  testImplementation(commonLibs.uuidcreator)
 }
 
 tasks.test {
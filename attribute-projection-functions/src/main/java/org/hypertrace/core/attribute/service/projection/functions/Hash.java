@@ -1,8 +1,11 @@
 package org.hypertrace.core.attribute.service.projection.functions;
 
-import static java.util.Objects.nonNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
 
-import com.github.f4b6a3.uuid.UuidCreator;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
 import javax.annotation.Nullable;
 
@@ -16,8 +19,45 @@ public class Hash {
   private static final UUID NAMESPACE_UUID =
       UUID.fromString("5088c92d-5e9c-43f4-a35b-2589474d5642");
 
+  private static final byte[] NAMESPACE_BYTES =
+      ByteBuffer.allocate(16)
+          .putLong(NAMESPACE_UUID.getMostSignificantBits())
+          .putLong(NAMESPACE_UUID.getLeastSignificantBits())
+          .array();
+
+  private static final ThreadLocal<MessageDigest> SHA_1_DIGEST =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+              throw new IllegalStateException("SHA-1 is not supported by this JVM", e);
+            }
+          });
+
+  /**
+   * Returns the name based SHA-1 (version 5) UUID of the value in the hash namespace, as defined by
+   * RFC 4122. The digest is reused across calls on the same thread.
+   */
   @Nullable
   public static String hash(@Nullable String value) {
-    return nonNull(value) ? UuidCreator.getNameBasedSha1(NAMESPACE_UUID, value).toString() : null;
+    if (isNull(value)) {
+      return null;
+    }
+
+    MessageDigest digest = SHA_1_DIGEST.get();
+    digest.update(NAMESPACE_BYTES);
+    byte[] hash = digest.digest(value.getBytes(UTF_8));
+
+    long mostSignificantBits = 0;
+    long leastSignificantBits = 0;
+    for (int index = 0; index < 8; index++) {
+      mostSignificantBits = (mostSignificantBits << 8) | (hash[index] & 0xff);
+      leastSignificantBits = (leastSignificantBits << 8) | (hash[index + 8] & 0xff);
+    }
+    // Set the version (5) and the IETF variant
+    mostSignificantBits = (mostSignificantBits & ~0xf000L) | 0x5000L;
+    leastSignificantBits = (leastSignificantBits & 0x3fffffffffffffffL) | 0x8000000000000000L;
+    return new UUID(mostSignificantBits, leastSignificantBits).toString();
   }
 }
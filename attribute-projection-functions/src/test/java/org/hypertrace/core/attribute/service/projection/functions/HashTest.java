@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import com.github.f4b6a3.uuid.UuidCreator;
+import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class HashTest {
@@ -18,4 +21,12 @@ class HashTest {
   void hashesNullToNull() {
     assertNull(Hash.hash(null));
   }
+
+  @Test
+  void matchesNameBasedSha1Uuids() {
+    UUID namespace = UUID.fromString("5088c92d-5e9c-43f4-a35b-2589474d5642");
+    for (String value : List.of("", "foo", "GET /api/v1/users/{id}", "sérvice-名前")) {
+      assertEquals(UuidCreator.getNameBasedSha1(namespace, value).toString(), Hash.hash(value));
+    }
+  }
 }
@@ -2,8 +2,10 @@ package org.hypertrace.core.attribute.service.projection;
 
 import com.google.common.base.Preconditions;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
 import org.hypertrace.core.attribute.service.v1.LiteralValue;
 
@@ -23,36 +25,32 @@ abstract class AbstractAttributeProjection<R> implements AttributeProjection {
     Preconditions.checkArgument(arguments.size() == this.argumentKindsWithNullability.size());
     List<Object> unwrappedArguments = new ArrayList<>(this.argumentKindsWithNullability.size());
     for (int index = 0; index < arguments.size(); index++) {
-      int argumentIndex = index;
-      LiteralValue argumentLiteral = arguments.get(argumentIndex);
-      AttributeKindWithNullability maybeNullableKind =
-          this.argumentKindsWithNullability.get(argumentIndex);
-      Object unwrappedArgument =
-          ValueCoercer.fromLiteral(argumentLiteral, maybeNullableKind.getKind())
-              .orElseGet(
-                  () -> {
-                    if (maybeNullableKind.isNullable()) {
-                      return null;
-                    }
-                    throw new IllegalArgumentException(
-                        String.format(
-                            "Projection argument %s at index %d could not be converted to expected type %s",
-                            argumentLiteral, argumentIndex, maybeNullableKind));
-                  });
+      AttributeKindWithNullability maybeNullableKind = this.argumentKindsWithNullability.get(index);
+      unwrappedArguments.add(index, unwrapArgument(arguments.get(index), maybeNullableKind, index));
+    }
+    return wrapResult(this.doUnwrappedProjection(unwrappedArguments), resultKindWithNullability);
+  }
 
-      unwrappedArguments.add(argumentIndex, unwrappedArgument);
+  @Override
+  public void projectColumns(List<AttributeColumn> arguments, AttributeColumn result) {
+    Preconditions.checkArgument(arguments.size() == this.argumentKindsWithNullability.size());
+    for (AttributeColumn argument : arguments) {
+      Preconditions.checkArgument(argument.size() == result.size());
+    }
+    // One argument list for the whole batch, overwritten row by row
+    List<Object> unwrappedArguments = new ArrayList<>(Collections.nCopies(arguments.size(), null));
+    for (int row = 0; row < result.size(); row++) {
+      for (int index = 0; index < arguments.size(); index++) {
+        AttributeKindWithNullability argumentKind = this.argumentKindsWithNullability.get(index);
+        unwrappedArguments.set(index, unwrapCell(arguments.get(index), row, argumentKind, index));
+      }
+      Object unwrappedResult = this.doUnwrappedProjection(unwrappedArguments);
+      if (unwrappedResult == null
+          || result.getKind() != this.resultKindWithNullability.getKind()
+          || !result.trySet(row, unwrappedResult)) {
+        result.setLiteral(row, wrapResult(unwrappedResult, this.resultKindWithNullability));
+      }
     }
-    Object unwrappedResult = this.doUnwrappedProjection(unwrappedArguments);
-    return ValueCoercer.toLiteral(
-            unwrappedResult,
-            this.resultKindWithNullability.getKind(),
-            this.resultKindWithNullability.isNullable())
-        .orElseThrow(
-            () ->
-                new UnsupportedOperationException(
-                    String.format(
-                        "Projection result %s could not be converted to expected type %s",
-                        unwrappedResult, this.resultKindWithNullability)));
   }
 
   @Override
@@ -67,5 +65,58 @@ abstract class AbstractAttributeProjection<R> implements AttributeProjection {
         .collect(Collectors.toUnmodifiableList());
   }
 
+  AttributeKindWithNullability getResultKindWithNullability() {
+    return this.resultKindWithNullability;
+  }
+
+  List<AttributeKindWithNullability> getArgumentKindsWithNullability() {
+    return this.argumentKindsWithNullability;
+  }
+
   protected abstract R doUnwrappedProjection(List<Object> arguments);
+
+  /**
+   * Binds this projection to nodes producing its unwrapped arguments, which must already be of the
+   * expected argument kinds.
+   */
+  abstract ProjectionNode bind(List<ProjectionNode> argumentNodes);
+
+  @Nullable
+  static Object unwrapArgument(
+      LiteralValue argumentLiteral, AttributeKindWithNullability maybeNullableKind, int index) {
+    return ValueCoercer.fromLiteral(argumentLiteral, maybeNullableKind.getKind())
+        .orElseGet(
+            () -> {
+              if (maybeNullableKind.isNullable()) {
+                return null;
+              }
+              throw new IllegalArgumentException(
+                  String.format(
+                      "Projection argument %s at index %d could not be converted to expected type %s",
+                      argumentLiteral, index, maybeNullableKind));
+            });
+  }
+
+  @Nullable
+  private static Object unwrapCell(
+      AttributeColumn column, int row, AttributeKindWithNullability maybeNullableKind, int index) {
+    if (!column.isNull(row) && column.getKind() == maybeNullableKind.getKind()) {
+      return column.get(row);
+    }
+    return unwrapArgument(column.getLiteral(row), maybeNullableKind, index);
+  }
+
+  static LiteralValue wrapResult(
+      @Nullable Object unwrappedResult, AttributeKindWithNullability resultKindWithNullability) {
+    return ValueCoercer.toLiteral(
+            unwrappedResult,
+            resultKindWithNullability.getKind(),
+            resultKindWithNullability.isNullable())
+        .orElseThrow(
+            () ->
+                new UnsupportedOperationException(
+                    String.format(
+                        "Projection result %s could not be converted to expected type %s",
+                        unwrappedResult, resultKindWithNullability)));
+  }
 }
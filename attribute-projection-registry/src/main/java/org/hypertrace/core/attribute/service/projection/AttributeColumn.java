@@ -0,0 +1,229 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import com.google.common.base.Preconditions;
+import java.util.BitSet;
+import javax.annotation.Nullable;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+
+/**
+ * A column of attribute values of a single kind, backed by a primitive array and a null bitmap, or
+ * by a {@code String[]} with null elements for string columns. Used as batch input and output of
+ * {@link AttributeProjection#projectColumns}.
+ */
+public final class AttributeColumn {
+  private final AttributeKind kind;
+  private final int size;
+  @Nullable private final String[] strings;
+  @Nullable private final boolean[] booleans;
+  @Nullable private final long[] longs;
+  @Nullable private final double[] doubles;
+  private final BitSet nulls;
+
+  private AttributeColumn(
+      AttributeKind kind,
+      int size,
+      @Nullable String[] strings,
+      @Nullable boolean[] booleans,
+      @Nullable long[] longs,
+      @Nullable double[] doubles,
+      BitSet nulls) {
+    this.kind = kind;
+    this.size = size;
+    this.strings = strings;
+    this.booleans = booleans;
+    this.longs = longs;
+    this.doubles = doubles;
+    this.nulls = nulls;
+  }
+
+  /** Wraps the provided values, null elements being null values */
+  public static AttributeColumn ofStrings(String[] values) {
+    return new AttributeColumn(
+        AttributeKind.TYPE_STRING, values.length, values, null, null, null, new BitSet());
+  }
+
+  /** Wraps the provided values, rows set in {@code nulls} being null values */
+  public static AttributeColumn ofBooleans(boolean[] values, BitSet nulls) {
+    return new AttributeColumn(
+        AttributeKind.TYPE_BOOL, values.length, null, values, null, null, nulls);
+  }
+
+  /** Wraps the provided values, rows set in {@code nulls} being null values */
+  public static AttributeColumn ofLongs(long[] values, BitSet nulls) {
+    return new AttributeColumn(
+        AttributeKind.TYPE_INT64, values.length, null, null, values, null, nulls);
+  }
+
+  /** Wraps the provided epoch millis, rows set in {@code nulls} being null values */
+  public static AttributeColumn ofTimestamps(long[] values, BitSet nulls) {
+    return new AttributeColumn(
+        AttributeKind.TYPE_TIMESTAMP, values.length, null, null, values, null, nulls);
+  }
+
+  /** Wraps the provided values, rows set in {@code nulls} being null values */
+  public static AttributeColumn ofDoubles(double[] values, BitSet nulls) {
+    return new AttributeColumn(
+        AttributeKind.TYPE_DOUBLE, values.length, null, null, null, values, nulls);
+  }
+
+  /** Allocates a column of the provided kind, to be filled as the result of a projection */
+  public static AttributeColumn allocate(AttributeKind kind, int size) {
+    switch (kind) {
+      case TYPE_STRING:
+        return ofStrings(new String[size]);
+      case TYPE_BOOL:
+        return ofBooleans(new boolean[size], new BitSet(size));
+      case TYPE_INT64:
+        return ofLongs(new long[size], new BitSet(size));
+      case TYPE_TIMESTAMP:
+        return ofTimestamps(new long[size], new BitSet(size));
+      case TYPE_DOUBLE:
+        return ofDoubles(new double[size], new BitSet(size));
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unsupported attribute column kind %s", kind));
+    }
+  }
+
+  public AttributeKind getKind() {
+    return this.kind;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isNull(int row) {
+    return this.strings != null ? this.strings[row] == null : this.nulls.get(row);
+  }
+
+  @Nullable
+  public String getString(int row) {
+    return requireKind(this.strings, AttributeKind.TYPE_STRING)[row];
+  }
+
+  public boolean getBoolean(int row) {
+    return requireKind(this.booleans, AttributeKind.TYPE_BOOL)[row];
+  }
+
+  /** Returns the value of an {@code TYPE_INT64} or {@code TYPE_TIMESTAMP} column */
+  public long getLong(int row) {
+    return requireKind(this.longs, AttributeKind.TYPE_INT64)[row];
+  }
+
+  public double getDouble(int row) {
+    return requireKind(this.doubles, AttributeKind.TYPE_DOUBLE)[row];
+  }
+
+  /** Returns the boxed value at the provided row, or null */
+  @Nullable
+  Object get(int row) {
+    if (this.isNull(row)) {
+      return null;
+    }
+    switch (this.kind) {
+      case TYPE_STRING:
+        return this.strings[row];
+      case TYPE_BOOL:
+        return this.booleans[row];
+      case TYPE_INT64:
+      case TYPE_TIMESTAMP:
+        return this.longs[row];
+      default:
+        return this.doubles[row];
+    }
+  }
+
+  LiteralValue getLiteral(int row) {
+    if (this.isNull(row)) {
+      return ValueCoercer.nullLiteral();
+    }
+    switch (this.kind) {
+      case TYPE_STRING:
+        return ValueCoercer.stringLiteral(this.strings[row]);
+      case TYPE_BOOL:
+        return ValueCoercer.booleanLiteral(this.booleans[row]);
+      case TYPE_INT64:
+      case TYPE_TIMESTAMP:
+        return ValueCoercer.longLiteral(this.longs[row]);
+      default:
+        return ValueCoercer.doubleLiteral(this.doubles[row]);
+    }
+  }
+
+  /**
+   * Stores a value already of this column's boxed type.
+   *
+   * @return false, leaving the row untouched, if the value is of any other type
+   */
+  boolean trySet(int row, @Nullable Object value) {
+    if (value == null) {
+      this.setNull(row);
+      return true;
+    }
+    switch (this.kind) {
+      case TYPE_STRING:
+        if (value instanceof String) {
+          this.strings[row] = (String) value;
+          return true;
+        }
+        return false;
+      case TYPE_BOOL:
+        if (value instanceof Boolean) {
+          this.booleans[row] = (Boolean) value;
+          this.nulls.clear(row);
+          return true;
+        }
+        return false;
+      case TYPE_INT64:
+      case TYPE_TIMESTAMP:
+        if (value instanceof Long) {
+          this.longs[row] = (Long) value;
+          this.nulls.clear(row);
+          return true;
+        }
+        return false;
+      default:
+        if (value instanceof Double) {
+          this.doubles[row] = (Double) value;
+          this.nulls.clear(row);
+          return true;
+        }
+        return false;
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if the literal can not be converted to this column's kind
+   */
+  void setLiteral(int row, LiteralValue literal) {
+    if (literal.getValueCase() == LiteralValue.ValueCase.VALUE_NOT_SET) {
+      this.setNull(row);
+      return;
+    }
+    Object value =
+        ValueCoercer.fromLiteral(literal, this.kind)
+            .orElseThrow(
+                () ->
+                    new IllegalArgumentException(
+                        String.format(
+                            "Value %s could not be stored in a column of type %s",
+                            literal, this.kind)));
+    this.trySet(row, value);
+  }
+
+  private void setNull(int row) {
+    if (this.strings != null) {
+      this.strings[row] = null;
+    } else {
+      this.nulls.set(row);
+    }
+  }
+
+  private <T> T requireKind(@Nullable T values, AttributeKind expectedKind) {
+    Preconditions.checkState(
+        values != null, "Column of type %s read as type %s", this.kind, expectedKind);
+    return values;
+  }
+}
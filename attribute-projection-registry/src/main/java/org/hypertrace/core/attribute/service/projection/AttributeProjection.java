@@ -1,5 +1,6 @@
 package org.hypertrace.core.attribute.service.projection;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
 import org.hypertrace.core.attribute.service.v1.LiteralValue;
@@ -16,6 +17,26 @@ public interface AttributeProjection {
    */
   LiteralValue project(List<LiteralValue> arguments);
 
+  /**
+   * Performs the projection operation for every row of the provided argument columns, storing each
+   * row's result in the same row of the result column.
+   *
+   * @param arguments to the projection, one column per argument, all of the result column's size
+   * @param result column receiving the results, of any kind the result can be converted to
+   * @throws IllegalArgumentException if the provided arguments do not match the expected arity of
+   *     the projection, or any row fails as described in {@link #project(List)}
+   */
+  default void projectColumns(List<AttributeColumn> arguments, AttributeColumn result) {
+    List<LiteralValue> rowArguments = new ArrayList<>(arguments.size());
+    for (int row = 0; row < result.size(); row++) {
+      rowArguments.clear();
+      for (AttributeColumn argument : arguments) {
+        rowArguments.add(argument.getLiteral(row));
+      }
+      result.setLiteral(row, this.project(rowArguments));
+    }
+  }
+
   AttributeKind getResultKind();
 
   List<AttributeKind> getArgumentKinds();
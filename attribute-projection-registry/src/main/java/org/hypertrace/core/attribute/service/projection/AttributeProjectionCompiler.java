@@ -0,0 +1,162 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import static org.hypertrace.core.attribute.service.projection.AbstractAttributeProjection.unwrapArgument;
+import static org.hypertrace.core.attribute.service.projection.AbstractAttributeProjection.wrapResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+import org.hypertrace.core.attribute.service.v1.Projection;
+import org.hypertrace.core.attribute.service.v1.ProjectionExpression;
+
+/**
+ * Compiles {@link Projection} trees into {@link CompiledProjection}s. Operators are resolved and
+ * literals are converted to their expected argument types once, at compile time. Evaluation then
+ * passes unwrapped values between operators, only converting attribute values on the way in and
+ * the final result on the way out.
+ */
+public class AttributeProjectionCompiler {
+  private final AttributeProjectionRegistry registry;
+
+  public AttributeProjectionCompiler() {
+    this(new AttributeProjectionRegistry());
+  }
+
+  public AttributeProjectionCompiler(AttributeProjectionRegistry registry) {
+    this.registry = registry;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the definition is not a projection, or the projection can
+   *     not be compiled
+   */
+  public CompiledProjection compile(AttributeDefinition definition) {
+    if (!definition.hasProjection()) {
+      throw new IllegalArgumentException(
+          String.format("Attribute definition %s is not a projection", definition));
+    }
+    return compile(definition.getProjection());
+  }
+
+  /**
+   * @throws IllegalArgumentException if the projection references an unknown operator, has the
+   *     wrong number of arguments for an operator, or contains a literal that can not be converted
+   *     to the type its operator expects
+   */
+  public CompiledProjection compile(Projection projection) {
+    switch (projection.getValueCase()) {
+      case ATTRIBUTE_ID:
+        String attributeId = projection.getAttributeId();
+        return attributeValues -> resolveAttributeValue(attributeValues, attributeId);
+      case LITERAL:
+        LiteralValue literal = projection.getLiteral();
+        return attributeValues -> literal;
+      case EXPRESSION:
+        AbstractAttributeProjection<?> operator = getOperator(projection.getExpression());
+        ProjectionNode expressionNode = compileExpression(operator, projection.getExpression());
+        AttributeKindWithNullability resultKind = operator.getResultKindWithNullability();
+        return attributeValues -> wrapResult(expressionNode.evaluate(attributeValues), resultKind);
+      default:
+        throw new IllegalArgumentException(String.format("Unsupported projection %s", projection));
+    }
+  }
+
+  private ProjectionNode compileExpression(
+      AbstractAttributeProjection<?> operator, ProjectionExpression expression) {
+    List<AttributeKindWithNullability> argumentKinds = operator.getArgumentKindsWithNullability();
+    if (expression.getArgumentsCount() != argumentKinds.size()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Projection operator %s expects %d arguments but found %d",
+              expression.getOperator(), argumentKinds.size(), expression.getArgumentsCount()));
+    }
+
+    List<ProjectionNode> argumentNodes = new ArrayList<>(argumentKinds.size());
+    for (int index = 0; index < argumentKinds.size(); index++) {
+      argumentNodes.add(
+          compileArgument(expression.getArguments(index), argumentKinds.get(index), index));
+    }
+    return operator.bind(List.copyOf(argumentNodes));
+  }
+
+  private ProjectionNode compileArgument(
+      Projection argument, AttributeKindWithNullability expectedKind, int index) {
+    switch (argument.getValueCase()) {
+      case ATTRIBUTE_ID:
+        String attributeId = argument.getAttributeId();
+        return attributeValues ->
+            unwrapArgument(
+                resolveAttributeValue(attributeValues, attributeId), expectedKind, index);
+      case LITERAL:
+        Object value = unwrapArgument(argument.getLiteral(), expectedKind, index);
+        return attributeValues -> value;
+      case EXPRESSION:
+        AbstractAttributeProjection<?> operator = getOperator(argument.getExpression());
+        return coerce(
+            compileExpression(operator, argument.getExpression()),
+            operator.getResultKindWithNullability(),
+            expectedKind,
+            index);
+      default:
+        throw new IllegalArgumentException(
+            String.format("Unsupported projection argument %s at index %d", argument, index));
+    }
+  }
+
+  /**
+   * Passes an operator result straight through when it is already of the expected argument type,
+   * otherwise converts it exactly as a literal result would be.
+   */
+  private static ProjectionNode coerce(
+      ProjectionNode node,
+      AttributeKindWithNullability resultKind,
+      AttributeKindWithNullability expectedKind,
+      int index) {
+    Class<?> expectedClass =
+        resultKind.getKind() == expectedKind.getKind()
+            ? unwrappedClassOf(expectedKind.getKind())
+            : Void.class;
+    return attributeValues -> {
+      Object value = node.evaluate(attributeValues);
+      if (expectedClass.isInstance(value)) {
+        return value;
+      }
+      return unwrapArgument(wrapResult(value, resultKind), expectedKind, index);
+    };
+  }
+
+  private static Class<?> unwrappedClassOf(AttributeKind kind) {
+    switch (kind) {
+      case TYPE_STRING:
+        return String.class;
+      case TYPE_BOOL:
+        return Boolean.class;
+      case TYPE_INT64:
+      case TYPE_TIMESTAMP:
+        return Long.class;
+      case TYPE_DOUBLE:
+        return Double.class;
+      default:
+        return Void.class;
+    }
+  }
+
+  private AbstractAttributeProjection<?> getOperator(ProjectionExpression expression) {
+    return registry
+        .getCompilableProjection(expression.getOperator())
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    String.format("Unsupported projection operator %s", expression.getOperator())));
+  }
+
+  private static LiteralValue resolveAttributeValue(
+      Function<String, LiteralValue> attributeValues, String attributeId) {
+    return Objects.requireNonNullElse(
+        attributeValues.apply(attributeId), LiteralValue.getDefaultInstance());
+  }
+}
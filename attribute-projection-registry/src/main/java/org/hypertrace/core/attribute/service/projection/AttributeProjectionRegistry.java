@@ -1,5 +1,6 @@
 package org.hypertrace.core.attribute.service.projection;
 
+import static java.util.Objects.isNull;
 import static org.hypertrace.core.attribute.service.projection.AttributeKindWithNullability.nonNullableKind;
 import static org.hypertrace.core.attribute.service.projection.AttributeKindWithNullability.nullableKind;
 import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_BOOL;
@@ -10,8 +11,13 @@ import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJEC
 import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_HASH;
 import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_STRING_EQUALS;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import org.hypertrace.core.attribute.service.projection.functions.Concatenate;
 import org.hypertrace.core.attribute.service.projection.functions.ConcatenateOrNull;
 import org.hypertrace.core.attribute.service.projection.functions.Conditional;
@@ -21,38 +27,99 @@ import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
 
 public class AttributeProjectionRegistry {
 
-  private static final Map<ProjectionOperator, AttributeProjection> PROJECTION_MAP =
-      Map.of(
-          PROJECTION_OPERATOR_CONCAT,
-          new BinaryAttributeProjection<>(
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              Concatenate::concatenate),
-          PROJECTION_OPERATOR_HASH,
-          new UnaryAttributeProjection<>(
-              nullableKind(TYPE_STRING), nullableKind(TYPE_STRING), Hash::hash),
-          PROJECTION_OPERATOR_STRING_EQUALS,
-          new BinaryAttributeProjection<>(
-              nonNullableKind(TYPE_BOOL),
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              Equals::stringEquals),
-          PROJECTION_OPERATOR_CONDITIONAL,
-          new TernaryAttributeProjection<>(
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_BOOL),
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              Conditional::getValue),
-          PROJECTION_OPERATOR_CONCAT_OR_NULL,
-          new BinaryAttributeProjection<>(
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              nullableKind(TYPE_STRING),
-              ConcatenateOrNull::concatenate));
+  private static final Map<ProjectionOperator, AbstractAttributeProjection<?>> PROJECTION_MAP =
+      buildProjectionMap(Hash::hash);
+
+  private final Map<ProjectionOperator, AbstractAttributeProjection<?>> projectionMap;
+  private final Optional<LoadingCache<String, String>> hashCache;
+
+  public AttributeProjectionRegistry() {
+    this.projectionMap = PROJECTION_MAP;
+    this.hashCache = Optional.empty();
+  }
+
+  /**
+   * Creates a registry memoizing up to {@code hashCacheMaxSize} results of {@link
+   * ProjectionOperator#PROJECTION_OPERATOR_HASH}, worthwhile when hashed values repeat often.
+   */
+  public AttributeProjectionRegistry(long hashCacheMaxSize) {
+    LoadingCache<String, String> cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(hashCacheMaxSize)
+            .recordStats()
+            .build(CacheLoader.from(Hash::hash));
+    this.projectionMap =
+        buildProjectionMap(value -> isNull(value) ? null : cache.getUnchecked(value));
+    this.hashCache = Optional.of(cache);
+  }
 
   public Optional<AttributeProjection> getProjection(ProjectionOperator projectionOperator) {
-    return Optional.ofNullable(PROJECTION_MAP.get(projectionOperator));
+    return Optional.ofNullable(this.projectionMap.get(projectionOperator));
+  }
+
+  /** Number of hash projections answered from the memo, always 0 if memoization is disabled */
+  public long getHashCacheHitCount() {
+    return this.hashCache.map(cache -> cache.stats().hitCount()).orElse(0L);
+  }
+
+  /** Number of hash projections computed on a memo miss, always 0 if memoization is disabled */
+  public long getHashCacheMissCount() {
+    return this.hashCache.map(cache -> cache.stats().missCount()).orElse(0L);
+  }
+
+  /**
+   * Performs the projection registered for the operator over columnar arguments, as described in
+   * {@link AttributeProjection#projectColumns}.
+   *
+   * @throws IllegalArgumentException if no projection is registered for the operator
+   */
+  public void projectColumns(
+      ProjectionOperator projectionOperator,
+      List<AttributeColumn> arguments,
+      AttributeColumn result) {
+    this.getProjection(projectionOperator)
+        .orElseThrow(
+            () ->
+                new IllegalArgumentException(
+                    String.format("Unsupported projection operator %s", projectionOperator)))
+        .projectColumns(arguments, result);
+  }
+
+  Optional<AbstractAttributeProjection<?>> getCompilableProjection(
+      ProjectionOperator projectionOperator) {
+    return Optional.ofNullable(this.projectionMap.get(projectionOperator));
+  }
+
+  private static Map<ProjectionOperator, AbstractAttributeProjection<?>> buildProjectionMap(
+      Function<String, String> hashImplementation) {
+    return Map.of(
+        PROJECTION_OPERATOR_CONCAT,
+        new BinaryAttributeProjection<>(
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            Concatenate::concatenate),
+        PROJECTION_OPERATOR_HASH,
+        new UnaryAttributeProjection<>(
+            nullableKind(TYPE_STRING), nullableKind(TYPE_STRING), hashImplementation),
+        PROJECTION_OPERATOR_STRING_EQUALS,
+        new BinaryAttributeProjection<>(
+            nonNullableKind(TYPE_BOOL),
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            Equals::stringEquals),
+        PROJECTION_OPERATOR_CONDITIONAL,
+        new TernaryAttributeProjection<>(
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_BOOL),
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            Conditional::getValue),
+        PROJECTION_OPERATOR_CONCAT_OR_NULL,
+        new BinaryAttributeProjection<>(
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            nullableKind(TYPE_STRING),
+            ConcatenateOrNull::concatenate));
   }
 }
@@ -20,4 +20,15 @@ class BinaryAttributeProjection<T, U, R> extends AbstractAttributeProjection<R>
   protected R doUnwrappedProjection(List<Object> arguments) {
     return this.projectionImplementation.apply((T) arguments.get(0), (U) arguments.get(1));
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  ProjectionNode bind(List<ProjectionNode> argumentNodes) {
+    ProjectionNode firstArgumentNode = argumentNodes.get(0);
+    ProjectionNode secondArgumentNode = argumentNodes.get(1);
+    return attributeValues ->
+        this.projectionImplementation.apply(
+            (T) firstArgumentNode.evaluate(attributeValues),
+            (U) secondArgumentNode.evaluate(attributeValues));
+  }
 }
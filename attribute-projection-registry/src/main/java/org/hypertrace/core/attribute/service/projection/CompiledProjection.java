@@ -0,0 +1,17 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import java.util.function.Function;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+
+public interface CompiledProjection {
+  /**
+   * Evaluates the compiled projection tree.
+   *
+   * @param attributeValues resolves the value of an attribute referenced by the projection, by
+   *     attribute id. A null or unset value is treated as a null argument.
+   * @return the result of the projection
+   * @throws IllegalArgumentException if a resolved attribute value can not be converted to the type
+   *     expected by the operator consuming it
+   */
+  LiteralValue evaluate(Function<String, LiteralValue> attributeValues);
+}
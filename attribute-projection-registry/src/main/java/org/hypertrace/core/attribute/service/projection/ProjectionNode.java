@@ -0,0 +1,12 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+
+/** A compiled node of a projection tree, producing an unwrapped value */
+@FunctionalInterface
+interface ProjectionNode {
+  @Nullable
+  Object evaluate(Function<String, LiteralValue> attributeValues);
+}
@@ -21,4 +21,17 @@ public class TernaryAttributeProjection<T, U, V, R> extends AbstractAttributePro
     return this.projectionImplementation.apply(
         (T) arguments.get(0), (U) arguments.get(1), (V) arguments.get(2));
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  ProjectionNode bind(List<ProjectionNode> argumentNodes) {
+    ProjectionNode firstArgumentNode = argumentNodes.get(0);
+    ProjectionNode secondArgumentNode = argumentNodes.get(1);
+    ProjectionNode thirdArgumentNode = argumentNodes.get(2);
+    return attributeValues ->
+        this.projectionImplementation.apply(
+            (T) firstArgumentNode.evaluate(attributeValues),
+            (U) secondArgumentNode.evaluate(attributeValues),
+            (V) thirdArgumentNode.evaluate(attributeValues));
+  }
 }
@@ -19,4 +19,12 @@ class UnaryAttributeProjection<T, R> extends AbstractAttributeProjection<R> {
   protected R doUnwrappedProjection(List<Object> arguments) {
     return this.projectionImplementation.apply((T) arguments.get(0));
   }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  ProjectionNode bind(List<ProjectionNode> argumentNodes) {
+    ProjectionNode argumentNode = argumentNodes.get(0);
+    return attributeValues ->
+        this.projectionImplementation.apply((T) argumentNode.evaluate(attributeValues));
+  }
 }
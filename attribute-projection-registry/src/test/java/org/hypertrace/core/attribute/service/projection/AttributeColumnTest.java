@@ -0,0 +1,61 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.longLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.nullLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.stringLiteral;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_BOOL;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_DOUBLE;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_INT64;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+
+class AttributeColumnTest {
+
+  @Test
+  void readsWrappedValues() {
+    BitSet nulls = new BitSet();
+    nulls.set(1);
+    AttributeColumn longColumn = AttributeColumn.ofLongs(new long[] {4, 0}, nulls);
+
+    assertEquals(TYPE_INT64, longColumn.getKind());
+    assertEquals(2, longColumn.size());
+    assertEquals(4L, longColumn.getLong(0));
+    assertEquals(4L, longColumn.get(0));
+    assertEquals(longLiteral(4), longColumn.getLiteral(0));
+    assertTrue(longColumn.isNull(1));
+    assertNull(longColumn.get(1));
+    assertEquals(nullLiteral(), longColumn.getLiteral(1));
+
+    AttributeColumn stringColumn = AttributeColumn.ofStrings(new String[] {"a", null});
+    assertEquals(TYPE_STRING, stringColumn.getKind());
+    assertFalse(stringColumn.isNull(0));
+    assertTrue(stringColumn.isNull(1));
+    assertEquals(stringLiteral("a"), stringColumn.getLiteral(0));
+  }
+
+  @Test
+  void storesConvertibleLiterals() {
+    AttributeColumn column = AttributeColumn.allocate(TYPE_DOUBLE, 3);
+    column.setLiteral(0, longLiteral(2));
+    column.setLiteral(1, stringLiteral("2.5"));
+    column.setLiteral(2, nullLiteral());
+
+    assertEquals(2.0d, column.getDouble(0));
+    assertEquals(2.5d, column.getDouble(1));
+    assertTrue(column.isNull(2));
+    assertThrows(IllegalArgumentException.class, () -> column.setLiteral(0, stringLiteral("x")));
+  }
+
+  @Test
+  void rejectsReadsOfAnotherKind() {
+    AttributeColumn column = AttributeColumn.allocate(TYPE_BOOL, 1);
+    assertThrows(IllegalStateException.class, () -> column.getString(0));
+  }
+}
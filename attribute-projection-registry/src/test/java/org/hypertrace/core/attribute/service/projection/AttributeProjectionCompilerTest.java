@@ -0,0 +1,160 @@
+package org.hypertrace.core.attribute.service.projection;
+
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.booleanLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.longLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.nullLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.stringLiteral;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_CONCAT;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_CONDITIONAL;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_HASH;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_STRING_EQUALS;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_UNSET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+import org.hypertrace.core.attribute.service.v1.Projection;
+import org.hypertrace.core.attribute.service.v1.ProjectionExpression;
+import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
+import org.junit.jupiter.api.Test;
+
+class AttributeProjectionCompilerTest {
+
+  private final AttributeProjectionCompiler compiler = new AttributeProjectionCompiler();
+  private final AttributeProjectionRegistry registry = new AttributeProjectionRegistry();
+
+  @Test
+  void compilesLeafProjections() {
+    assertEquals(
+        stringLiteral("value"),
+        compiler
+            .compile(Projection.newBuilder().setAttributeId("EVENT.name").build())
+            .evaluate(Map.of("EVENT.name", stringLiteral("value"))::get));
+    assertEquals(
+        nullLiteral(),
+        compiler
+            .compile(Projection.newBuilder().setAttributeId("EVENT.name").build())
+            .evaluate(Map.<String, LiteralValue>of()::get));
+    assertEquals(
+        longLiteral(3),
+        compiler
+            .compile(Projection.newBuilder().setLiteral(longLiteral(3)).build())
+            .evaluate(Map.<String, LiteralValue>of()::get));
+  }
+
+  @Test
+  void evaluatesNestedExpressions() {
+    // conditional(stringEquals(EVENT.type, "http"), concat(EVENT.host, EVENT.path), "unknown")
+    CompiledProjection compiledProjection =
+        compiler.compile(
+            AttributeDefinition.newBuilder()
+                .setProjection(
+                    expression(
+                        PROJECTION_OPERATOR_CONDITIONAL,
+                        expression(
+                            PROJECTION_OPERATOR_STRING_EQUALS,
+                            attribute("EVENT.type"),
+                            literal(stringLiteral("http"))),
+                        expression(
+                            PROJECTION_OPERATOR_CONCAT,
+                            attribute("EVENT.host"),
+                            attribute("EVENT.path")),
+                        literal(stringLiteral("unknown"))))
+                .build());
+
+    assertEquals(
+        stringLiteral("example.com/index"),
+        compiledProjection.evaluate(
+            Map.of(
+                    "EVENT.type", stringLiteral("http"),
+                    "EVENT.host", stringLiteral("example.com"),
+                    "EVENT.path", stringLiteral("/index"))
+                ::get));
+    assertEquals(
+        stringLiteral("unknown"),
+        compiledProjection.evaluate(Map.of("EVENT.type", stringLiteral("grpc"))::get));
+  }
+
+  @Test
+  void matchesInterpretedProjection() {
+    Map<String, LiteralValue> attributeValues =
+        Map.of("EVENT.first", stringLiteral("first"), "EVENT.flag", booleanLiteral(true));
+    for (ProjectionOperator operator : ProjectionOperator.values()) {
+      if (operator == PROJECTION_OPERATOR_UNSET || operator == ProjectionOperator.UNRECOGNIZED) {
+        continue;
+      }
+      AttributeProjection projection = registry.getProjection(operator).orElseThrow();
+      List<Projection> arguments =
+          projection.getArgumentKinds().size() == 3
+              ? List.of(attribute("EVENT.flag"), attribute("EVENT.first"), attribute("EVENT.none"))
+              : List.of(attribute("EVENT.first"), attribute("EVENT.none"))
+                  .subList(0, projection.getArgumentKinds().size());
+      List<LiteralValue> argumentValues =
+          arguments.stream()
+              .map(Projection::getAttributeId)
+              .map(attributeId -> attributeValues.getOrDefault(attributeId, nullLiteral()))
+              .collect(Collectors.toUnmodifiableList());
+
+      assertEquals(
+          projection.project(argumentValues),
+          compiler
+              .compile(expression(operator, arguments.toArray(Projection[]::new)))
+              .evaluate(attributeValues::get),
+          operator.name());
+    }
+  }
+
+  @Test
+  void coercesNestedResultsOfDifferentKinds() {
+    // concat(stringEquals("a", "a"), "!") passes a boolean result into a string argument
+    assertEquals(
+        stringLiteral("true!"),
+        compiler
+            .compile(
+                expression(
+                    PROJECTION_OPERATOR_CONCAT,
+                    expression(
+                        PROJECTION_OPERATOR_STRING_EQUALS,
+                        literal(stringLiteral("a")),
+                        literal(stringLiteral("a"))),
+                    literal(stringLiteral("!"))))
+            .evaluate(Map.<String, LiteralValue>of()::get));
+  }
+
+  @Test
+  void failsToCompileInvalidProjections() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> compiler.compile(expression(PROJECTION_OPERATOR_UNSET, attribute("EVENT.name"))));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> compiler.compile(expression(PROJECTION_OPERATOR_HASH)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            compiler.compile(
+                AttributeDefinition.newBuilder().setSourcePath("attributes.name").build()));
+  }
+
+  private static Projection attribute(String attributeId) {
+    return Projection.newBuilder().setAttributeId(attributeId).build();
+  }
+
+  private static Projection literal(LiteralValue literalValue) {
+    return Projection.newBuilder().setLiteral(literalValue).build();
+  }
+
+  private static Projection expression(ProjectionOperator operator, Projection... arguments) {
+    return Projection.newBuilder()
+        .setExpression(
+            ProjectionExpression.newBuilder()
+                .setOperator(operator)
+                .addAllArguments(Arrays.asList(arguments)))
+        .build();
+  }
+}
@@ -1,9 +1,19 @@
 package org.hypertrace.core.attribute.service.projection;
 
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.nullLiteral;
+import static org.hypertrace.core.attribute.service.projection.ValueCoercer.stringLiteral;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_BOOL;
+import static org.hypertrace.core.attribute.service.v1.AttributeKind.TYPE_STRING;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_CONCAT;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_CONDITIONAL;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_HASH;
+import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_STRING_EQUALS;
 import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.PROJECTION_OPERATOR_UNSET;
 import static org.hypertrace.core.attribute.service.v1.ProjectionOperator.UNRECOGNIZED;
 
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -25,4 +35,79 @@ class AttributeProjectionRegistryTest {
                     registry.getProjection(projectionOperator).isPresent(),
                     "Projection declared but not present in registry " + projectionOperator));
   }
+
+  @Test
+  void projectsColumns() {
+    AttributeColumn first = AttributeColumn.ofStrings(new String[] {"a", null, null});
+    AttributeColumn second = AttributeColumn.ofStrings(new String[] {"b", "c", null});
+
+    AttributeColumn concatenated = AttributeColumn.allocate(TYPE_STRING, 3);
+    registry.projectColumns(PROJECTION_OPERATOR_CONCAT, List.of(first, second), concatenated);
+    Assertions.assertEquals("ab", concatenated.getString(0));
+    Assertions.assertEquals("c", concatenated.getString(1));
+    Assertions.assertTrue(concatenated.isNull(2));
+
+    AttributeColumn equal = AttributeColumn.allocate(TYPE_BOOL, 3);
+    registry.projectColumns(PROJECTION_OPERATOR_STRING_EQUALS, List.of(first, second), equal);
+    Assertions.assertFalse(equal.getBoolean(0));
+    Assertions.assertFalse(equal.getBoolean(1));
+    Assertions.assertTrue(equal.getBoolean(2));
+
+    // Results are converted when stored in a column of another kind
+    AttributeColumn equalAsString = AttributeColumn.allocate(TYPE_STRING, 3);
+    registry.projectColumns(
+        PROJECTION_OPERATOR_STRING_EQUALS, List.of(first, second), equalAsString);
+    Assertions.assertEquals("true", equalAsString.getString(2));
+  }
+
+  @Test
+  void projectsColumnsOfConvertibleArgumentKinds() {
+    BitSet nulls = new BitSet();
+    nulls.set(1);
+    AttributeColumn conditions = AttributeColumn.ofBooleans(new boolean[] {true, false}, nulls);
+    AttributeColumn first = AttributeColumn.ofLongs(new long[] {1, 2}, new BitSet());
+    AttributeColumn second = AttributeColumn.ofStrings(new String[] {"x", "y"});
+
+    AttributeColumn result = AttributeColumn.allocate(TYPE_STRING, 2);
+    registry.projectColumns(
+        PROJECTION_OPERATOR_CONDITIONAL, List.of(conditions, first, second), result);
+    Assertions.assertEquals("1", result.getString(0));
+    Assertions.assertTrue(result.isNull(1));
+  }
+
+  @Test
+  void rejectsInvalidColumnArguments() {
+    AttributeColumn column = AttributeColumn.ofStrings(new String[] {"a"});
+    AttributeColumn result = AttributeColumn.allocate(TYPE_STRING, 1);
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> registry.projectColumns(PROJECTION_OPERATOR_CONCAT, List.of(column), result));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            registry.projectColumns(
+                PROJECTION_OPERATOR_CONCAT,
+                List.of(column, AttributeColumn.ofStrings(new String[] {"a", "b"})),
+                result));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> registry.projectColumns(PROJECTION_OPERATOR_UNSET, List.of(), result));
+  }
+
+  @Test
+  void memoizesHashProjections() {
+    AttributeProjectionRegistry memoizingRegistry = new AttributeProjectionRegistry(10);
+    AttributeProjection hash = memoizingRegistry.getProjection(PROJECTION_OPERATOR_HASH).get();
+
+    Assertions.assertEquals(
+        registry.getProjection(PROJECTION_OPERATOR_HASH).get().project(List.of(stringLiteral("a"))),
+        hash.project(List.of(stringLiteral("a"))));
+    hash.project(List.of(stringLiteral("a")));
+    hash.project(List.of(stringLiteral("b")));
+    Assertions.assertEquals(nullLiteral(), hash.project(List.of(nullLiteral())));
+
+    Assertions.assertEquals(2, memoizingRegistry.getHashCacheMissCount());
+    Assertions.assertEquals(1, memoizingRegistry.getHashCacheHitCount());
+    Assertions.assertEquals(0, registry.getHashCacheHitCount());
+  }
 }
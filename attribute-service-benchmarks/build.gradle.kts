@@ -0,0 +1,20 @@
+plugins {
+  java
+  alias(libs.plugins.jmh)
+}
+
+dependencies {
+  jmhImplementation(projects.attributeServiceImpl)
+  jmhImplementation(projects.attributeProjectionRegistry)
+  jmhImplementation(commonLibs.hypertrace.documentstore)
+  jmhImplementation(commonLibs.typesafe.config)
+}
+
+jmh {
+  fork.set(1)
+  warmupIterations.set(3)
+  iterations.set(5)
+  resultFormat.set("JSON")
+  // Select suites with -PjmhIncludes=<regex>, e.g. -PjmhIncludes=AttributeProjectionBenchmark
+  project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
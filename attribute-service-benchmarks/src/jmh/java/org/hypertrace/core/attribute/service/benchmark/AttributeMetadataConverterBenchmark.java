@@ -0,0 +1,40 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverter;
+import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverterImpl;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AttributeMetadataConverterBenchmark {
+  private final AttributeMetadataConverter converter = new AttributeMetadataConverterImpl();
+  private Document document;
+
+  @Setup
+  public void setUp() throws IOException {
+    final AttributeMetadataModel model =
+        AttributeMetadataModel.fromDTO(BenchmarkAttributes.attribute(0));
+    model.setTenantId("tenant");
+    // Documents read back from the store are JSON backed, not the model itself
+    document = new JSONDocument(model.toJson());
+  }
+
+  @Benchmark
+  public Optional<AttributeMetadata> convert() {
+    return converter.convert(document);
+  }
+}
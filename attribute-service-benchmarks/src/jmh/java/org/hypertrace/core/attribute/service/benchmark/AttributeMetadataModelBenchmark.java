@@ -0,0 +1,37 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AttributeMetadataModelBenchmark {
+  private AttributeMetadataModel model;
+  private String json;
+
+  @Setup
+  public void setUp() {
+    model = AttributeMetadataModel.fromDTO(BenchmarkAttributes.attribute(0));
+    model.setTenantId("tenant");
+    json = model.toJson();
+  }
+
+  @Benchmark
+  public AttributeMetadataModel fromJson() throws IOException {
+    return AttributeMetadataModel.fromJson(json);
+  }
+
+  @Benchmark
+  public String toJson() {
+    return model.toJson();
+  }
+}
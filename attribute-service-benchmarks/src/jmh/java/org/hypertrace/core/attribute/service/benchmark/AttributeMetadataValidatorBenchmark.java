@@ -0,0 +1,38 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
+import org.hypertrace.core.attribute.service.validator.AttributeMetadataValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AttributeMetadataValidatorBenchmark {
+  @Param({"10", "100", "1000"})
+  public int attributeCount;
+
+  private final AttributeMetadataValidator validator = new AttributeMetadataValidator();
+  private AttributeCreateRequest request;
+
+  @Setup
+  public void setUp() {
+    request = BenchmarkAttributes.createRequest(attributeCount);
+  }
+
+  @Benchmark
+  public AttributeCreateRequest validate() {
+    // System attributes are not subject to the custom attribute limit
+    validator.validate(request, ROOT_TENANT_ID, () -> 0);
+    return request;
+  }
+}
@@ -0,0 +1,124 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.hypertrace.core.attribute.service.projection.AttributeColumn;
+import org.hypertrace.core.attribute.service.projection.AttributeProjection;
+import org.hypertrace.core.attribute.service.projection.AttributeProjectionCompiler;
+import org.hypertrace.core.attribute.service.projection.AttributeProjectionRegistry;
+import org.hypertrace.core.attribute.service.projection.CompiledProjection;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+import org.hypertrace.core.attribute.service.v1.Projection;
+import org.hypertrace.core.attribute.service.v1.ProjectionExpression;
+import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AttributeProjectionBenchmark {
+  private static final int BATCH_SIZE = 1024;
+
+  @Param({
+    "PROJECTION_OPERATOR_CONCAT",
+    "PROJECTION_OPERATOR_HASH",
+    "PROJECTION_OPERATOR_STRING_EQUALS",
+    "PROJECTION_OPERATOR_CONDITIONAL",
+    "PROJECTION_OPERATOR_CONCAT_OR_NULL"
+  })
+  public ProjectionOperator operator;
+
+  private AttributeProjection projection;
+  private List<LiteralValue> arguments;
+  private CompiledProjection compiledProjection;
+  private Map<String, LiteralValue> attributeValues;
+  private List<AttributeColumn> argumentColumns;
+  private AttributeColumn resultColumn;
+
+  @Setup
+  public void setUp() {
+    projection =
+        new AttributeProjectionRegistry()
+            .getProjection(operator)
+            .orElseThrow(() -> new IllegalArgumentException("No projection for " + operator));
+    arguments =
+        projection.getArgumentKinds().stream()
+            .map(AttributeProjectionBenchmark::argumentOfKind)
+            .collect(Collectors.toUnmodifiableList());
+
+    // The same operator over attribute references, as evaluated during ingestion
+    final ProjectionExpression.Builder expression =
+        ProjectionExpression.newBuilder().setOperator(operator);
+    attributeValues = new HashMap<>();
+    for (int index = 0; index < arguments.size(); index++) {
+      final String attributeId = "EVENT.argument" + index;
+      expression.addArguments(Projection.newBuilder().setAttributeId(attributeId));
+      attributeValues.put(attributeId, arguments.get(index));
+    }
+    compiledProjection =
+        new AttributeProjectionCompiler()
+            .compile(Projection.newBuilder().setExpression(expression).build());
+
+    argumentColumns =
+        projection.getArgumentKinds().stream()
+            .map(AttributeProjectionBenchmark::columnOfKind)
+            .collect(Collectors.toUnmodifiableList());
+    resultColumn = AttributeColumn.allocate(projection.getResultKind(), BATCH_SIZE);
+  }
+
+  @Benchmark
+  public LiteralValue project() {
+    return projection.project(arguments);
+  }
+
+  @Benchmark
+  public LiteralValue evaluateCompiled() {
+    return compiledProjection.evaluate(attributeValues::get);
+  }
+
+  /** Evaluates a whole batch, so the score is per {@value #BATCH_SIZE} rows */
+  @Benchmark
+  public AttributeColumn projectColumns() {
+    projection.projectColumns(argumentColumns, resultColumn);
+    return resultColumn;
+  }
+
+  private static AttributeColumn columnOfKind(final AttributeKind kind) {
+    switch (kind) {
+      case TYPE_BOOL:
+        final boolean[] booleans = new boolean[BATCH_SIZE];
+        Arrays.fill(booleans, true);
+        return AttributeColumn.ofBooleans(booleans, new BitSet(BATCH_SIZE));
+      case TYPE_STRING:
+        final String[] strings = new String[BATCH_SIZE];
+        Arrays.fill(strings, "d2f2a1c0-benchmark-value");
+        return AttributeColumn.ofStrings(strings);
+      default:
+        throw new IllegalArgumentException("Unsupported argument kind " + kind);
+    }
+  }
+
+  private static LiteralValue argumentOfKind(final AttributeKind kind) {
+    switch (kind) {
+      case TYPE_BOOL:
+        return LiteralValue.newBuilder().setBooleanValue(true).build();
+      case TYPE_STRING:
+        return LiteralValue.newBuilder().setStringValue("d2f2a1c0-benchmark-value").build();
+      default:
+        throw new IllegalArgumentException("Unsupported argument kind " + kind);
+    }
+  }
+}
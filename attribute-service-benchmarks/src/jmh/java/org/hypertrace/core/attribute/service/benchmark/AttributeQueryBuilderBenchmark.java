@@ -0,0 +1,43 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilderImpl;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.documentstore.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class AttributeQueryBuilderBenchmark {
+  private static final String TENANT_ID = "tenant";
+  private static final AttributeMetadataFilter FULL_FILTER =
+      AttributeMetadataFilter.newBuilder()
+          .addFqn("EVENT.key0")
+          .addFqn("EVENT.key1")
+          .addScope(AttributeScope.EVENT)
+          .addScopeString(AttributeScope.API.name())
+          .addKey("key0")
+          .setInternal(false)
+          .setCustom(true)
+          .build();
+
+  private final AttributeQueryBuilder queryBuilder = new AttributeQueryBuilderImpl();
+
+  @Benchmark
+  public Query buildEmptyFilterQuery() {
+    return queryBuilder.buildFilterQuery(TENANT_ID, AttributeMetadataFilter.getDefaultInstance());
+  }
+
+  @Benchmark
+  public Query buildFullFilterQuery() {
+    return queryBuilder.buildFilterQuery(TENANT_ID, FULL_FILTER);
+  }
+}
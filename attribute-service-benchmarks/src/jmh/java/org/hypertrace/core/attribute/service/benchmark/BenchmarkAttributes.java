@@ -0,0 +1,65 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hypertrace.core.attribute.service.v1.AggregateFunction;
+import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.attribute.service.v1.AttributeSource;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeType;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+import org.hypertrace.core.attribute.service.v1.Projection;
+import org.hypertrace.core.attribute.service.v1.ProjectionExpression;
+import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
+
+/** Representative attributes shared by the benchmark suites */
+final class BenchmarkAttributes {
+  private BenchmarkAttributes() {}
+
+  static AttributeMetadata attribute(final int index) {
+    final String key = "key" + index;
+    return AttributeMetadata.newBuilder()
+        .setFqn(AttributeScope.EVENT.name() + "." + key)
+        .setKey(key)
+        .setDisplayName("Attribute " + index)
+        .setScopeString(AttributeScope.EVENT.name())
+        .setValueKind(AttributeKind.TYPE_STRING)
+        .setType(AttributeType.ATTRIBUTE)
+        .setUnit("ms")
+        .addLabels("benchmark")
+        .addSupportedAggregations(AggregateFunction.DISTINCT_COUNT)
+        .addSources(AttributeSource.QS)
+        .putMetadata(
+            AttributeSource.QS.name(),
+            AttributeSourceMetadata.newBuilder()
+                .putSourceMetadata("path", "attributes." + key)
+                .build())
+        .setDefinition(
+            AttributeDefinition.newBuilder()
+                .setProjection(
+                    Projection.newBuilder()
+                        .setExpression(
+                            ProjectionExpression.newBuilder()
+                                .setOperator(ProjectionOperator.PROJECTION_OPERATOR_CONCAT)
+                                .addArguments(Projection.newBuilder().setAttributeId("EVENT.name"))
+                                .addArguments(
+                                    Projection.newBuilder()
+                                        .setLiteral(
+                                            LiteralValue.newBuilder().setStringValue(key))))))
+        .setDescription("Benchmark attribute " + index)
+        .build();
+  }
+
+  static AttributeCreateRequest createRequest(final int attributeCount) {
+    return AttributeCreateRequest.newBuilder()
+        .addAllAttributes(
+            IntStream.range(0, attributeCount)
+                .mapToObj(BenchmarkAttributes::attribute)
+                .collect(Collectors.toUnmodifiableList()))
+        .build();
+  }
+}
@@ -0,0 +1,35 @@
+package org.hypertrace.core.attribute.service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.validator.StringLengthValidator;
+import org.hypertrace.core.attribute.service.validator.StringLengthValidatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class StringLengthValidatorBenchmark {
+  private static final AttributeMetadata ATTRIBUTE = BenchmarkAttributes.attribute(0);
+  private static final AttributeCreateRequest REQUEST = BenchmarkAttributes.createRequest(100);
+
+  private final StringLengthValidator validator = new StringLengthValidatorImpl();
+
+  @Benchmark
+  public AttributeMetadata validateAttribute() {
+    validator.validate(ATTRIBUTE);
+    return ATTRIBUTE;
+  }
+
+  @Benchmark
+  public AttributeCreateRequest validateCreateRequest() {
+    validator.validate(REQUEST);
+    return REQUEST;
+  }
+}
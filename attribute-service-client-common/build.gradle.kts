@@ -0,0 +1,17 @@
+plugins {
+  `java-library`
+  jacoco
+  alias(commonLibs.plugins.hypertrace.jacoco)
+  alias(commonLibs.plugins.hypertrace.publish)
+}
+
+dependencies {
+  api(projects.attributeServiceApi)
+  api(commonLibs.guava)
+
+  testImplementation(commonLibs.junit.jupiter)
+}
+
+tasks.test {
+  useJUnitPlatform()
+}
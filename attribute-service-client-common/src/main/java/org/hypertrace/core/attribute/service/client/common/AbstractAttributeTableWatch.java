@@ -0,0 +1,93 @@
+package org.hypertrace.core.attribute.service.client.common;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
+
+/**
+ * Maintains the table of attributes of a context from a {@code WatchAttributes} stream. The table
+ * is built from the full catalog the stream starts with, then rebuilt from every change pushed
+ * after that. Each client publishes the initial table and the termination of the stream in its
+ * own way.
+ */
+public abstract class AbstractAttributeTableWatch
+    implements ClientResponseObserver<WatchAttributesRequest, GetAttributeChangesResponse> {
+  private final Function<List<AttributeMetadata>, AttributeTable> tableBuilder;
+  private volatile AttributeTable table;
+  private volatile ClientCallStreamObserver<WatchAttributesRequest> requestStream;
+  private volatile boolean cancelled;
+
+  /** @param tableBuilder builds a table from attributes */
+  protected AbstractAttributeTableWatch(
+      Function<List<AttributeMetadata>, AttributeTable> tableBuilder) {
+    this.tableBuilder = tableBuilder;
+  }
+
+  /** The table built from the latest change received, or null until the initial catalog is */
+  protected AttributeTable getLatestTable() {
+    return this.table;
+  }
+
+  /** Called once with the table built from the initial catalog */
+  protected abstract void onInitialTable(AttributeTable table);
+
+  /**
+   * Called once the stream terminates
+   *
+   * @param cancelled whether the stream was terminated by {@link #cancel()}
+   */
+  protected abstract void onTerminated(Throwable throwable, boolean cancelled);
+
+  public void cancel() {
+    this.cancelled = true;
+    if (this.requestStream != null) {
+      this.requestStream.cancel("Attribute table is no longer cached", null);
+    }
+  }
+
+  @Override
+  public final void beforeStart(ClientCallStreamObserver<WatchAttributesRequest> requestStream) {
+    this.requestStream = requestStream;
+  }
+
+  @Override
+  public final void onNext(GetAttributeChangesResponse changes) {
+    AttributeTable currentTable = this.table;
+    if (currentTable == null) {
+      this.table = this.tableBuilder.apply(changes.getUpsertedAttributesList());
+    } else {
+      Set<String> changedIds = new HashSet<>(changes.getDeletedAttributeIdsList());
+      changes.getUpsertedAttributesList().stream()
+          .map(AttributeMetadata::getId)
+          .forEach(changedIds::add);
+      this.table =
+          this.tableBuilder.apply(
+              Stream.concat(
+                      currentTable.values().stream()
+                          .filter(attribute -> !changedIds.contains(attribute.getId())),
+                      changes.getUpsertedAttributesList().stream())
+                  .collect(Collectors.toUnmodifiableList()));
+    }
+    if (currentTable == null) {
+      this.onInitialTable(this.table);
+    }
+  }
+
+  @Override
+  public final void onError(Throwable throwable) {
+    this.onTerminated(throwable, this.cancelled);
+  }
+
+  @Override
+  public final void onCompleted() {
+    this.onError(new IllegalStateException("Attribute watch completed unexpectedly"));
+  }
+}
@@ -0,0 +1,161 @@
+package org.hypertrace.core.attribute.service.client.common;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+
+/**
+ * An immutable snapshot of the attributes of a context, indexed both by scope and key and by id.
+ * Rather than the row, column and cell objects of a table, each index is a flat array of the
+ * attributes themselves, addressed by hash with linear probing and kept at most half full. The
+ * attributes of each scope are listed once when the snapshot is built, so they are returned
+ * without copying, and scopes are interned across every snapshot, as all contexts share a handful
+ * of them.
+ *
+ * <p>Attributes are interned by content with the interner of the client, so that the system
+ * attributes every context shares are only held once however many contexts are cached. Each
+ * context receives its own copy from the service, which is dropped once the snapshot is built.
+ */
+public class AttributeTable {
+  private static final Interner<String> SCOPE_INTERNER = Interners.newWeakInterner();
+  // Compressed references and headers, as on most heaps under 32GB
+  private static final int REFERENCE_BYTES = 4;
+  private static final int ARRAY_HEADER_BYTES = 16;
+  private static final int OBJECT_HEADER_BYTES = 12;
+
+  private final AttributeMetadata[] attributesByScopeAndKey;
+  private final AttributeMetadata[] attributesById;
+  private final Map<String, List<AttributeMetadata>> attributesByScope;
+  private final List<AttributeMetadata> attributes;
+
+  private AttributeTable(
+      AttributeMetadata[] attributesByScopeAndKey,
+      AttributeMetadata[] attributesById,
+      Map<String, List<AttributeMetadata>> attributesByScope,
+      List<AttributeMetadata> attributes) {
+    this.attributesByScopeAndKey = attributesByScopeAndKey;
+    this.attributesById = attributesById;
+    this.attributesByScope = attributesByScope;
+    this.attributes = attributes;
+  }
+
+  /**
+   * @param attributeInterner shared by every snapshot of a client, holding attributes weakly
+   * @throws IllegalArgumentException if two attributes share a scope and key, or an id
+   */
+  public static AttributeTable of(
+      List<AttributeMetadata> attributeMetadataList,
+      Interner<AttributeMetadata> attributeInterner) {
+    List<AttributeMetadata> attributes =
+        attributeMetadataList.stream()
+            .map(attributeInterner::intern)
+            .collect(Collectors.toUnmodifiableList());
+    int capacity = Integer.highestOneBit(Math.max(1, attributes.size()) * 2 - 1) << 1;
+    AttributeMetadata[] attributesByScopeAndKey = new AttributeMetadata[capacity];
+    AttributeMetadata[] attributesById = new AttributeMetadata[capacity];
+    Map<String, List<AttributeMetadata>> scopeLists = new LinkedHashMap<>();
+    for (AttributeMetadata attribute : attributes) {
+      String scope = attribute.getScopeString();
+      String key = attribute.getKey();
+      int scopeAndKeySlot = slotOf(attributesByScopeAndKey, scope, key);
+      if (attributesByScopeAndKey[scopeAndKeySlot] != null) {
+        throw new IllegalArgumentException(
+            String.format("Duplicate attributes for scope '%s' and key '%s'", scope, key));
+      }
+      attributesByScopeAndKey[scopeAndKeySlot] = attribute;
+      int idSlot = slotOf(attributesById, attribute.getId());
+      if (attributesById[idSlot] != null) {
+        throw new IllegalArgumentException(
+            String.format("Duplicate attributes for id '%s'", attribute.getId()));
+      }
+      attributesById[idSlot] = attribute;
+      scopeLists.computeIfAbsent(scope, unused -> new ArrayList<>()).add(attribute);
+    }
+    ImmutableMap.Builder<String, List<AttributeMetadata>> attributesByScope =
+        ImmutableMap.builderWithExpectedSize(scopeLists.size());
+    scopeLists.forEach(
+        (scope, scopeAttributes) ->
+            attributesByScope.put(SCOPE_INTERNER.intern(scope), List.copyOf(scopeAttributes)));
+    return new AttributeTable(
+        attributesByScopeAndKey, attributesById, attributesByScope.build(), attributes);
+  }
+
+  public Optional<AttributeMetadata> get(String scope, String key) {
+    return Optional.ofNullable(
+        this.attributesByScopeAndKey[slotOf(this.attributesByScopeAndKey, scope, key)]);
+  }
+
+  public Optional<AttributeMetadata> getById(String id) {
+    return Optional.ofNullable(this.attributesById[slotOf(this.attributesById, id)]);
+  }
+
+  /** @return the immutable list of attributes in the scope, which is not copied */
+  public List<AttributeMetadata> getAllInScope(String scope) {
+    return this.attributesByScope.getOrDefault(scope, List.of());
+  }
+
+  /** @return the immutable list of every attribute, which is not copied */
+  public List<AttributeMetadata> values() {
+    return this.attributes;
+  }
+
+  public int size() {
+    return this.attributes.size();
+  }
+
+  /**
+   * Estimates the bytes retained by the indexes of this snapshot, excluding the attributes and
+   * scopes, which are interned.
+   */
+  public long estimateFootprintBytes() {
+    long listBytes =
+        this.attributesByScope.values().stream()
+            .mapToLong(scopeAttributes -> arrayBytes(scopeAttributes.size()) + OBJECT_HEADER_BYTES)
+            .sum();
+    return OBJECT_HEADER_BYTES
+        + arrayBytes(this.attributesByScopeAndKey.length)
+        + arrayBytes(this.attributesById.length)
+        // Approximating the scope map as an array of its keys and values
+        + OBJECT_HEADER_BYTES
+        + arrayBytes(this.attributesByScope.size() * 2)
+        + listBytes
+        + OBJECT_HEADER_BYTES
+        + arrayBytes(this.attributes.size());
+  }
+
+  /** @return the slot holding the attribute of the scope and key, or the empty slot for it */
+  private static int slotOf(AttributeMetadata[] slots, String scope, String key) {
+    int mask = slots.length - 1;
+    int slot = spread(31 * scope.hashCode() + key.hashCode()) & mask;
+    while (slots[slot] != null
+        && !(slots[slot].getKey().equals(key) && slots[slot].getScopeString().equals(scope))) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** @return the slot holding the attribute of the id, or the empty slot for it */
+  private static int slotOf(AttributeMetadata[] slots, String id) {
+    int mask = slots.length - 1;
+    int slot = spread(id.hashCode()) & mask;
+    while (slots[slot] != null && !slots[slot].getId().equals(id)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static long arrayBytes(int length) {
+    return ARRAY_HEADER_BYTES + (long) length * REFERENCE_BYTES;
+  }
+}
@@ -0,0 +1,105 @@
+package org.hypertrace.core.attribute.service.client.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.junit.jupiter.api.Test;
+
+class AttributeTableTest {
+  private final AttributeMetadata eventAttribute = buildAttribute("EVENT", "name");
+  private final AttributeMetadata traceAttribute = buildAttribute("TRACE", "name");
+  private final Interner<AttributeMetadata> attributeInterner = Interners.newWeakInterner();
+
+  @Test
+  void looksUpAttributesByScopeAndKey() {
+    AttributeTable table = this.buildTable(List.of(this.eventAttribute, this.traceAttribute));
+
+    assertEquals(Optional.of(this.eventAttribute), table.get("EVENT", "name"));
+    assertEquals(Optional.of(this.traceAttribute), table.get("TRACE", "name"));
+    assertEquals(Optional.empty(), table.get("EVENT", "other"));
+    assertEquals(Optional.empty(), table.get("API", "name"));
+  }
+
+  @Test
+  void looksUpAttributesById() {
+    AttributeTable table = this.buildTable(List.of(this.eventAttribute, this.traceAttribute));
+
+    assertEquals(Optional.of(this.eventAttribute), table.getById("EVENT.name"));
+    assertEquals(Optional.of(this.traceAttribute), table.getById("TRACE.name"));
+    assertEquals(Optional.empty(), table.getById("API.name"));
+  }
+
+  @Test
+  void looksUpEveryAttributeOfLargeTables() {
+    List<AttributeMetadata> attributes =
+        IntStream.range(0, 1000)
+            .mapToObj(index -> buildAttribute(index % 2 == 0 ? "EVENT" : "TRACE", "key" + index))
+            .collect(Collectors.toList());
+    AttributeTable table = this.buildTable(attributes);
+
+    assertEquals(1000, table.size());
+    attributes.forEach(
+        attribute -> {
+          assertSame(attribute, table.get(attribute.getScopeString(), attribute.getKey()).get());
+          assertSame(attribute, table.getById(attribute.getId()).get());
+        });
+    assertEquals(500, table.getAllInScope("EVENT").size());
+  }
+
+  @Test
+  void listsAttributesInScopeWithoutCopying() {
+    AttributeTable table = this.buildTable(List.of(this.eventAttribute, this.traceAttribute));
+
+    assertEquals(List.of(this.eventAttribute), table.getAllInScope("EVENT"));
+    assertSame(table.getAllInScope("EVENT"), table.getAllInScope("EVENT"));
+    assertEquals(List.of(), table.getAllInScope("API"));
+    assertEquals(List.of(this.eventAttribute, this.traceAttribute), table.values());
+    assertSame(table.values(), table.values());
+  }
+
+  @Test
+  void sharesIdenticalAttributesAcrossTables() {
+    AttributeTable table = this.buildTable(List.of(this.eventAttribute));
+    AttributeTable otherTable =
+        this.buildTable(List.of(AttributeMetadata.newBuilder(this.eventAttribute).build()));
+
+    assertSame(table.get("EVENT", "name").get(), otherTable.get("EVENT", "name").get());
+  }
+
+  @Test
+  void rejectsDuplicateAttributes() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> this.buildTable(List.of(this.eventAttribute, this.eventAttribute)));
+  }
+
+  @Test
+  void estimatesFootprint() {
+    AttributeTable emptyTable = this.buildTable(List.of());
+    AttributeTable table = this.buildTable(List.of(this.eventAttribute, this.traceAttribute));
+
+    assertTrue(emptyTable.estimateFootprintBytes() > 0);
+    assertTrue(table.estimateFootprintBytes() > emptyTable.estimateFootprintBytes());
+  }
+
+  private AttributeTable buildTable(List<AttributeMetadata> attributes) {
+    return AttributeTable.of(attributes, this.attributeInterner);
+  }
+
+  private static AttributeMetadata buildAttribute(String scope, String key) {
+    return AttributeMetadata.newBuilder()
+        .setScopeString(scope)
+        .setKey(key)
+        .setId(scope + "." + key)
+        .build();
+  }
+}
@@ -5,6 +5,7 @@ plugins {
 
 dependencies {
   api(projects.attributeServiceApi)
+  implementation(projects.attributeServiceClientCommon)
 
   implementation(commonLibs.hypertrace.grpcutils.client)
   implementation(commonLibs.hypertrace.grpcutils.context)
@@ -12,6 +13,7 @@ dependencies {
   implementation(commonLibs.slf4j2.api)
   implementation(commonLibs.typesafe.config)
   implementation(commonLibs.guava)
+  implementation(libs.caffeine)
 
   annotationProcessor(commonLibs.lombok)
   compileOnly(commonLibs.lombok)
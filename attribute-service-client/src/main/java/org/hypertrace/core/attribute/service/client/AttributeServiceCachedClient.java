@@ -1,41 +1,69 @@
 package org.hypertrace.core.attribute.service.client;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableTable;
-import com.google.common.collect.Table;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.grpc.Channel;
-import java.util.Collections;
+import io.grpc.Context;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
 import javax.annotation.Nonnull;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
 import org.hypertrace.core.attribute.service.client.config.AttributeServiceCachedClientConfig;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
 import org.hypertrace.core.attribute.service.v1.AttributeServiceGrpc;
-import org.hypertrace.core.attribute.service.v1.AttributeServiceGrpc.AttributeServiceBlockingStub;
+import org.hypertrace.core.attribute.service.v1.AttributeServiceGrpc.AttributeServiceStub;
 import org.hypertrace.core.attribute.service.v1.GetAttributesRequest;
+import org.hypertrace.core.attribute.service.v1.GetAttributesResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
 import org.hypertrace.core.grpcutils.client.ClientCallCredentialsProvider;
 import org.hypertrace.core.grpcutils.client.RequestContextClientCallCredsProviderFactory;
 import org.hypertrace.core.grpcutils.context.ContextualKey;
 import org.hypertrace.core.grpcutils.context.RequestContext;
 import org.hypertrace.core.serviceframework.metrics.PlatformMetricsRegistry;
 
+/**
+ * Caches the attributes of each context in a Caffeine cache. If a maximum number of attributes is
+ * configured, contexts are weighed by their number of attributes, so that a few tenants with large
+ * catalogs cannot crowd out many small ones. Tables are refreshed asynchronously, serving the
+ * current table until the refresh completes, with a bounded number of refreshes in flight at once.
+ *
+ * <p>Each lookup has an async variant, which never blocks the calling thread on a load, so that it
+ * can be used from event loops. Loads of a context are made with the async stub, and shared by
+ * every caller awaiting them.
+ */
 @Slf4j
 public class AttributeServiceCachedClient {
-  private final LoadingCache<ContextualKey<Void>, Table<String, String, AttributeMetadata>> cache;
-  private final Cache<String, AttributeScopeAndKey> scopeAndKeyLookup;
-  private final AttributeServiceBlockingStub attributeServiceBlockingStub;
+  private final AsyncLoadingCache<ContextualKey<Void>, AttributeTable> cache;
+  private final AttributeServiceStub attributeServiceStub;
   private final long deadlineMs;
   private final ClientCallCredentialsProvider callCredentialsProvider;
+  private final boolean watchChanges;
+  private final ConcurrentMap<ContextualKey<Void>, AttributeTableWatch> watches =
+      new ConcurrentHashMap<>();
+  // Shared by the tables of every context, so that identical attributes are only held once
+  private final Interner<AttributeMetadata> attributeInterner = Interners.newWeakInterner();
 
   public AttributeServiceCachedClient(
       Channel channel, AttributeServiceCachedClientConfig clientConfig) {
@@ -50,80 +78,326 @@ public class AttributeServiceCachedClient {
       AttributeServiceCachedClientConfig clientConfig,
       ClientCallCredentialsProvider callCredentialsProvider) {
     this.callCredentialsProvider = callCredentialsProvider;
-    this.attributeServiceBlockingStub = AttributeServiceGrpc.newBlockingStub(channel);
+    this.attributeServiceStub = AttributeServiceGrpc.newStub(channel);
     deadlineMs = clientConfig.getDeadline().toMillis();
-    cache =
-        CacheBuilder.newBuilder()
-            .maximumSize(clientConfig.getMaxSize())
-            .refreshAfterWrite(clientConfig.getRefreshAfterWrite())
-            .expireAfterAccess(clientConfig.getExpireAfterAccess())
-            .build(
-                CacheLoader.asyncReloading(
-                    CacheLoader.from(this::loadTable),
-                    Executors.newFixedThreadPool(
-                        clientConfig.getExecutorThreads(), this.buildThreadFactory())));
-    PlatformMetricsRegistry.registerCache(
-        clientConfig.getCacheMetricsName(), cache, Collections.emptyMap());
-    scopeAndKeyLookup =
-        CacheBuilder.newBuilder().expireAfterWrite(clientConfig.getExpireAfterAccess()).build();
+    watchChanges = clientConfig.isWatchChanges();
+    Caffeine<Object, Object> cacheBuilder = this.buildCacheBuilder(clientConfig);
+    if (watchChanges) {
+      // Watched tables are kept up to date by their watch, so are never refreshed
+      RemovalListener<ContextualKey<Void>, AttributeTable> removalListener = this::cancelWatch;
+      cache =
+          cacheBuilder
+              .expireAfter(new WatchedTableExpiry(clientConfig.getExpireAfterAccess()))
+              .removalListener(removalListener)
+              .buildAsync(this::watchTable);
+    } else {
+      AttributeTableRefreshScheduler refreshScheduler =
+          new AttributeTableRefreshScheduler(
+              clientConfig.getMaxConcurrentRefreshes(), clientConfig.getRefreshJitter());
+      cache =
+          cacheBuilder
+              .expireAfterAccess(clientConfig.getExpireAfterAccess())
+              .refreshAfterWrite(clientConfig.getRefreshAfterWrite())
+              .buildAsync(
+                  new AsyncCacheLoader<ContextualKey<Void>, AttributeTable>() {
+                    @Override
+                    public CompletableFuture<AttributeTable> asyncLoad(
+                        ContextualKey<Void> contextualKey, Executor executor) {
+                      return loadTable(contextualKey);
+                    }
+
+                    @Override
+                    public CompletableFuture<AttributeTable> asyncReload(
+                        ContextualKey<Void> contextualKey,
+                        AttributeTable oldTable,
+                        Executor executor) {
+                      return refreshScheduler.schedule(() -> loadTable(contextualKey));
+                    }
+                  });
+      this.registerRefreshMetrics(refreshScheduler, clientConfig.getCacheMetricsName());
+    }
+    CaffeineCacheMetrics.monitor(
+        PlatformMetricsRegistry.getMeterRegistry(),
+        cache.synchronous(),
+        clientConfig.getCacheMetricsName());
+    Gauge.builder("cache.index.bytes", this, AttributeServiceCachedClient::estimateIndexBytes)
+        .tag("cache", clientConfig.getCacheMetricsName())
+        .description("The estimated bytes retained by the indexes of the cached attributes")
+        .register(PlatformMetricsRegistry.getMeterRegistry());
   }
 
   public Optional<AttributeMetadata> get(
       @Nonnull RequestContext requestContext,
       @Nonnull String attributeScope,
       @Nonnull String attributeKey) {
-    return Optional.ofNullable(getTable(requestContext).get(attributeScope, attributeKey));
+    return await(getTable(requestContext)).get(attributeScope, attributeKey);
   }
 
   public Optional<AttributeMetadata> getById(
       @Nonnull RequestContext requestContext, @Nonnull String attributeId) {
-    Table<String, String, AttributeMetadata> table = getTable(requestContext);
-    return Optional.ofNullable(scopeAndKeyLookup.getIfPresent(attributeId))
-        .map(scopeAndKey -> table.get(scopeAndKey.getScope(), scopeAndKey.getKey()));
+    return await(getTable(requestContext)).getById(attributeId);
   }
 
   public List<AttributeMetadata> getAllInScope(
       @Nonnull RequestContext requestContext, @Nonnull String attributeScope) {
-    return List.copyOf(getTable(requestContext).row(attributeScope).values());
-  }
-
-  private Table<String, String, AttributeMetadata> getTable(RequestContext requestContext) {
-    return cache.getUnchecked(requestContext.buildInternalContextualKey());
-  }
-
-  private Table<String, String, AttributeMetadata> loadTable(ContextualKey<Void> contextualKey) {
-    List<AttributeMetadata> attributeMetadataList =
-        contextualKey
-            .getContext()
-            .call(
-                () ->
-                    attributeServiceBlockingStub
-                        .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
-                        .withCallCredentials(callCredentialsProvider.get())
-                        .getAttributes(GetAttributesRequest.getDefaultInstance()))
-            .getAttributesList();
-    attributeMetadataList.forEach(
-        attributeMetadata ->
-            scopeAndKeyLookup.put(
-                attributeMetadata.getId(),
-                new AttributeScopeAndKey(
-                    attributeMetadata.getScopeString(), attributeMetadata.getKey())));
-    return attributeMetadataList.stream()
-        .collect(
-            ImmutableTable.toImmutableTable(
-                AttributeMetadata::getScopeString, AttributeMetadata::getKey, Function.identity()));
-  }
-
-  private ThreadFactory buildThreadFactory() {
-    return new ThreadFactoryBuilder()
-        .setDaemon(true)
-        .setNameFormat("attribute-service-cached-client-%d")
-        .build();
-  }
-
-  @Value
-  private static class AttributeScopeAndKey {
-    String scope;
-    String key;
+    return await(getTable(requestContext)).getAllInScope(attributeScope);
+  }
+
+  /**
+   * Like {@link #get(RequestContext, String, String)}, but never blocks the calling thread. If the
+   * attributes of the context are not cached, they are loaded once however many callers await
+   * them, and the future completes on a gRPC thread once loaded.
+   */
+  public CompletableFuture<Optional<AttributeMetadata>> getAsync(
+      @Nonnull RequestContext requestContext,
+      @Nonnull String attributeScope,
+      @Nonnull String attributeKey) {
+    return getTable(requestContext).thenApply(table -> table.get(attributeScope, attributeKey));
+  }
+
+  /** Like {@link #getById(RequestContext, String)}, but never blocks the calling thread */
+  public CompletableFuture<Optional<AttributeMetadata>> getByIdAsync(
+      @Nonnull RequestContext requestContext, @Nonnull String attributeId) {
+    return getTable(requestContext).thenApply(table -> table.getById(attributeId));
+  }
+
+  /** Like {@link #getAllInScope(RequestContext, String)}, but never blocks the calling thread */
+  public CompletableFuture<List<AttributeMetadata>> getAllInScopeAsync(
+      @Nonnull RequestContext requestContext, @Nonnull String attributeScope) {
+    return getTable(requestContext).thenApply(table -> table.getAllInScope(attributeScope));
+  }
+
+  private CompletableFuture<AttributeTable> getTable(RequestContext requestContext) {
+    ContextualKey<Void> contextualKey = requestContext.buildInternalContextualKey();
+    CompletableFuture<AttributeTable> cachedTable = cache.get(contextualKey);
+    if (!watchChanges) {
+      return cachedTable;
+    }
+    return cachedTable.thenCompose(
+        table -> {
+          Optional<AttributeTable> watchedTable = getWatchedTable(contextualKey, table);
+          if (watchedTable.isPresent()) {
+            updateWeight(contextualKey, cachedTable, watchedTable.get());
+            return CompletableFuture.completedFuture(watchedTable.get());
+          }
+          // The watch of the cached table terminated, so the table is reloaded with a new watch
+          cache.asMap().remove(contextualKey, cachedTable);
+          return cache
+              .get(contextualKey)
+              .thenApply(
+                  reloadedTable ->
+                      getWatchedTable(contextualKey, reloadedTable).orElse(reloadedTable));
+        });
+  }
+
+  /**
+   * Waits for a table, wrapping the failure of its load as {@link
+   * com.google.common.cache.LoadingCache#getUnchecked} did when the tables were in a Guava cache
+   */
+  private static AttributeTable await(CompletableFuture<AttributeTable> table) {
+    try {
+      return table.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof Error) {
+        throw new ExecutionError((Error) e.getCause());
+      }
+      throw new UncheckedExecutionException(e.getCause());
+    }
+  }
+
+  /** The cached table is the one its watch started with, the watch holds the latest */
+  private Optional<AttributeTable> getWatchedTable(
+      ContextualKey<?> contextualKey, AttributeTable cachedTable) {
+    return Optional.ofNullable(watches.get(contextualKey))
+        .filter(watch -> watch.isInitialTable(cachedTable))
+        .map(AttributeTableWatch::getTable);
+  }
+
+  /**
+   * Watched tables change size, so are weighed again whenever their size is seen to change, by
+   * replacing the entry with itself. The replacement counts as a write, which does not postpone
+   * the expiry of the table, as that is only set on creation and access.
+   */
+  private void updateWeight(
+      ContextualKey<Void> contextualKey,
+      CompletableFuture<AttributeTable> cachedTable,
+      AttributeTable watchedTable) {
+    OptionalInt weight =
+        cache
+            .synchronous()
+            .policy()
+            .eviction()
+            .filter(Policy.Eviction::isWeighted)
+            .map(eviction -> eviction.weightOf(contextualKey))
+            .orElse(OptionalInt.empty());
+    if (weight.isEmpty() || weight.getAsInt() == weigh(watchedTable)) {
+      return;
+    }
+    cache.asMap().replace(contextualKey, cachedTable, cachedTable);
+  }
+
+  private CompletableFuture<AttributeTable> loadTable(ContextualKey<Void> contextualKey) {
+    CompletableFuture<AttributeTable> table = new CompletableFuture<>();
+    Context.current()
+        .withValue(RequestContext.CURRENT, contextualKey.getContext())
+        .run(
+            () ->
+                attributeServiceStub
+                    .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                    .withCallCredentials(callCredentialsProvider.get())
+                    .getAttributes(
+                        GetAttributesRequest.getDefaultInstance(),
+                        new StreamObserver<>() {
+                          @Override
+                          public void onNext(GetAttributesResponse response) {
+                            table.complete(
+                                AttributeTable.of(
+                                    response.getAttributesList(), attributeInterner));
+                          }
+
+                          @Override
+                          public void onError(Throwable throwable) {
+                            table.completeExceptionally(throwable);
+                          }
+
+                          @Override
+                          public void onCompleted() {}
+                        }));
+    return table;
+  }
+
+  private CompletableFuture<AttributeTable> watchTable(
+      ContextualKey<Void> contextualKey, Executor executor) {
+    AttributeTableWatch watch =
+        new AttributeTableWatch(
+            attributes -> AttributeTable.of(attributes, attributeInterner),
+            terminatedWatch -> watches.remove(contextualKey, terminatedWatch));
+    AttributeTableWatch previousWatch = watches.put(contextualKey, watch);
+    if (previousWatch != null) {
+      // Superseded before its table was evicted, such as when eviction is notified late
+      previousWatch.cancel();
+    }
+    Context.current()
+        .withValue(RequestContext.CURRENT, contextualKey.getContext())
+        .run(
+            () ->
+                attributeServiceStub
+                    .withCallCredentials(callCredentialsProvider.get())
+                    .watchAttributes(WatchAttributesRequest.getDefaultInstance(), watch));
+    return watch
+        .getInitialTable()
+        .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+        .handle(
+            (table, error) -> {
+              if (error == null) {
+                return table;
+              }
+              watch.cancel();
+              watches.remove(contextualKey, watch);
+              throw new IllegalStateException("Could not load watched attributes", error);
+            });
+  }
+
+  private void cancelWatch(
+      ContextualKey<Void> removedKey, AttributeTable removedTable, RemovalCause cause) {
+    // Reweighing a table replaces it with itself, which must keep its watch
+    if (removedKey == null || cause == RemovalCause.REPLACED) {
+      return;
+    }
+    watches.computeIfPresent(
+        removedKey,
+        (contextualKey, watch) -> {
+          if (!watch.isInitialTable(removedTable)) {
+            return watch;
+          }
+          watch.cancel();
+          return null;
+        });
+  }
+
+  private void registerRefreshMetrics(
+      AttributeTableRefreshScheduler refreshScheduler, String cacheMetricsName) {
+    Gauge.builder(
+            "cache.refresh.queue.depth",
+            refreshScheduler,
+            AttributeTableRefreshScheduler::getQueuedRefreshCount)
+        .tag("cache", cacheMetricsName)
+        .description("The number of due refreshes waiting for a running one to complete")
+        .register(PlatformMetricsRegistry.getMeterRegistry());
+    TimeGauge.builder(
+            "cache.refresh.lag",
+            refreshScheduler,
+            TimeUnit.NANOSECONDS,
+            AttributeTableRefreshScheduler::getLagNanos)
+        .tag("cache", cacheMetricsName)
+        .description("How long the oldest due refresh has been waiting to run")
+        .register(PlatformMetricsRegistry.getMeterRegistry());
+  }
+
+  private long estimateIndexBytes() {
+    return cache.synchronous().asMap().entrySet().stream()
+        .map(
+            entry ->
+                watchChanges
+                    ? getWatchedTable(entry.getKey(), entry.getValue()).orElse(entry.getValue())
+                    : entry.getValue())
+        .mapToLong(AttributeTable::estimateFootprintBytes)
+        .sum();
+  }
+
+  private Caffeine<Object, Object> buildCacheBuilder(
+      AttributeServiceCachedClientConfig clientConfig) {
+    Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().recordStats();
+    if (clientConfig.getMaxAttributes() <= 0) {
+      return cacheBuilder.maximumSize(clientConfig.getMaxSize());
+    }
+    return cacheBuilder
+        .maximumWeight(clientConfig.getMaxAttributes())
+        .weigher(this::weighCachedTable);
+  }
+
+  /** Weighs a cached table by the latest table of its watch, which is the one served */
+  private int weighCachedTable(Object contextualKey, Object cachedTable) {
+    AttributeTable table = (AttributeTable) cachedTable;
+    return weigh(getWatchedTable((ContextualKey<?>) contextualKey, table).orElse(table));
+  }
+
+  // Counting the table itself, so that contexts without attributes still carry a weight
+  private static int weigh(AttributeTable table) {
+    return table.size() + 1;
+  }
+
+  /** Expires watched tables once unaccessed for a while, however often they are reweighed */
+  private static final class WatchedTableExpiry
+      implements Expiry<ContextualKey<Void>, AttributeTable> {
+    private final long expirationNanos;
+
+    private WatchedTableExpiry(Duration expiration) {
+      this.expirationNanos = expiration.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(
+        ContextualKey<Void> contextualKey, AttributeTable table, long currentTime) {
+      return this.expirationNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        ContextualKey<Void> contextualKey,
+        AttributeTable table,
+        long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+        ContextualKey<Void> contextualKey,
+        AttributeTable table,
+        long currentTime,
+        long currentDuration) {
+      return this.expirationNanos;
+    }
   }
 }
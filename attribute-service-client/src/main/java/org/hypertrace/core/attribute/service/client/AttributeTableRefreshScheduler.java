@@ -0,0 +1,120 @@
+package org.hypertrace.core.attribute.service.client;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs the refreshes of cached tables, at most a bounded number at a time, in the order they are
+ * due. Refreshes are async loads, so none of them holds a thread while in flight, and the bound
+ * only limits the load put on the service. Each refresh is delayed by a random jitter before being
+ * queued, so that tables loaded together, such as on startup, are not all refreshed in one burst.
+ */
+class AttributeTableRefreshScheduler {
+  private final int maxConcurrentRefreshes;
+  private final long maxJitterNanos;
+  private final LongSupplier nanoClock;
+  private final Queue<QueuedRefresh> queuedRefreshes = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedRefreshCount = new AtomicInteger();
+  private final AtomicInteger runningRefreshCount = new AtomicInteger();
+
+  AttributeTableRefreshScheduler(int maxConcurrentRefreshes, Duration maxJitter) {
+    this(maxConcurrentRefreshes, maxJitter, System::nanoTime);
+  }
+
+  AttributeTableRefreshScheduler(
+      int maxConcurrentRefreshes, Duration maxJitter, LongSupplier nanoClock) {
+    this.maxConcurrentRefreshes = Math.max(1, maxConcurrentRefreshes);
+    this.maxJitterNanos = maxJitter.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  /** @return the result of the refresh, once it has been run */
+  <T> CompletableFuture<T> schedule(Supplier<CompletableFuture<T>> refresh) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Runnable enqueue =
+        () -> {
+          this.queuedRefreshes.add(
+              new QueuedRefresh(() -> this.run(refresh, result), this.nanoClock.getAsLong()));
+          this.queuedRefreshCount.incrementAndGet();
+          this.runQueuedRefreshes();
+        };
+    if (this.maxJitterNanos <= 0) {
+      enqueue.run();
+    } else {
+      CompletableFuture.delayedExecutor(
+              ThreadLocalRandom.current().nextLong(this.maxJitterNanos), TimeUnit.NANOSECONDS)
+          .execute(enqueue);
+    }
+    return result;
+  }
+
+  /** @return the number of refreshes waiting for a running one to complete */
+  int getQueuedRefreshCount() {
+    return this.queuedRefreshCount.get();
+  }
+
+  /** @return how long the oldest queued refresh has been waiting for, or zero if none is */
+  long getLagNanos() {
+    QueuedRefresh oldestRefresh = this.queuedRefreshes.peek();
+    return oldestRefresh == null
+        ? 0
+        : Math.max(0, this.nanoClock.getAsLong() - oldestRefresh.queuedAtNanos);
+  }
+
+  private <T> void run(Supplier<CompletableFuture<T>> refresh, CompletableFuture<T> result) {
+    CompletableFuture<T> refreshed;
+    try {
+      refreshed = refresh.get();
+    } catch (RuntimeException e) {
+      refreshed = CompletableFuture.failedFuture(e);
+    }
+    refreshed.whenComplete(
+        (value, error) -> {
+          this.runningRefreshCount.decrementAndGet();
+          this.runQueuedRefreshes();
+          if (error == null) {
+            result.complete(value);
+          } else {
+            result.completeExceptionally(error);
+          }
+        });
+  }
+
+  private void runQueuedRefreshes() {
+    while (!this.queuedRefreshes.isEmpty()) {
+      int runningRefreshes = this.runningRefreshCount.get();
+      if (runningRefreshes >= this.maxConcurrentRefreshes) {
+        // Run once a running refresh completes
+        return;
+      }
+      if (!this.runningRefreshCount.compareAndSet(runningRefreshes, runningRefreshes + 1)) {
+        continue;
+      }
+      QueuedRefresh queuedRefresh = this.queuedRefreshes.poll();
+      if (queuedRefresh == null) {
+        // Taken by a concurrent call, checking again for any queued since
+        this.runningRefreshCount.decrementAndGet();
+        continue;
+      }
+      this.queuedRefreshCount.decrementAndGet();
+      queuedRefresh.refresh.run();
+    }
+  }
+
+  private static final class QueuedRefresh {
+    private final Runnable refresh;
+    private final long queuedAtNanos;
+
+    private QueuedRefresh(Runnable refresh, long queuedAtNanos) {
+      this.refresh = refresh;
+      this.queuedAtNanos = queuedAtNanos;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package org.hypertrace.core.attribute.service.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hypertrace.core.attribute.service.client.common.AbstractAttributeTableWatch;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+
+/** Watches the table of a context, completing a future with the table of the initial catalog */
+class AttributeTableWatch extends AbstractAttributeTableWatch {
+  private final Consumer<AttributeTableWatch> terminationListener;
+  private final CompletableFuture<AttributeTable> initialTable = new CompletableFuture<>();
+
+  /**
+   * @param tableBuilder builds a table from attributes
+   * @param terminationListener notified if the stream terminates without being cancelled
+   */
+  AttributeTableWatch(
+      Function<List<AttributeMetadata>, AttributeTable> tableBuilder,
+      Consumer<AttributeTableWatch> terminationListener) {
+    super(tableBuilder);
+    this.terminationListener = terminationListener;
+  }
+
+  /** Completes with the table built from the initial catalog, without ever blocking */
+  CompletableFuture<AttributeTable> getInitialTable() {
+    // A copy, so that callers completing it, such as on timeout, do not affect this watch
+    return this.initialTable.copy();
+  }
+
+  /** Whether the table was built by this watch from the initial catalog */
+  boolean isInitialTable(AttributeTable table) {
+    return this.initialTable.getNow(null) == table;
+  }
+
+  /** The table built from the latest change received */
+  AttributeTable getTable() {
+    return this.getLatestTable();
+  }
+
+  @Override
+  protected void onInitialTable(AttributeTable table) {
+    this.initialTable.complete(table);
+  }
+
+  @Override
+  protected void onTerminated(Throwable throwable, boolean cancelled) {
+    this.initialTable.completeExceptionally(throwable);
+    if (!cancelled) {
+      this.terminationListener.accept(this);
+    }
+  }
+}
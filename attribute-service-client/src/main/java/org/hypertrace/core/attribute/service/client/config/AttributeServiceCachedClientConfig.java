@@ -2,23 +2,68 @@ package org.hypertrace.core.attribute.service.client.config;
 
 import com.typesafe.config.Config;
 import java.time.Duration;
+import lombok.AllArgsConstructor;
 import lombok.Value;
 import org.hypertrace.core.attribute.service.client.AttributeServiceCachedClient;
 
 @Value
+@AllArgsConstructor
 public class AttributeServiceCachedClientConfig {
   private static final String DEADLINE_CONFIG_KEY = "deadline";
   private static final String CACHE_MAX_SIZE_CONFIG_KEY = "maxSize";
+  private static final String CACHE_MAX_ATTRIBUTES_CONFIG_KEY = "maxAttributes";
   private static final String CACHE_REFRESH_AFTER_WRITE_CONFIG_KEY = "refreshAfterWriteDuration";
   private static final String CACHE_EXPIRE_AFTER_ACCESS_CONFIG_KEY = "expireAfterAccessDuration";
+  private static final String CACHE_MAX_CONCURRENT_REFRESHES_CONFIG_KEY = "maxConcurrentRefreshes";
+  // Size of the pool refreshes used to run on, which bounded them the same way
   private static final String CACHE_EXECUTOR_THREADS_CONFIG_KEY = "executorThreads";
+  private static final String CACHE_REFRESH_JITTER_CONFIG_KEY = "refreshJitterDuration";
+  private static final String WATCH_CHANGES_CONFIG_KEY = "watchChanges";
 
   Duration deadline;
+  // Maximum number of contexts cached, only applying if the number of attributes is not bounded
   long maxSize;
+  // Maximum number of attributes cached across every context, if positive
+  long maxAttributes;
   Duration refreshAfterWrite;
   Duration expireAfterAccess;
-  int executorThreads;
+  int maxConcurrentRefreshes;
+  // Maximum random delay added to each refresh
+  Duration refreshJitter;
   String cacheMetricsName;
+  boolean watchChanges;
+
+  /**
+   * The configuration before refreshes were bounded, jittered and watched
+   *
+   * @param executorThreads the number of refreshes run at once
+   * @deprecated use {@link #from(Config, String)}
+   */
+  @Deprecated
+  public AttributeServiceCachedClientConfig(
+      Duration deadline,
+      long maxSize,
+      Duration refreshAfterWrite,
+      Duration expireAfterAccess,
+      int executorThreads,
+      String cacheMetricsName) {
+    this(
+        deadline,
+        maxSize,
+        0,
+        refreshAfterWrite,
+        expireAfterAccess,
+        executorThreads,
+        Duration.ZERO,
+        cacheMetricsName,
+        false);
+  }
+
+  /** @deprecated refreshes no longer run on a pool, use {@link #getMaxConcurrentRefreshes()} */
+  @Deprecated
+  public int getExecutorThreads() {
+    return maxConcurrentRefreshes;
+  }
 
   public static AttributeServiceCachedClientConfig from(Config attributeServiceConfig) {
     return from(attributeServiceConfig, AttributeServiceCachedClient.class.getName());
@@ -34,6 +79,10 @@ public class AttributeServiceCachedClientConfig {
         attributeServiceConfig.hasPath(CACHE_MAX_SIZE_CONFIG_KEY)
             ? attributeServiceConfig.getLong(CACHE_MAX_SIZE_CONFIG_KEY)
             : 1000;
+    long maxAttributes =
+        attributeServiceConfig.hasPath(CACHE_MAX_ATTRIBUTES_CONFIG_KEY)
+            ? attributeServiceConfig.getLong(CACHE_MAX_ATTRIBUTES_CONFIG_KEY)
+            : 0;
     Duration refreshAfterWrite =
         attributeServiceConfig.hasPath(CACHE_REFRESH_AFTER_WRITE_CONFIG_KEY)
             ? attributeServiceConfig.getDuration(CACHE_REFRESH_AFTER_WRITE_CONFIG_KEY)
@@ -42,11 +91,28 @@ public class AttributeServiceCachedClientConfig {
         attributeServiceConfig.hasPath(CACHE_EXPIRE_AFTER_ACCESS_CONFIG_KEY)
             ? attributeServiceConfig.getDuration(CACHE_EXPIRE_AFTER_ACCESS_CONFIG_KEY)
             : Duration.ofHours(1);
-    int executorThreads =
-        attributeServiceConfig.hasPath(CACHE_EXECUTOR_THREADS_CONFIG_KEY)
-            ? attributeServiceConfig.getInt(CACHE_EXECUTOR_THREADS_CONFIG_KEY)
-            : 1;
+    int maxConcurrentRefreshes =
+        attributeServiceConfig.hasPath(CACHE_MAX_CONCURRENT_REFRESHES_CONFIG_KEY)
+            ? attributeServiceConfig.getInt(CACHE_MAX_CONCURRENT_REFRESHES_CONFIG_KEY)
+            : attributeServiceConfig.hasPath(CACHE_EXECUTOR_THREADS_CONFIG_KEY)
+                ? attributeServiceConfig.getInt(CACHE_EXECUTOR_THREADS_CONFIG_KEY)
+                : 8;
+    Duration refreshJitter =
+        attributeServiceConfig.hasPath(CACHE_REFRESH_JITTER_CONFIG_KEY)
+            ? attributeServiceConfig.getDuration(CACHE_REFRESH_JITTER_CONFIG_KEY)
+            : Duration.ofMinutes(1);
+    boolean watchChanges =
+        attributeServiceConfig.hasPath(WATCH_CHANGES_CONFIG_KEY)
+            && attributeServiceConfig.getBoolean(WATCH_CHANGES_CONFIG_KEY);
     return new AttributeServiceCachedClientConfig(
-        deadline, maxSize, refreshAfterWrite, expireAfterWrite, executorThreads, cacheMetricsName);
+        deadline,
+        maxSize,
+        maxAttributes,
+        refreshAfterWrite,
+        expireAfterWrite,
+        maxConcurrentRefreshes,
+        refreshJitter,
+        cacheMetricsName,
+        watchChanges);
   }
 }
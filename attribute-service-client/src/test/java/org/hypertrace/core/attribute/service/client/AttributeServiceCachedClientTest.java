@@ -2,30 +2,43 @@ package org.hypertrace.core.attribute.service.client;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.typesafe.config.ConfigFactory;
 import io.grpc.ManagedChannel;
 import io.grpc.Server;
+import io.grpc.Status;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.hypertrace.core.attribute.service.client.config.AttributeServiceCachedClientConfig;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
 import org.hypertrace.core.attribute.service.v1.AttributeScope;
 import org.hypertrace.core.attribute.service.v1.AttributeServiceGrpc;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
 import org.hypertrace.core.attribute.service.v1.GetAttributesResponse;
 import org.hypertrace.core.grpcutils.context.RequestContext;
 import org.junit.jupiter.api.AfterEach;
@@ -131,7 +144,8 @@ class AttributeServiceCachedClientTest {
     verify(this.mockAttributeService, times(1)).getAttributes(any(), any());
 
     RequestContext otherRequestContext = RequestContext.forTenantId("other tenant");
-    AttributeMetadata otherContextMetadata = AttributeMetadata.newBuilder(this.metadata1).build();
+    AttributeMetadata otherContextMetadata =
+        AttributeMetadata.newBuilder(this.metadata1).setDisplayName("other").build();
 
     this.responseMetadata = List.of(otherContextMetadata);
 
@@ -151,6 +165,20 @@ class AttributeServiceCachedClientTest {
         this.attributeServiceCachedClient.get(otherRequestContext, "EVENT", "first").get());
   }
 
+  @Test
+  void sharesIdenticalAttributesAcrossContexts() {
+    AttributeMetadata defaultRetrieved =
+        this.attributeServiceCachedClient.get(requestContext, "EVENT", "first").get();
+
+    RequestContext otherRequestContext = RequestContext.forTenantId("other tenant");
+    this.responseMetadata = List.of(AttributeMetadata.newBuilder(this.metadata1).build());
+
+    assertSame(
+        defaultRetrieved,
+        this.attributeServiceCachedClient.get(otherRequestContext, "EVENT", "first").get());
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+  }
+
   @Test
   void supportsCachedLookupById() {
     assertSame(
@@ -175,6 +203,26 @@ class AttributeServiceCachedClientTest {
         this.attributeServiceCachedClient.get(requestContext, "EVENT", "first").get());
   }
 
+  @Test
+  void looksUpIdsWithinEachContext() {
+    assertSame(
+        this.metadata1,
+        this.attributeServiceCachedClient.getById(requestContext, "first-id").get());
+
+    RequestContext otherRequestContext = RequestContext.forTenantId("other tenant");
+    AttributeMetadata otherContextMetadata =
+        AttributeMetadata.newBuilder(this.metadata1).setKey("other").build();
+    this.responseMetadata = List.of(otherContextMetadata);
+
+    assertSame(
+        otherContextMetadata,
+        this.attributeServiceCachedClient.getById(otherRequestContext, "first-id").get());
+    assertSame(
+        this.metadata1,
+        this.attributeServiceCachedClient.getById(requestContext, "first-id").get());
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+  }
+
   @Test
   void emptyIfNoIdMatch() {
     assertTrue(this.attributeServiceCachedClient.getById(requestContext, "fakeId").isEmpty());
@@ -190,4 +238,180 @@ class AttributeServiceCachedClientTest {
         emptyList(),
         this.attributeServiceCachedClient.getAllInScope(requestContext, "DOESNT_EXIST"));
   }
+
+  @Test
+  void coalescesAsyncLookupsOfContextIntoOneLoad() {
+    AtomicReference<StreamObserver<GetAttributesResponse>> responseObserver =
+        new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              responseObserver.set(invocation.getArgument(1, StreamObserver.class));
+              return null;
+            })
+        .when(this.mockAttributeService)
+        .getAttributes(any(), any());
+
+    CompletableFuture<Optional<AttributeMetadata>> byKey =
+        this.attributeServiceCachedClient.getAsync(requestContext, "EVENT", "first");
+    CompletableFuture<Optional<AttributeMetadata>> byId =
+        this.attributeServiceCachedClient.getByIdAsync(requestContext, "second-id");
+    CompletableFuture<List<AttributeMetadata>> inScope =
+        this.attributeServiceCachedClient.getAllInScopeAsync(requestContext, "EVENT");
+    assertFalse(byKey.isDone());
+    assertFalse(byId.isDone());
+    assertFalse(inScope.isDone());
+    verify(this.mockAttributeService, times(1)).getAttributes(any(), any());
+
+    responseObserver
+        .get()
+        .onNext(GetAttributesResponse.newBuilder().addAllAttributes(responseMetadata).build());
+    responseObserver.get().onCompleted();
+
+    assertSame(this.metadata1, byKey.join().get());
+    assertSame(this.metadata2, byId.join().get());
+    assertEquals(this.responseMetadata, inScope.join());
+    verifyNoMoreInteractions(this.mockAttributeService);
+  }
+
+  @Test
+  void failsAsyncLookupsIfLoadFails() {
+    this.responseError = Optional.of(Status.UNAVAILABLE.asException());
+
+    CompletionException exception =
+        assertThrows(
+            CompletionException.class,
+            () ->
+                this.attributeServiceCachedClient
+                    .getAsync(requestContext, "EVENT", "first")
+                    .join());
+    assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(exception.getCause()).getCode());
+
+    this.responseError = Optional.empty();
+    assertSame(
+        this.metadata1,
+        this.attributeServiceCachedClient.getAsync(requestContext, "EVENT", "first").join().get());
+  }
+
+  @Test
+  void failsBlockingLookupsAsUncheckedIfLoadFails() {
+    this.responseError = Optional.of(Status.UNAVAILABLE.asException());
+
+    UncheckedExecutionException exception =
+        assertThrows(
+            UncheckedExecutionException.class,
+            () -> this.attributeServiceCachedClient.get(requestContext, "EVENT", "first"));
+    assertEquals(Status.Code.UNAVAILABLE, Status.fromThrowable(exception.getCause()).getCode());
+  }
+
+  @Test
+  void appliesWatchedChangesToCachedTable() {
+    AtomicReference<StreamObserver<GetAttributeChangesResponse>> watchObserver =
+        mockWatchAttributes();
+    AttributeServiceCachedClient watchingClient = this.buildWatchingClient();
+    assertSame(this.metadata1, watchingClient.get(requestContext, "EVENT", "first").get());
+
+    AttributeMetadata updatedMetadata =
+        AttributeMetadata.newBuilder(this.metadata2).setDisplayName("updated").build();
+    AttributeMetadata addedMetadata =
+        AttributeMetadata.newBuilder()
+            .setScopeString(AttributeScope.EVENT.name())
+            .setKey("third")
+            .setId("third-id")
+            .build();
+    watchObserver
+        .get()
+        .onNext(
+            GetAttributeChangesResponse.newBuilder()
+                .setCatalogVersion(2)
+                .addUpsertedAttributes(updatedMetadata)
+                .addUpsertedAttributes(addedMetadata)
+                .addDeletedAttributeIds("first-id")
+                .build());
+
+    assertTrue(watchingClient.get(requestContext, "EVENT", "first").isEmpty());
+    assertSame(updatedMetadata, watchingClient.get(requestContext, "EVENT", "second").get());
+    assertSame(addedMetadata, watchingClient.getById(requestContext, "third-id").get());
+    verify(this.mockAttributeService, times(1)).watchAttributes(any(), any());
+    verify(this.mockAttributeService, times(0)).getAttributes(any(), any());
+  }
+
+  @Test
+  void rewatchesTableOnceWatchTerminates() {
+    AtomicReference<StreamObserver<GetAttributeChangesResponse>> watchObserver =
+        mockWatchAttributes();
+    AttributeServiceCachedClient watchingClient = this.buildWatchingClient();
+    assertSame(this.metadata1, watchingClient.get(requestContext, "EVENT", "first").get());
+
+    watchObserver.get().onError(Status.UNAVAILABLE.asException());
+    this.responseMetadata = List.of(this.metadata2);
+
+    assertTrue(watchingClient.get(requestContext, "EVENT", "first").isEmpty());
+    assertSame(this.metadata2, watchingClient.get(requestContext, "EVENT", "second").get());
+    verify(this.mockAttributeService, times(2)).watchAttributes(any(), any());
+  }
+
+  @Test
+  void evictsWatchedTablesGrownOverMaximumCachedAttributes() throws InterruptedException {
+    CountDownLatch watchCancelled = new CountDownLatch(1);
+    AtomicReference<StreamObserver<GetAttributeChangesResponse>> watchObserver =
+        mockWatchAttributes(watchCancelled::countDown);
+    AttributeServiceCachedClient watchingClient =
+        this.buildWatchingClient(Map.of("watchChanges", true, "maxAttributes", 3));
+    assertSame(this.metadata1, watchingClient.get(requestContext, "EVENT", "first").get());
+
+    AttributeMetadata addedMetadata =
+        AttributeMetadata.newBuilder()
+            .setScopeString(AttributeScope.EVENT.name())
+            .setKey("third")
+            .setId("third-id")
+            .build();
+    watchObserver
+        .get()
+        .onNext(
+            GetAttributeChangesResponse.newBuilder()
+                .setCatalogVersion(2)
+                .addUpsertedAttributes(addedMetadata)
+                .build());
+
+    // Served from the grown table, which is weighed again and so evicted, cancelling its watch
+    assertSame(addedMetadata, watchingClient.getById(requestContext, "third-id").get());
+    assertTrue(watchCancelled.await(5, TimeUnit.SECONDS));
+    assertSame(this.metadata1, watchingClient.get(requestContext, "EVENT", "first").get());
+    verify(this.mockAttributeService, times(2)).watchAttributes(any(), any());
+  }
+
+  private AttributeServiceCachedClient buildWatchingClient() {
+    return this.buildWatchingClient(Map.of("watchChanges", true));
+  }
+
+  private AttributeServiceCachedClient buildWatchingClient(Map<String, Object> config) {
+    return new AttributeServiceCachedClient(
+        grpcChannel, AttributeServiceCachedClientConfig.from(ConfigFactory.parseMap(config)));
+  }
+
+  private AtomicReference<StreamObserver<GetAttributeChangesResponse>> mockWatchAttributes() {
+    return this.mockWatchAttributes(() -> {});
+  }
+
+  private AtomicReference<StreamObserver<GetAttributeChangesResponse>> mockWatchAttributes(
+      Runnable cancelHandler) {
+    AtomicReference<StreamObserver<GetAttributeChangesResponse>> watchObserver =
+        new AtomicReference<>();
+    doAnswer(
+            invocation -> {
+              ServerCallStreamObserver<GetAttributeChangesResponse> observer =
+                  invocation.getArgument(1, ServerCallStreamObserver.class);
+              observer.setOnCancelHandler(cancelHandler);
+              watchObserver.set(observer);
+              observer.onNext(
+                  GetAttributeChangesResponse.newBuilder()
+                      .setCatalogVersion(1)
+                      .addAllUpsertedAttributes(responseMetadata)
+                      .build());
+              return null;
+            })
+        .when(this.mockAttributeService)
+        .watchAttributes(any(), any());
+    return watchObserver;
+  }
 }
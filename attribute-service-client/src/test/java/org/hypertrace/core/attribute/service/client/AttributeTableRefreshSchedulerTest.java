@@ -0,0 +1,97 @@
+package org.hypertrace.core.attribute.service.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeTableRefreshSchedulerTest {
+  private List<CompletableFuture<String>> refreshes;
+  private long nanoTime;
+  private AttributeTableRefreshScheduler scheduler;
+
+  @BeforeEach
+  void beforeEach() {
+    this.refreshes = new ArrayList<>();
+    this.nanoTime = 0;
+    this.scheduler = new AttributeTableRefreshScheduler(2, Duration.ZERO, () -> this.nanoTime);
+  }
+
+  @Test
+  void boundsConcurrentRefreshes() {
+    CompletableFuture<String> first = this.scheduler.schedule(this::startRefresh);
+    CompletableFuture<String> second = this.scheduler.schedule(this::startRefresh);
+    CompletableFuture<String> third = this.scheduler.schedule(this::startRefresh);
+    assertEquals(2, this.refreshes.size());
+    assertEquals(1, this.scheduler.getQueuedRefreshCount());
+
+    this.refreshes.get(1).complete("second");
+    assertEquals("second", second.join());
+    assertFalse(first.isDone());
+    assertEquals(3, this.refreshes.size());
+    assertEquals(0, this.scheduler.getQueuedRefreshCount());
+
+    this.refreshes.get(0).complete("first");
+    this.refreshes.get(2).complete("third");
+    assertEquals("first", first.join());
+    assertEquals("third", third.join());
+  }
+
+  @Test
+  void reportsLagOfOldestQueuedRefresh() {
+    this.scheduler.schedule(this::startRefresh);
+    this.scheduler.schedule(this::startRefresh);
+    assertEquals(0, this.scheduler.getLagNanos());
+
+    this.scheduler.schedule(this::startRefresh);
+    this.nanoTime = TimeUnit.SECONDS.toNanos(5);
+    this.scheduler.schedule(this::startRefresh);
+    this.nanoTime = TimeUnit.SECONDS.toNanos(8);
+    assertEquals(TimeUnit.SECONDS.toNanos(8), this.scheduler.getLagNanos());
+
+    this.refreshes.get(0).complete("first");
+    assertEquals(TimeUnit.SECONDS.toNanos(3), this.scheduler.getLagNanos());
+  }
+
+  @Test
+  void runsNextRefreshIfOneFails() {
+    CompletableFuture<String> failed =
+        this.scheduler.schedule(
+            () -> {
+              throw new IllegalStateException();
+            });
+    this.scheduler.schedule(this::startRefresh);
+    this.scheduler.schedule(this::startRefresh);
+
+    CompletionException exception = assertThrows(CompletionException.class, failed::join);
+    assertTrue(exception.getCause() instanceof IllegalStateException);
+    assertEquals(2, this.refreshes.size());
+  }
+
+  @Test
+  void delaysRefreshesByJitter() {
+    AttributeTableRefreshScheduler jitteredScheduler =
+        new AttributeTableRefreshScheduler(2, Duration.ofMillis(50));
+
+    assertEquals("refreshed", jitteredScheduler.schedule(this::startRefreshed).join());
+  }
+
+  private CompletableFuture<String> startRefresh() {
+    CompletableFuture<String> refresh = new CompletableFuture<>();
+    this.refreshes.add(refresh);
+    return refresh;
+  }
+
+  private CompletableFuture<String> startRefreshed() {
+    return CompletableFuture.completedFuture("refreshed");
+  }
+}
@@ -16,6 +16,7 @@ dependencies {
   implementation(commonLibs.protobuf.javautil)
   implementation(commonLibs.guava)
   implementation(commonLibs.hypertrace.framework.documentstore.metrics)
+  implementation(commonLibs.hypertrace.framework.metrics)
 
   testImplementation(commonLibs.mockito.core)
   testImplementation(commonLibs.junit.jupiter)
@@ -0,0 +1,316 @@
+package org.hypertrace.core.attribute.service;
+
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pushes catalog changes to the watchers of each tenant. The watched tenants share a single read
+ * of the change log per poll, and only the tenants with changes load the changed attributes, once
+ * per filter watched. Tenants are polled periodically to pick up writes served by other instances,
+ * and shortly after writes served by this one, with the writes made meanwhile polled together.
+ *
+ * <p>Every tenant is polled, and every response sent, from a single thread. A watcher thus receives
+ * its catch-up changes before any change pushed to its tenant, and changes in the order they were
+ * loaded. Changes are only sent to a watcher ready to receive them, and those pending meanwhile
+ * are merged into a single response, so a slow watcher holds at most one response of every
+ * changed attribute and never delays the others.
+ */
+final class AttributeChangeBroadcaster {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttributeChangeBroadcaster.class);
+
+  interface ChangeLoader {
+    /** Loads the changes since the catalog version, or every attribute if it is unset */
+    GetAttributeChangesResponse load(
+        String tenantId, AttributeMetadataFilter filter, long sinceCatalogVersion)
+        throws Exception;
+
+    /** Loads the changes to the attributes with the ids for each filter, as of the version */
+    Map<AttributeMetadataFilter, GetAttributeChangesResponse> load(
+        String tenantId,
+        Set<AttributeMetadataFilter> filters,
+        long catalogVersion,
+        Set<String> changedAttributeIds)
+        throws Exception;
+  }
+
+  private final AttributeChangeLog changeLog;
+  private final ChangeLoader changeLoader;
+  private final ScheduledExecutorService executor;
+  private final Set<String> changedTenantIds = ConcurrentHashMap.newKeySet();
+  // Only accessed from the executor thread
+  private final Map<String, TenantWatch> tenantWatches = new HashMap<>();
+
+  AttributeChangeBroadcaster(
+      AttributeChangeLog changeLog, ChangeLoader changeLoader, Duration pollInterval) {
+    this.changeLog = changeLog;
+    this.changeLoader = changeLoader;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("attribute-change-broadcaster-%d")
+                .build());
+    this.executor.scheduleWithFixedDelay(
+        this::pollAll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  void watch(
+      String tenantId,
+      WatchAttributesRequest request,
+      StreamObserver<GetAttributeChangesResponse> responseObserver) {
+    Watcher watcher = new Watcher(tenantId, request.getFilter(), responseObserver);
+    if (responseObserver instanceof ServerCallStreamObserver) {
+      final ServerCallStreamObserver<GetAttributeChangesResponse> serverCallStreamObserver =
+          (ServerCallStreamObserver<GetAttributeChangesResponse>) responseObserver;
+      serverCallStreamObserver.setOnCancelHandler(
+          () -> {
+            watcher.cancelled = true;
+            executor.execute(() -> unsubscribe(watcher));
+          });
+      serverCallStreamObserver.setOnReadyHandler(() -> executor.execute(() -> flush(watcher)));
+    }
+    executor.execute(() -> subscribe(watcher, request.getSinceCatalogVersion()));
+  }
+
+  /** Pushes the changes written by this instance for the tenant without waiting for a poll */
+  void onCatalogChanged(String tenantId) {
+    changedTenantIds.add(tenantId);
+    executor.execute(this::pollChangedTenants);
+  }
+
+  /** Stops polling and pushing changes, leaving the streams to be closed by the server */
+  void close() {
+    executor.shutdownNow();
+  }
+
+  private void subscribe(Watcher watcher, long sinceCatalogVersion) {
+    if (watcher.cancelled) {
+      return;
+    }
+    GetAttributeChangesResponse changes;
+    try {
+      changes = changeLoader.load(watcher.tenantId, watcher.filter, sinceCatalogVersion);
+    } catch (Exception e) {
+      LOGGER.error("Error loading attribute changes for watcher of {}", watcher, e);
+      watcher.responseObserver.onError(
+          Status.INTERNAL.withDescription("Error loading attribute changes").asException());
+      return;
+    }
+
+    // Joining a watched tenant may resend changes since its version, which watchers tolerate
+    tenantWatches
+        .computeIfAbsent(watcher.tenantId, unused -> new TenantWatch(changes.getCatalogVersion()))
+        .watchersByFilter
+        .computeIfAbsent(watcher.filter, unused -> new LinkedHashSet<>())
+        .add(watcher);
+    // The full catalog is always sent, so a watcher starting from scratch learns its version
+    if (sinceCatalogVersion <= 0 || hasChanges(changes)) {
+      send(watcher, changes);
+    }
+  }
+
+  private void unsubscribe(Watcher watcher) {
+    watcher.pendingChanges = null;
+    TenantWatch tenantWatch = tenantWatches.get(watcher.tenantId);
+    if (tenantWatch == null) {
+      return;
+    }
+    Set<Watcher> watchers = tenantWatch.watchersByFilter.get(watcher.filter);
+    if (watchers != null && watchers.remove(watcher) && watchers.isEmpty()) {
+      tenantWatch.watchersByFilter.remove(watcher.filter);
+      if (tenantWatch.watchersByFilter.isEmpty()) {
+        tenantWatches.remove(watcher.tenantId);
+      }
+    }
+  }
+
+  private void pollAll() {
+    poll(Set.copyOf(tenantWatches.keySet()));
+  }
+
+  private void pollChangedTenants() {
+    Set<String> tenantIds = new HashSet<>();
+    for (Iterator<String> iterator = changedTenantIds.iterator(); iterator.hasNext(); ) {
+      tenantIds.add(iterator.next());
+      iterator.remove();
+    }
+    if (tenantIds.isEmpty()) {
+      // Polled along with an earlier change
+      return;
+    }
+    // Root changes are visible to every tenant
+    poll(tenantIds.contains(ROOT_TENANT_ID) ? Set.copyOf(tenantWatches.keySet()) : tenantIds);
+  }
+
+  private void poll(Set<String> tenantIds) {
+    Map<String, Long> sinceVersions = new HashMap<>();
+    Map<String, Long> catalogVersions = new HashMap<>();
+    for (String tenantId : tenantIds) {
+      TenantWatch tenantWatch = tenantWatches.get(tenantId);
+      if (tenantWatch != null) {
+        sinceVersions.put(tenantId, tenantWatch.catalogVersion);
+        // Taken before reading, so writes racing with this poll are loaded again by the next one
+        catalogVersions.put(tenantId, changeLog.getCatalogVersion(tenantId));
+      }
+    }
+    if (sinceVersions.isEmpty()) {
+      return;
+    }
+
+    Map<String, Set<String>> changedAttributeIds;
+    try {
+      changedAttributeIds = changeLog.getChangedAttributeIds(sinceVersions);
+    } catch (Exception e) {
+      // The versions are left as is, so the next poll retries these changes
+      LOGGER.warn("Error loading attribute changes for watchers of {}", tenantIds, e);
+      return;
+    }
+    catalogVersions.forEach(
+        (tenantId, catalogVersion) ->
+            poll(
+                tenantId,
+                catalogVersion,
+                changedAttributeIds.getOrDefault(tenantId, Set.of())));
+  }
+
+  private void poll(String tenantId, long catalogVersion, Set<String> changedAttributeIds) {
+    TenantWatch tenantWatch = tenantWatches.get(tenantId);
+    if (changedAttributeIds.isEmpty()) {
+      tenantWatch.catalogVersion = catalogVersion;
+      return;
+    }
+
+    Map<AttributeMetadataFilter, GetAttributeChangesResponse> changesByFilter;
+    try {
+      changesByFilter =
+          changeLoader.load(
+              tenantId,
+              Set.copyOf(tenantWatch.watchersByFilter.keySet()),
+              catalogVersion,
+              changedAttributeIds);
+    } catch (Exception e) {
+      // The version is left as is, so the next poll retries these changes
+      LOGGER.warn("Error loading attribute changes for watchers of tenant {}", tenantId, e);
+      return;
+    }
+
+    tenantWatch.catalogVersion = catalogVersion;
+    changesByFilter.forEach(
+        (filter, changes) -> {
+          if (hasChanges(changes)) {
+            new ArrayList<>(tenantWatch.watchersByFilter.getOrDefault(filter, Set.of()))
+                .forEach(watcher -> send(watcher, changes));
+          }
+        });
+  }
+
+  private void send(Watcher watcher, GetAttributeChangesResponse changes) {
+    watcher.pendingChanges =
+        watcher.pendingChanges == null ? changes : merge(watcher.pendingChanges, changes);
+    flush(watcher);
+  }
+
+  private void flush(Watcher watcher) {
+    if (watcher.pendingChanges == null || !watcher.isReady()) {
+      // Sent once the watcher is ready
+      return;
+    }
+    try {
+      watcher.responseObserver.onNext(watcher.pendingChanges);
+      watcher.pendingChanges = null;
+    } catch (RuntimeException e) {
+      // Typically a call cancelled before its cancel handler ran
+      LOGGER.debug("Dropping attribute watcher that could not be sent changes", e);
+      unsubscribe(watcher);
+    }
+  }
+
+  /** Merges later changes into pending ones, as if both had been loaded at once */
+  private static GetAttributeChangesResponse merge(
+      GetAttributeChangesResponse pendingChanges, GetAttributeChangesResponse changes) {
+    Map<String, AttributeMetadata> upsertedAttributes = new LinkedHashMap<>();
+    pendingChanges
+        .getUpsertedAttributesList()
+        .forEach(attribute -> upsertedAttributes.put(attribute.getId(), attribute));
+    Set<String> deletedAttributeIds =
+        new LinkedHashSet<>(pendingChanges.getDeletedAttributeIdsList());
+    for (AttributeMetadata attribute : changes.getUpsertedAttributesList()) {
+      deletedAttributeIds.remove(attribute.getId());
+      upsertedAttributes.put(attribute.getId(), attribute);
+    }
+    for (String attributeId : changes.getDeletedAttributeIdsList()) {
+      upsertedAttributes.remove(attributeId);
+      deletedAttributeIds.add(attributeId);
+    }
+    return GetAttributeChangesResponse.newBuilder()
+        .setCatalogVersion(changes.getCatalogVersion())
+        .addAllUpsertedAttributes(upsertedAttributes.values())
+        .addAllDeletedAttributeIds(deletedAttributeIds)
+        .build();
+  }
+
+  private static boolean hasChanges(GetAttributeChangesResponse changes) {
+    return changes.getUpsertedAttributesCount() > 0 || changes.getDeletedAttributeIdsCount() > 0;
+  }
+
+  private static final class TenantWatch {
+    private final Map<AttributeMetadataFilter, Set<Watcher>> watchersByFilter = new HashMap<>();
+    private long catalogVersion;
+
+    private TenantWatch(long catalogVersion) {
+      this.catalogVersion = catalogVersion;
+    }
+  }
+
+  private static final class Watcher {
+    private final String tenantId;
+    private final AttributeMetadataFilter filter;
+    private final StreamObserver<GetAttributeChangesResponse> responseObserver;
+    private volatile boolean cancelled;
+    // Only accessed from the executor thread
+    private GetAttributeChangesResponse pendingChanges;
+
+    private Watcher(
+        String tenantId,
+        AttributeMetadataFilter filter,
+        StreamObserver<GetAttributeChangesResponse> responseObserver) {
+      this.tenantId = tenantId;
+      this.filter = filter;
+      this.responseObserver = responseObserver;
+    }
+
+    private boolean isReady() {
+      return !(responseObserver instanceof ServerCallStreamObserver)
+          || ((ServerCallStreamObserver<GetAttributeChangesResponse>) responseObserver).isReady();
+    }
+
+    @Override
+    public String toString() {
+      return "tenant " + tenantId + " with filter " + filter;
+    }
+  }
+}
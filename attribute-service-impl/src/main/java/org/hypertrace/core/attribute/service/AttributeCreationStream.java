@@ -0,0 +1,76 @@
+package org.hypertrace.core.attribute.service;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.util.function.Consumer;
+import org.hypertrace.core.attribute.service.delegate.AttributeCreator;
+import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the attributes of each request of a stream as it is received. The next request is only
+ * delivered once the previous one is written, so a producer streaming many requests is held back
+ * by the writes rather than buffered in memory. The stream fails on the first invalid request,
+ * keeping the attributes of the previous requests.
+ */
+final class AttributeCreationStream implements StreamObserver<AttributeCreateRequest> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttributeCreationStream.class);
+
+  private final String tenantId;
+  private final Consumer<AttributeCreateRequest> requestValidator;
+  private final AttributeCreator creator;
+  private final StreamObserver<CreateAttributesResponse> responseObserver;
+  private final CreateAttributesResponse.Builder response = CreateAttributesResponse.newBuilder();
+  private boolean failed;
+
+  AttributeCreationStream(
+      String tenantId,
+      Consumer<AttributeCreateRequest> requestValidator,
+      AttributeCreator creator,
+      StreamObserver<CreateAttributesResponse> responseObserver) {
+    this.tenantId = tenantId;
+    this.requestValidator = requestValidator;
+    this.creator = creator;
+    this.responseObserver = responseObserver;
+  }
+
+  @Override
+  public void onNext(AttributeCreateRequest request) {
+    if (failed) {
+      return;
+    }
+    try {
+      requestValidator.accept(request);
+    } catch (IllegalArgumentException e) {
+      fail(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e));
+      return;
+    } catch (Exception e) {
+      LOGGER.warn("Could not validate streamed attribute create request", e);
+      fail(Status.fromThrowable(e));
+      return;
+    }
+    response.addAllChunkResults(creator.create(tenantId, request.getAttributesList()));
+  }
+
+  @Override
+  public void onError(Throwable t) {
+    failed = true;
+    LOGGER.debug("Attribute create stream for tenant {} terminated by the client", tenantId, t);
+  }
+
+  @Override
+  public void onCompleted() {
+    if (failed) {
+      return;
+    }
+    responseObserver.onNext(response.build());
+    responseObserver.onCompleted();
+  }
+
+  private void fail(Status status) {
+    failed = true;
+    responseObserver.onError(status.asException());
+  }
+}
@@ -0,0 +1,107 @@
+package org.hypertrace.core.attribute.service;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.GetAttributesPagedResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drains an attribute iterator into pages on a response stream. When the stream supports flow
+ * control, a page is only built while the client is ready to receive it, so at most one page of
+ * attributes is held in memory and the source is read no faster than the client consumes it.
+ */
+final class AttributePageStreamer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttributePageStreamer.class);
+
+  private final Iterator<AttributeMetadata> attributes;
+  private final Closeable source;
+  private final int pageSize;
+  private final StreamObserver<GetAttributesPagedResponse> responseObserver;
+  private boolean done;
+
+  private AttributePageStreamer(
+      Iterator<AttributeMetadata> attributes,
+      Closeable source,
+      int pageSize,
+      StreamObserver<GetAttributesPagedResponse> responseObserver) {
+    this.attributes = attributes;
+    this.source = source;
+    this.pageSize = pageSize;
+    this.responseObserver = responseObserver;
+  }
+
+  /**
+   * Starts streaming, taking ownership of the source which is closed once the attributes are
+   * drained, the call fails or the call is cancelled.
+   */
+  static void start(
+      Iterator<AttributeMetadata> attributes,
+      Closeable source,
+      int pageSize,
+      StreamObserver<GetAttributesPagedResponse> responseObserver) {
+    final AttributePageStreamer streamer =
+        new AttributePageStreamer(attributes, source, pageSize, responseObserver);
+    if (responseObserver instanceof ServerCallStreamObserver) {
+      final ServerCallStreamObserver<GetAttributesPagedResponse> serverCallStreamObserver =
+          (ServerCallStreamObserver<GetAttributesPagedResponse>) responseObserver;
+      serverCallStreamObserver.setOnCancelHandler(streamer::cancel);
+      serverCallStreamObserver.setOnReadyHandler(streamer::drain);
+    }
+    streamer.drain();
+  }
+
+  private synchronized void drain() {
+    if (done) {
+      return;
+    }
+    try {
+      while (isReady()) {
+        if (!attributes.hasNext()) {
+          finish();
+          responseObserver.onCompleted();
+          return;
+        }
+        responseObserver.onNext(nextPage());
+      }
+    } catch (Exception e) {
+      LOGGER.error("Error streaming attribute pages", e);
+      finish();
+      responseObserver.onError(e);
+    }
+  }
+
+  private synchronized void cancel() {
+    if (!done) {
+      finish();
+    }
+  }
+
+  private GetAttributesPagedResponse nextPage() {
+    final GetAttributesPagedResponse.Builder page = GetAttributesPagedResponse.newBuilder();
+    AttributeMetadata attribute = null;
+    while (page.getAttributesCount() < pageSize && attributes.hasNext()) {
+      attribute = attributes.next();
+      page.addAttributes(attribute);
+    }
+    return page.setContinuationToken(attribute.getId()).build();
+  }
+
+  private boolean isReady() {
+    return !(responseObserver instanceof ServerCallStreamObserver)
+        || ((ServerCallStreamObserver<GetAttributesPagedResponse>) responseObserver).isReady();
+  }
+
+  private void finish() {
+    done = true;
+    try {
+      source.close();
+    } catch (IOException e) {
+      LOGGER.warn("Error closing attribute source", e);
+    }
+  }
+}
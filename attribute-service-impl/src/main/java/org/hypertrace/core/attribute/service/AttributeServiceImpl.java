@@ -1,52 +1,67 @@
 package org.hypertrace.core.attribute.service;
 
 import static java.util.Objects.isNull;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.FQN_PATH;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.INTERNAL_PATH;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.KEY_PATH;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_PATH;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_STRING_PATH;
-import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SOURCE_METADATA_PATH;
 import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
-import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
 import static org.hypertrace.core.attribute.service.validator.AttributeMetadataValidator.validateAndUpdateDeletionFilter;
 
 import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ServiceException;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Spliterators;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilderImpl;
+import org.hypertrace.core.attribute.service.cache.AttributeMetadataCache;
+import org.hypertrace.core.attribute.service.cache.AttributeMetadataCacheConfig;
+import org.hypertrace.core.attribute.service.cache.AttributeMetadataCacheImpl;
+import org.hypertrace.core.attribute.service.cache.CustomAttributeCounter;
+import org.hypertrace.core.attribute.service.cache.CustomAttributeCounterImpl;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLogImpl;
 import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverter;
 import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverterImpl;
+import org.hypertrace.core.attribute.service.delegate.AttributeCreator;
+import org.hypertrace.core.attribute.service.delegate.AttributeCreatorImpl;
+import org.hypertrace.core.attribute.service.delegate.AttributeDeleter;
+import org.hypertrace.core.attribute.service.delegate.AttributeDeleterImpl;
+import org.hypertrace.core.attribute.service.delegate.AttributeSourceMetadataUpdater;
+import org.hypertrace.core.attribute.service.delegate.AttributeSourceMetadataUpdaterImpl;
 import org.hypertrace.core.attribute.service.delegate.AttributeUpdater;
 import org.hypertrace.core.attribute.service.delegate.AttributeUpdaterImpl;
-import org.hypertrace.core.attribute.service.model.AttributeMetadataDocKey;
-import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
 import org.hypertrace.core.attribute.service.utils.tenant.TenantUtils;
 import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
-import org.hypertrace.core.attribute.service.v1.AttributeScope;
 import org.hypertrace.core.attribute.service.v1.AttributeServiceGrpc;
-import org.hypertrace.core.attribute.service.v1.AttributeSource;
 import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataDeleteRequest;
 import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataUpdateRequest;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesChunkResult;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesResponse;
 import org.hypertrace.core.attribute.service.v1.Empty;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesRequest;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.GetAttributesPagedRequest;
+import org.hypertrace.core.attribute.service.v1.GetAttributesPagedResponse;
 import org.hypertrace.core.attribute.service.v1.GetAttributesRequest;
 import org.hypertrace.core.attribute.service.v1.GetAttributesResponse;
 import org.hypertrace.core.attribute.service.v1.UpdateMetadataRequest;
 import org.hypertrace.core.attribute.service.v1.UpdateMetadataResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
 import org.hypertrace.core.attribute.service.validator.AttributeMetadataValidator;
 import org.hypertrace.core.documentstore.CloseableIterator;
 import org.hypertrace.core.documentstore.Collection;
@@ -54,9 +69,6 @@ import org.hypertrace.core.documentstore.Datastore;
 import org.hypertrace.core.documentstore.DatastoreProvider;
 import org.hypertrace.core.documentstore.Document;
 import org.hypertrace.core.documentstore.Filter;
-import org.hypertrace.core.documentstore.Filter.Op;
-import org.hypertrace.core.documentstore.JSONDocument;
-import org.hypertrace.core.documentstore.Key;
 import org.hypertrace.core.documentstore.Query;
 import org.hypertrace.core.documentstore.model.config.DatastoreConfig;
 import org.hypertrace.core.documentstore.model.config.TypesafeConfigDatastoreConfigExtractor;
@@ -75,15 +87,30 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
   private static final String DOC_STORE_CONFIG_KEY = "document.store";
   private static final String DATA_STORE_TYPE = "dataStoreType";
   private static final String ATTRIBUTE_METADATA_COLLECTION = "attribute_metadata";
+  private static final String ATTRIBUTE_METADATA_CHANGELOG_COLLECTION =
+      "attribute_metadata_changelog";
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String WATCH_POLL_INTERVAL_CONFIG_KEY = "attribute.watch.pollInterval";
+  private static final Duration DEFAULT_WATCH_POLL_INTERVAL = Duration.ofSeconds(10);
+  private static final String CREATE_CHUNK_SIZE_CONFIG_KEY = "attribute.create.chunkSize";
+  private static final String CREATE_PARALLELISM_CONFIG_KEY = "attribute.create.parallelism";
+  private static final int DEFAULT_CREATE_CHUNK_SIZE = 500;
+  private static final int DEFAULT_CREATE_PARALLELISM = 4;
 
   private final Collection collection;
   private final AttributeMetadataValidator validator;
   private final AttributeMetadataConverter converter;
+  private final AttributeQueryBuilder queryBuilder;
+  private final ExecutorService createExecutor;
+  private final AttributeCreator creator;
   private final AttributeUpdater updater;
-
-  private static String sourceMetadataPathFor(final AttributeSource source) {
-    return String.join(".", SOURCE_METADATA_PATH, source.name());
-  }
+  private final AttributeDeleter deleter;
+  private final CustomAttributeCounter customAttributeCounter;
+  private final AttributeSourceMetadataUpdater sourceMetadataUpdater;
+  private final Optional<AttributeMetadataCache> cache;
+  private final AttributeChangeLog changeLog;
+  private final AttributeChangeBroadcaster broadcaster;
 
   /**
    * Initiates with a configuration. The configuration should be production configuration, but for
@@ -92,16 +119,89 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
   public AttributeServiceImpl(Config config, PlatformServiceLifecycle platformServiceLifecycle) {
     Datastore store = initDataStore(config, platformServiceLifecycle);
     this.collection = store.getCollection(ATTRIBUTE_METADATA_COLLECTION);
+    this.changeLog =
+        new AttributeChangeLogImpl(store.getCollection(ATTRIBUTE_METADATA_CHANGELOG_COLLECTION));
     this.validator = new AttributeMetadataValidator(config);
     this.converter = new AttributeMetadataConverterImpl();
-    this.updater = new AttributeUpdaterImpl(collection);
+    this.queryBuilder = new AttributeQueryBuilderImpl();
+    this.updater = new AttributeUpdaterImpl(collection, changeLog);
+    this.deleter = new AttributeDeleterImpl(collection);
+    this.customAttributeCounter = new CustomAttributeCounterImpl(collection);
+    this.createExecutor =
+        buildCreateExecutor(
+            config.hasPath(CREATE_PARALLELISM_CONFIG_KEY)
+                ? config.getInt(CREATE_PARALLELISM_CONFIG_KEY)
+                : DEFAULT_CREATE_PARALLELISM);
+    this.creator =
+        new AttributeCreatorImpl(
+            collection,
+            customAttributeCounter,
+            this::onCatalogChanged,
+            config.hasPath(CREATE_CHUNK_SIZE_CONFIG_KEY)
+                ? config.getInt(CREATE_CHUNK_SIZE_CONFIG_KEY)
+                : DEFAULT_CREATE_CHUNK_SIZE,
+            createExecutor);
+    this.sourceMetadataUpdater = new AttributeSourceMetadataUpdaterImpl(collection);
+    this.cache = buildCache(AttributeMetadataCacheConfig.from(config));
+    this.broadcaster =
+        new AttributeChangeBroadcaster(
+            changeLog,
+            buildChangeLoader(),
+            config.hasPath(WATCH_POLL_INTERVAL_CONFIG_KEY)
+                ? config.getDuration(WATCH_POLL_INTERVAL_CONFIG_KEY)
+                : DEFAULT_WATCH_POLL_INTERVAL);
+    platformServiceLifecycle.shutdownComplete().thenRun(this::close);
   }
 
-  AttributeServiceImpl(Collection collection) {
+  AttributeServiceImpl(Collection collection, AttributeChangeLog changeLog) {
+    this(collection, AttributeMetadataCacheConfig.from(ConfigFactory.empty()), changeLog);
+  }
+
+  AttributeServiceImpl(
+      Collection collection,
+      AttributeMetadataCacheConfig cacheConfig,
+      AttributeChangeLog changeLog) {
     this.collection = collection;
+    this.changeLog = changeLog;
     this.validator = new AttributeMetadataValidator();
     this.converter = new AttributeMetadataConverterImpl();
-    this.updater = new AttributeUpdaterImpl(collection);
+    this.queryBuilder = new AttributeQueryBuilderImpl();
+    this.updater = new AttributeUpdaterImpl(collection, changeLog);
+    this.deleter = new AttributeDeleterImpl(collection);
+    this.customAttributeCounter = new CustomAttributeCounterImpl(collection);
+    this.createExecutor = buildCreateExecutor(DEFAULT_CREATE_PARALLELISM);
+    this.creator =
+        new AttributeCreatorImpl(
+            collection,
+            customAttributeCounter,
+            this::onCatalogChanged,
+            DEFAULT_CREATE_CHUNK_SIZE,
+            createExecutor);
+    this.sourceMetadataUpdater = new AttributeSourceMetadataUpdaterImpl(collection);
+    this.cache = buildCache(cacheConfig);
+    this.broadcaster =
+        new AttributeChangeBroadcaster(
+            changeLog, buildChangeLoader(), DEFAULT_WATCH_POLL_INTERVAL);
+  }
+
+  /** Stops the threads of the service, once it is no longer serving requests */
+  public void close() {
+    createExecutor.shutdown();
+    broadcaster.close();
+  }
+
+  private static ExecutorService buildCreateExecutor(int parallelism) {
+    return Executors.newFixedThreadPool(
+        parallelism,
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("attribute-creator-%d").build());
+  }
+
+  private Optional<AttributeMetadataCache> buildCache(AttributeMetadataCacheConfig cacheConfig) {
+    if (!cacheConfig.isEnabled()) {
+      return Optional.empty();
+    }
+    LOGGER.info("Serving attribute reads from the in-memory catalog with {}", cacheConfig);
+    return Optional.of(new AttributeMetadataCacheImpl(cacheConfig, this::loadAttributes));
   }
 
   private Datastore initDataStore(
@@ -127,24 +227,19 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
     }
 
     final String tenantId = tenantIdOptional.orElseThrow();
-    final AttributeMetadataFilter filter =
-        AttributeMetadataFilter.newBuilder().setCustom(true).build();
 
     try {
-      validator.validate(
-          request, tenantId, () -> collection.total(getQueryForFilter(tenantId, filter)));
-      Map<Key, Document> attributeDocs = new HashMap<>();
-      for (AttributeMetadata attributeMetadata : request.getAttributesList()) {
-        AttributeMetadataModel attributeMetadataModel =
-            AttributeMetadataModel.fromDTO(attributeMetadata);
-        attributeMetadataModel.setTenantId(tenantId);
-        attributeDocs.put(
-            new AttributeMetadataDocKey(
-                tenantId, attributeMetadataModel.getScopeString(), attributeMetadataModel.getKey()),
-            attributeMetadataModel);
-      }
-
-      boolean status = collection.bulkUpsert(attributeDocs);
+      validate(request, tenantId);
+      List<CreateAttributesChunkResult> chunkResults =
+          creator.create(tenantId, request.getAttributesList());
+      LOGGER.debug(
+          "Created {}, updated {} and left unchanged {} attributes for tenant {}",
+          chunkResults.stream().mapToInt(CreateAttributesChunkResult::getCreatedCount).sum(),
+          chunkResults.stream().mapToInt(CreateAttributesChunkResult::getUpdatedCount).sum(),
+          chunkResults.stream().mapToInt(CreateAttributesChunkResult::getUnchangedCount).sum(),
+          tenantId);
+      boolean status =
+          chunkResults.stream().allMatch(chunkResult -> chunkResult.getErrorMessage().isEmpty());
       if (status) {
         responseObserver.onNext(Empty.newBuilder().build());
         responseObserver.onCompleted();
@@ -154,6 +249,9 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
                 String.format(
                     "Could not bulk insert attributes. AttributeCreateRequest:%s", request)));
       }
+    } catch (final IllegalArgumentException e) {
+      responseObserver.onError(
+          Status.INVALID_ARGUMENT.withDescription(e.getMessage()).withCause(e).asException());
     } catch (final Exception e) {
       LOGGER.warn("Could not create attributes with request: " + request, e);
       responseObserver.onError(
@@ -163,6 +261,41 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
     }
   }
 
+  @Override
+  public StreamObserver<AttributeCreateRequest> createAttributes(
+      StreamObserver<CreateAttributesResponse> responseObserver) {
+    String tenantId = RequestContext.CURRENT.get().getTenantId().orElse(null);
+    if (isNull(tenantId)) {
+      responseObserver.onError(new ServiceException("Tenant id is missing in the request."));
+      return new StreamObserver<>() {
+        @Override
+        public void onNext(AttributeCreateRequest request) {}
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onCompleted() {}
+      };
+    }
+
+    return new AttributeCreationStream(
+        tenantId, request -> validate(request, tenantId), creator, responseObserver);
+  }
+
+  private void validate(AttributeCreateRequest request, String tenantId) {
+    // Existing attributes are only checked against when the in-memory catalog can serve them
+    if (cache.isPresent()) {
+      validator.validate(
+          request,
+          tenantId,
+          () -> customAttributeCounter.count(tenantId),
+          filter -> cache.get().get(tenantId, filter));
+    } else {
+      validator.validate(request, tenantId, () -> customAttributeCounter.count(tenantId));
+    }
+  }
+
   @Override
   public void updateSourceMetadata(
       AttributeSourceMetadataUpdateRequest request, StreamObserver<Empty> responseObserver) {
@@ -172,47 +305,12 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    try (final CloseableIterator<Document> documents =
-        collection.search(getQueryByTenantIdAndFQN(tenantId.get(), request.getFqn()))) {
-      // For each attribute matching the FQN update the source metadata
-      boolean status =
-          StreamSupport.stream(Spliterators.spliteratorUnknownSize(documents, 0), false)
-              .map(Document::toJson)
-              .map(
-                  attrMetadataDoc -> {
-                    try {
-                      AttributeMetadata metadata =
-                          AttributeMetadataModel.fromJson(attrMetadataDoc).toDTO();
-                      boolean response =
-                          collection.updateSubDoc(
-                              AttributeMetadataDocKey.from(tenantId.get(), metadata),
-                              sourceMetadataPathFor(request.getSource()),
-                              new JSONDocument(request.getSourceMetadataMap()));
-                      if (!response) {
-                        LOGGER.warn(
-                            "Error updating source metadata for attribute:{}, request:{}",
-                            metadata,
-                            request);
-                      }
-                      return response;
-                    } catch (IOException ex) {
-                      LOGGER.warn(
-                          "Unable to convert this Json String to AttributeMetadata : {}",
-                          attrMetadataDoc);
-                      return false;
-                    }
-                  })
-              .reduce(true, (b1, b2) -> b1 && b2);
-      if (status) {
-        responseObserver.onNext(Empty.newBuilder().build());
-        responseObserver.onCompleted();
-      } else {
-        responseObserver.onError(
-            new RuntimeException(
-                String.format("Error updating source metadata for request:%s", request)));
-      }
+    try {
+      onCatalogChanged(tenantId.get(), sourceMetadataUpdater.update(request, tenantId.get()));
+      responseObserver.onNext(Empty.newBuilder().build());
+      responseObserver.onCompleted();
     } catch (Exception e) {
-      LOGGER.error("Error finding attributes with filter:" + request, e);
+      LOGGER.error("Error updating source metadata for request:" + request, e);
       responseObserver.onError(e);
     }
   }
@@ -228,42 +326,12 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    try (final CloseableIterator<Document> documents =
-        collection.search(getQueryForFilter(tenantId.get(), modifiedRequest))) {
-      boolean status =
-          StreamSupport.stream(Spliterators.spliteratorUnknownSize(documents, 0), false)
-              .map(Document::toJson)
-              .map(
-                  attrMetadataDoc -> {
-                    try {
-                      AttributeMetadata metadata =
-                          AttributeMetadataModel.fromJson(attrMetadataDoc).toDTO();
-                      boolean response =
-                          collection.delete(AttributeMetadataDocKey.from(tenantId.get(), metadata));
-                      if (!response) {
-                        LOGGER.warn(
-                            "Error updating source metadata for attribute:{}, request:{}",
-                            metadata,
-                            modifiedRequest);
-                      }
-                      return response;
-                    } catch (IOException ex) {
-                      LOGGER.warn(
-                          "Unable to convert this Json String to AttributeMetadata : {}",
-                          attrMetadataDoc);
-                      return false;
-                    }
-                  })
-              .reduce(true, (b1, b2) -> b1 && b2);
-      if (status) {
-        responseObserver.onNext(Empty.newBuilder().build());
-        responseObserver.onCompleted();
-      } else {
-        responseObserver.onError(
-            new RuntimeException(
-                String.format(
-                    "Error deleting attribute metadata for request:%s", modifiedRequest)));
-      }
+    try {
+      List<String> attributeIds = deleter.delete(tenantId.get(), modifiedRequest);
+      customAttributeCounter.onDeleted(tenantId.get(), attributeIds);
+      onCatalogChanged(tenantId.get(), attributeIds);
+      responseObserver.onNext(Empty.newBuilder().build());
+      responseObserver.onCompleted();
     } catch (final Exception e) {
       LOGGER.warn("Error deleting attribute metadata for request: " + request, e);
       responseObserver.onError(
@@ -283,46 +351,12 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    try (final CloseableIterator<Document> documents =
-        collection.search(getQueryByTenantIdAndFQN(tenantId.get(), request.getFqn()))) {
-      // For each attribute matching the FQN update the source metadata
-      boolean status =
-          StreamSupport.stream(Spliterators.spliteratorUnknownSize(documents, 0), false)
-              .map(Document::toJson)
-              .map(
-                  attrMetadataDoc -> {
-                    try {
-                      AttributeMetadata metadata =
-                          AttributeMetadataModel.fromJson(attrMetadataDoc).toDTO();
-                      boolean response =
-                          collection.deleteSubDoc(
-                              AttributeMetadataDocKey.from(tenantId.get(), metadata),
-                              sourceMetadataPathFor(request.getSource()));
-                      if (!response) {
-                        LOGGER.warn(
-                            "Error updating source metadata for attribute:{}, request:{}",
-                            metadata,
-                            request);
-                      }
-                      return response;
-                    } catch (IOException ex) {
-                      LOGGER.warn(
-                          "Unable to convert this Json String to AttributeMetadata : {}",
-                          attrMetadataDoc);
-                      return false;
-                    }
-                  })
-              .reduce(true, (b1, b2) -> b1 && b2);
-      if (status) {
-        responseObserver.onNext(Empty.newBuilder().build());
-        responseObserver.onCompleted();
-      } else {
-        responseObserver.onError(
-            new RuntimeException(
-                String.format("Error updating source metadata for request:%s", request)));
-      }
+    try {
+      onCatalogChanged(tenantId.get(), sourceMetadataUpdater.delete(request, tenantId.get()));
+      responseObserver.onNext(Empty.newBuilder().build());
+      responseObserver.onCompleted();
     } catch (Exception e) {
-      LOGGER.error("Error finding attributes with filter:" + request, e);
+      LOGGER.error("Error deleting source metadata for request:" + request, e);
       responseObserver.onError(e);
     }
   }
@@ -336,9 +370,15 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    try (final CloseableIterator<Document> documents =
-        collection.search(getQueryForFilter(tenantId.get(), request))) {
-      sendResult(documents, responseObserver);
+    try {
+      if (cache.isPresent()) {
+        sendResult(cache.get().get(tenantId.get(), request), responseObserver);
+        return;
+      }
+      try (final CloseableIterator<Document> documents =
+          collection.search(queryBuilder.buildFilterQuery(tenantId.get(), request))) {
+        sendResult(documents, responseObserver);
+      }
     } catch (Exception e) {
       LOGGER.error("Error finding attributes with filter:" + request, e);
       responseObserver.onError(e);
@@ -353,12 +393,18 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    // query with filter on Tenant id
-    Query query = new Query();
-    query.setFilter(getTenantIdInFilter(TenantUtils.getTenantHierarchy(tenantId.get())));
+    try {
+      if (cache.isPresent()) {
+        sendResult(cache.get().getAll(tenantId.get()), responseObserver);
+        return;
+      }
+      // query with filter on Tenant id
+      Query query = new Query();
+      query.setFilter(getTenantIdInFilter(TenantUtils.getTenantHierarchy(tenantId.get())));
 
-    try (final CloseableIterator<Document> documents = collection.search(query)) {
-      sendResult(documents, responseObserver);
+      try (final CloseableIterator<Document> documents = collection.search(query)) {
+        sendResult(documents, responseObserver);
+      }
     } catch (Exception e) {
       LOGGER.error("Error finding all attributes", e);
       responseObserver.onError(e);
@@ -374,13 +420,11 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
       return;
     }
 
-    try (final CloseableIterator<Document> iterator =
-        collection.search(this.getQueryForFilter(tenantId, request.getFilter()))) {
+    try {
       List<AttributeMetadata> attributes =
-          Streams.stream(iterator)
-              .map(converter::convert)
-              .flatMap(Optional::stream)
-              .collect(Collectors.toUnmodifiableList());
+          cache.isPresent()
+              ? cache.get().get(tenantId, request.getFilter())
+              : search(queryBuilder.buildFilterQuery(tenantId, request.getFilter()));
 
       responseObserver.onNext(
           GetAttributesResponse.newBuilder().addAllAttributes(attributes).build());
@@ -391,12 +435,84 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
     }
   }
 
+  @Override
+  public void getAttributesPaged(
+      GetAttributesPagedRequest request,
+      StreamObserver<GetAttributesPagedResponse> responseObserver) {
+    String tenantId = RequestContext.CURRENT.get().getTenantId().orElse(null);
+    if (isNull(tenantId)) {
+      responseObserver.onError(new ServiceException("Tenant id is missing in the request."));
+      return;
+    }
+
+    int pageSize =
+        request.getPageSize() > 0
+            ? Math.min(request.getPageSize(), MAX_PAGE_SIZE)
+            : DEFAULT_PAGE_SIZE;
+    String afterAttributeId = request.getContinuationToken();
+    try {
+      if (cache.isPresent()) {
+        Iterator<AttributeMetadata> attributes =
+            cache.get().get(tenantId, request.getFilter()).stream()
+                .filter(attribute -> attribute.getId().compareTo(afterAttributeId) > 0)
+                .sorted(Comparator.comparing(AttributeMetadata::getId))
+                .iterator();
+        AttributePageStreamer.start(attributes, () -> {}, pageSize, responseObserver);
+        return;
+      }
+      CloseableIterator<Document> documents =
+          collection.search(
+              queryBuilder.buildPageQuery(tenantId, request.getFilter(), afterAttributeId));
+      Iterator<AttributeMetadata> attributes =
+          Streams.stream(documents).map(converter::convert).flatMap(Optional::stream).iterator();
+      AttributePageStreamer.start(attributes, documents, pageSize, responseObserver);
+    } catch (Exception e) {
+      LOGGER.error("Error getting attribute pages", e);
+      responseObserver.onError(e);
+    }
+  }
+
+  @Override
+  public void getAttributeChanges(
+      GetAttributeChangesRequest request,
+      StreamObserver<GetAttributeChangesResponse> responseObserver) {
+    String tenantId = RequestContext.CURRENT.get().getTenantId().orElse(null);
+    if (isNull(tenantId)) {
+      responseObserver.onError(new ServiceException("Tenant id is missing in the request."));
+      return;
+    }
+
+    try {
+      responseObserver.onNext(
+          loadChanges(tenantId, request.getFilter(), request.getSinceCatalogVersion()));
+      responseObserver.onCompleted();
+    } catch (Exception e) {
+      LOGGER.error("Error getting attribute changes", e);
+      responseObserver.onError(e);
+    }
+  }
+
+  @Override
+  public void watchAttributes(
+      WatchAttributesRequest request,
+      StreamObserver<GetAttributeChangesResponse> responseObserver) {
+    String tenantId = RequestContext.CURRENT.get().getTenantId().orElse(null);
+    if (isNull(tenantId)) {
+      responseObserver.onError(new ServiceException("Tenant id is missing in the request."));
+      return;
+    }
+
+    broadcaster.watch(tenantId, request, responseObserver);
+  }
+
   @Override
   public void updateMetadata(
       final UpdateMetadataRequest request,
       final StreamObserver<UpdateMetadataResponse> responseObserver) {
     try {
       final UpdateMetadataResponse response = updater.update(request, RequestContext.CURRENT.get());
+      RequestContext.CURRENT.get().getTenantId().ifPresent(this::invalidateCache);
+      RequestContext.CURRENT.get().getTenantId().ifPresent(broadcaster::onCatalogChanged);
       responseObserver.onNext(response);
       responseObserver.onCompleted();
     } catch (final Exception e) {
@@ -413,72 +529,135 @@ public class AttributeServiceImpl extends AttributeServiceGrpc.AttributeServiceI
     responseObserver.onCompleted();
   }
 
-  private Query getQueryForFilter(
-      String tenantId, AttributeMetadataFilter attributeMetadataFilter) {
-    List<String> scopeFilterList =
-        Stream.concat(
-                attributeMetadataFilter.getScopeStringList().stream(),
-                attributeMetadataFilter.getScopeList().stream().map(AttributeScope::name))
-            .collect(Collectors.toUnmodifiableList());
-    List<String> keyFilterRequest = attributeMetadataFilter.getKeyList();
-    List<String> fqnFilterRequest = attributeMetadataFilter.getFqnList();
-    List<Filter> andFilters = new ArrayList<>();
+  private void sendResult(
+      List<AttributeMetadata> attributes, StreamObserver<AttributeMetadata> responseObserver) {
+    attributes.forEach(responseObserver::onNext);
+    responseObserver.onCompleted();
+  }
 
-    andFilters.add(getTenantIdInFilter(TenantUtils.getTenantHierarchy(tenantId)));
+  private AttributeChangeBroadcaster.ChangeLoader buildChangeLoader() {
+    return new AttributeChangeBroadcaster.ChangeLoader() {
+      @Override
+      public GetAttributeChangesResponse load(
+          String tenantId, AttributeMetadataFilter filter, long sinceCatalogVersion)
+          throws IOException {
+        return loadChanges(tenantId, filter, sinceCatalogVersion);
+      }
 
-    if (fqnFilterRequest != null && !fqnFilterRequest.isEmpty()) {
-      andFilters.add(new Filter(Filter.Op.IN, FQN_PATH, fqnFilterRequest));
-    }
+      @Override
+      public Map<AttributeMetadataFilter, GetAttributeChangesResponse> load(
+          String tenantId,
+          Set<AttributeMetadataFilter> filters,
+          long catalogVersion,
+          Set<String> changedAttributeIds) {
+        return loadChanges(tenantId, filters, catalogVersion, changedAttributeIds);
+      }
+    };
+  }
 
-    if (!scopeFilterList.isEmpty()) {
-      andFilters.add(
-          new Filter(Filter.Op.IN, SCOPE_STRING_PATH, scopeFilterList)
-              .or(new Filter(Filter.Op.IN, SCOPE_PATH, scopeFilterList)));
+  private GetAttributeChangesResponse loadChanges(
+      String tenantId, AttributeMetadataFilter filter, long sinceCatalogVersion)
+      throws IOException {
+    // Taken before reading, so writes racing with this read are reported again next time
+    long catalogVersion = changeLog.getCatalogVersion(tenantId);
+
+    // Always read from the store, as the in-memory catalog of another instance may be stale
+    if (sinceCatalogVersion <= 0) {
+      return GetAttributeChangesResponse.newBuilder()
+          .setCatalogVersion(catalogVersion)
+          .addAllUpsertedAttributes(search(queryBuilder.buildFilterQuery(tenantId, filter)))
+          .build();
     }
 
-    if (!keyFilterRequest.isEmpty()) {
-      andFilters.add(new Filter(Filter.Op.IN, KEY_PATH, keyFilterRequest));
-    }
+    return loadChanges(
+            tenantId,
+            Set.of(filter),
+            catalogVersion,
+            changeLog.getChangedAttributeIds(tenantId, sinceCatalogVersion))
+        .get(filter);
+  }
 
-    if (attributeMetadataFilter.hasInternal()) {
-      Filter internalFilter =
-          new Filter(Op.EQ, INTERNAL_PATH, attributeMetadataFilter.getInternal());
-      if (!attributeMetadataFilter.getInternal()) {
-        // For backwards compatibility, treat an attribute missing internal attribute as external
-        internalFilter = internalFilter.or(new Filter(Op.NOT_EXISTS, INTERNAL_PATH, null));
-      }
-      andFilters.add(internalFilter);
+  /** Loads the changes for each filter, sharing the lookup of the deleted ids across them */
+  private Map<AttributeMetadataFilter, GetAttributeChangesResponse> loadChanges(
+      String tenantId,
+      Set<AttributeMetadataFilter> filters,
+      long catalogVersion,
+      Set<String> changedAttributeIds) {
+    // Sorted, so that the id queries do not depend on the set's iteration order
+    List<String> attributeIds =
+        changedAttributeIds.stream().sorted().collect(Collectors.toUnmodifiableList());
+    Map<AttributeMetadataFilter, List<AttributeMetadata>> upsertedAttributesByFilter =
+        new HashMap<>();
+    if (!attributeIds.isEmpty()) {
+      filters.forEach(
+          filter ->
+              upsertedAttributesByFilter.put(
+                  filter, search(queryBuilder.buildIdQuery(tenantId, filter, attributeIds))));
     }
 
-    if (attributeMetadataFilter.hasCustom()) {
-      andFilters.add(
-          attributeMetadataFilter.getCustom()
-              ? getTenantIdEqFilter(tenantId)
-              : getTenantIdEqFilter(ROOT_TENANT_ID));
+    // Deletions are resolved without the filter, as changed attributes may not match it
+    List<AttributeMetadata> existingAttributes =
+        upsertedAttributesByFilter.get(AttributeMetadataFilter.getDefaultInstance());
+    if (existingAttributes == null) {
+      existingAttributes =
+          attributeIds.isEmpty()
+              ? List.of()
+              : search(
+                  queryBuilder.buildIdQuery(
+                      tenantId, AttributeMetadataFilter.getDefaultInstance(), attributeIds));
     }
+    Set<String> existingAttributeIds =
+        existingAttributes.stream()
+            .map(AttributeMetadata::getId)
+            .collect(Collectors.toUnmodifiableSet());
+    List<String> deletedAttributeIds =
+        attributeIds.stream()
+            .filter(attributeId -> !existingAttributeIds.contains(attributeId))
+            .collect(Collectors.toUnmodifiableList());
 
-    Filter queryFilter = new Filter();
-    if (!andFilters.isEmpty()) {
-      queryFilter = andFilters.remove(0);
-      // and add the remaining ones
-      for (Filter filter : andFilters) {
-        queryFilter = queryFilter.and(filter);
-      }
-    }
+    Map<AttributeMetadataFilter, GetAttributeChangesResponse> changesByFilter = new HashMap<>();
+    filters.forEach(
+        filter ->
+            changesByFilter.put(
+                filter,
+                GetAttributeChangesResponse.newBuilder()
+                    .setCatalogVersion(catalogVersion)
+                    .addAllUpsertedAttributes(
+                        upsertedAttributesByFilter.getOrDefault(filter, List.of()))
+                    .addAllDeletedAttributeIds(deletedAttributeIds)
+                    .build()));
+    return changesByFilter;
+  }
 
+  private List<AttributeMetadata> loadAttributes(String tenantId) {
     Query query = new Query();
-    query.setFilter(queryFilter);
-    return query;
+    query.setFilter(getTenantIdEqFilter(tenantId));
+    return search(query);
   }
 
-  private Query getQueryByTenantIdAndFQN(String tenantId, String fqn) {
-    Filter queryFilter = new Filter();
-    queryFilter.setOp(Filter.Op.AND);
-    queryFilter.setChildFilters(
-        new Filter[] {getTenantIdEqFilter(tenantId), new Filter(Filter.Op.EQ, FQN_PATH, fqn)});
-    Query query = new Query();
-    query.setFilter(queryFilter);
-    return query;
+  private List<AttributeMetadata> search(Query query) {
+    try (final CloseableIterator<Document> iterator = collection.search(query)) {
+      return Streams.stream(iterator)
+          .map(converter::convert)
+          .flatMap(Optional::stream)
+          .collect(Collectors.toUnmodifiableList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void invalidateCache(String tenantId) {
+    cache.ifPresent(attributeMetadataCache -> attributeMetadataCache.invalidate(tenantId));
+  }
+
+  /**
+   * Invalidates the in-memory catalog before recording the change, so that anyone observing the
+   * new catalog version also observes the written attributes, then pushes it to the watchers
+   */
+  private void onCatalogChanged(String tenantId, List<String> attributeIds) throws IOException {
+    invalidateCache(tenantId);
+    changeLog.recordChanges(tenantId, attributeIds);
+    broadcaster.onCatalogChanged(tenantId);
   }
 
   /**
@@ -6,4 +6,6 @@ public interface AttributeFilterBuilder {
   FilterTypeExpression buildIdFilter(final String attributeId);
 
   FilterTypeExpression buildTenantIdFilter(final String tenantId);
+
+  FilterTypeExpression buildFqnFilter(final String fqn);
 }
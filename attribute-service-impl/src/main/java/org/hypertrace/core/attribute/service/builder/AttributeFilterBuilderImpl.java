@@ -1,5 +1,6 @@
 package org.hypertrace.core.attribute.service.builder;
 
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.FQN_PATH;
 import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.ID_PATH;
 import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
 import static org.hypertrace.core.documentstore.expression.operators.RelationalOperator.EQ;
@@ -21,4 +22,10 @@ public class AttributeFilterBuilderImpl implements AttributeFilterBuilder {
     return RelationalExpression.of(
         IdentifierExpression.of(TENANT_ID_PATH), EQ, ConstantExpression.of(tenantId));
   }
+
+  @Override
+  public FilterTypeExpression buildFqnFilter(final String fqn) {
+    return RelationalExpression.of(
+        IdentifierExpression.of(FQN_PATH), EQ, ConstantExpression.of(fqn));
+  }
 }
@@ -0,0 +1,20 @@
+package org.hypertrace.core.attribute.service.builder;
+
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.documentstore.Query;
+
+public interface AttributeQueryBuilder {
+  Query buildFilterQuery(final String tenantId, final AttributeMetadataFilter filter);
+
+  /**
+   * Builds a query for the attributes matching the filter in ascending attribute id order, starting
+   * after the provided attribute id unless it is empty
+   */
+  Query buildPageQuery(
+      final String tenantId, final AttributeMetadataFilter filter, final String afterAttributeId);
+
+  /** Builds a query for the attributes matching the filter with any of the provided ids */
+  Query buildIdQuery(
+      final String tenantId, final AttributeMetadataFilter filter, final List<String> attributeIds);
+}
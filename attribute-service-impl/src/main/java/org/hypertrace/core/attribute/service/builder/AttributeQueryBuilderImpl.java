@@ -0,0 +1,101 @@
+package org.hypertrace.core.attribute.service.builder;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.FQN_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.ID_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.INTERNAL_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.KEY_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_STRING_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.hypertrace.core.attribute.service.utils.tenant.TenantUtils;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.Filter.Op;
+import org.hypertrace.core.documentstore.OrderBy;
+import org.hypertrace.core.documentstore.Query;
+
+public class AttributeQueryBuilderImpl implements AttributeQueryBuilder {
+  @Override
+  public Query buildFilterQuery(
+      final String tenantId, final AttributeMetadataFilter attributeMetadataFilter) {
+    List<String> scopeFilterList =
+        Stream.concat(
+                attributeMetadataFilter.getScopeStringList().stream(),
+                attributeMetadataFilter.getScopeList().stream().map(AttributeScope::name))
+            .collect(Collectors.toUnmodifiableList());
+    List<String> keyFilterRequest = attributeMetadataFilter.getKeyList();
+    List<String> fqnFilterRequest = attributeMetadataFilter.getFqnList();
+    List<Filter> andFilters = new ArrayList<>();
+
+    andFilters.add(new Filter(Op.IN, TENANT_ID_PATH, TenantUtils.getTenantHierarchy(tenantId)));
+
+    if (fqnFilterRequest != null && !fqnFilterRequest.isEmpty()) {
+      andFilters.add(new Filter(Filter.Op.IN, FQN_PATH, fqnFilterRequest));
+    }
+
+    if (!scopeFilterList.isEmpty()) {
+      andFilters.add(
+          new Filter(Filter.Op.IN, SCOPE_STRING_PATH, scopeFilterList)
+              .or(new Filter(Filter.Op.IN, SCOPE_PATH, scopeFilterList)));
+    }
+
+    if (!keyFilterRequest.isEmpty()) {
+      andFilters.add(new Filter(Filter.Op.IN, KEY_PATH, keyFilterRequest));
+    }
+
+    if (attributeMetadataFilter.hasInternal()) {
+      Filter internalFilter =
+          new Filter(Op.EQ, INTERNAL_PATH, attributeMetadataFilter.getInternal());
+      if (!attributeMetadataFilter.getInternal()) {
+        // For backwards compatibility, treat an attribute missing internal attribute as external
+        internalFilter = internalFilter.or(new Filter(Op.NOT_EXISTS, INTERNAL_PATH, null));
+      }
+      andFilters.add(internalFilter);
+    }
+
+    if (attributeMetadataFilter.hasCustom()) {
+      final String ownerTenantId = attributeMetadataFilter.getCustom() ? tenantId : ROOT_TENANT_ID;
+      andFilters.add(new Filter(Op.EQ, TENANT_ID_PATH, ownerTenantId));
+    }
+
+    Filter queryFilter = andFilters.remove(0);
+    // and add the remaining ones
+    for (Filter filter : andFilters) {
+      queryFilter = queryFilter.and(filter);
+    }
+
+    Query query = new Query();
+    query.setFilter(queryFilter);
+    return query;
+  }
+
+  @Override
+  public Query buildPageQuery(
+      final String tenantId,
+      final AttributeMetadataFilter attributeMetadataFilter,
+      final String afterAttributeId) {
+    final Query query = buildFilterQuery(tenantId, attributeMetadataFilter);
+    if (!afterAttributeId.isEmpty()) {
+      query.setFilter(query.getFilter().and(new Filter(Op.GT, ID_PATH, afterAttributeId)));
+    }
+    query.addOrderBy(new OrderBy(ID_PATH, true));
+    return query;
+  }
+
+  @Override
+  public Query buildIdQuery(
+      final String tenantId,
+      final AttributeMetadataFilter attributeMetadataFilter,
+      final List<String> attributeIds) {
+    final Query query = buildFilterQuery(tenantId, attributeMetadataFilter);
+    query.setFilter(query.getFilter().and(new Filter(Op.IN, ID_PATH, attributeIds)));
+    return query;
+  }
+}
@@ -5,4 +5,10 @@ import org.hypertrace.core.documentstore.model.subdoc.SubDocumentUpdate;
 
 public interface AttributeUpdateBuilder {
   SubDocumentUpdate buildUpdate(final Update update);
+
+  /**
+   * Builds the update to send along with any partial update of an attribute, so that creating the
+   * attribute again rewrites it regardless of its previous content hash
+   */
+  SubDocumentUpdate buildContentHashReset();
 }
@@ -1,6 +1,7 @@
 package org.hypertrace.core.attribute.service.builder;
 
 import static java.util.Map.entry;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.CONTENT_HASH_PATH;
 import static org.hypertrace.core.attribute.service.v1.Update.TypeCase.DISPLAY_NAME;
 
 import io.grpc.Status;
@@ -9,6 +10,7 @@ import java.util.function.Function;
 import org.hypertrace.core.attribute.service.v1.Update;
 import org.hypertrace.core.attribute.service.v1.Update.TypeCase;
 import org.hypertrace.core.documentstore.model.subdoc.SubDocumentUpdate;
+import org.hypertrace.core.documentstore.model.subdoc.UpdateOperator;
 
 public class AttributeUpdateBuilderImpl implements AttributeUpdateBuilder {
   private static final String DISPLAY_NAME_SUB_DOC_PATH = "display_name";
@@ -33,4 +35,12 @@ public class AttributeUpdateBuilderImpl implements AttributeUpdateBuilder {
 
     return updater.apply(update);
   }
+
+  @Override
+  public SubDocumentUpdate buildContentHashReset() {
+    return SubDocumentUpdate.builder()
+        .subDocument(CONTENT_HASH_PATH)
+        .operator(UpdateOperator.UNSET)
+        .build();
+  }
 }
@@ -0,0 +1,18 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+
+/**
+ * In-memory catalog of the decorated attributes visible to a tenant, i.e. the attributes of every
+ * tenant in its hierarchy
+ */
+public interface AttributeMetadataCache {
+  List<AttributeMetadata> getAll(final String tenantId);
+
+  List<AttributeMetadata> get(final String tenantId, final AttributeMetadataFilter filter);
+
+  /** Drops the cached attributes owned by the provided tenant */
+  void invalidate(final String tenantId);
+}
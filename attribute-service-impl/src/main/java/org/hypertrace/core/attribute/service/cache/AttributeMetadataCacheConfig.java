@@ -0,0 +1,63 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import java.time.Duration;
+
+public class AttributeMetadataCacheConfig {
+  private static final String ATTRIBUTE_METADATA_CACHE_CONFIG_KEY = "attribute.metadata.cache";
+  private static final String ENABLED_CONFIG_KEY = "enabled";
+  private static final String MAX_SIZE_CONFIG_KEY = "maxSize";
+  private static final String EXPIRE_AFTER_WRITE_CONFIG_KEY = "expireAfterWriteDuration";
+
+  private final boolean enabled;
+  private final long maxSize;
+  private final Duration expireAfterWrite;
+
+  public AttributeMetadataCacheConfig(
+      final boolean enabled, final long maxSize, final Duration expireAfterWrite) {
+    this.enabled = enabled;
+    this.maxSize = maxSize;
+    this.expireAfterWrite = expireAfterWrite;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  public Duration getExpireAfterWrite() {
+    return expireAfterWrite;
+  }
+
+  public static AttributeMetadataCacheConfig from(final Config config) {
+    final Config cacheConfig =
+        config.hasPath(ATTRIBUTE_METADATA_CACHE_CONFIG_KEY)
+            ? config.getConfig(ATTRIBUTE_METADATA_CACHE_CONFIG_KEY)
+            : ConfigFactory.empty();
+    final boolean enabled =
+        cacheConfig.hasPath(ENABLED_CONFIG_KEY) && cacheConfig.getBoolean(ENABLED_CONFIG_KEY);
+    final long maxSize =
+        cacheConfig.hasPath(MAX_SIZE_CONFIG_KEY) ? cacheConfig.getLong(MAX_SIZE_CONFIG_KEY) : 1000;
+    final Duration expireAfterWrite =
+        cacheConfig.hasPath(EXPIRE_AFTER_WRITE_CONFIG_KEY)
+            ? cacheConfig.getDuration(EXPIRE_AFTER_WRITE_CONFIG_KEY)
+            : Duration.ofMinutes(1);
+    return new AttributeMetadataCacheConfig(enabled, maxSize, expireAfterWrite);
+  }
+
+  @Override
+  public String toString() {
+    return "AttributeMetadataCacheConfig{"
+        + "enabled="
+        + enabled
+        + ", maxSize="
+        + maxSize
+        + ", expireAfterWrite="
+        + expireAfterWrite
+        + '}';
+  }
+}
@@ -0,0 +1,118 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.hypertrace.core.attribute.service.utils.tenant.TenantUtils;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.serviceframework.metrics.PlatformMetricsRegistry;
+
+public class AttributeMetadataCacheImpl implements AttributeMetadataCache {
+  private static final String CACHE_METRICS_NAME = "attributeMetadataCache";
+
+  /**
+   * Immutable, indexed snapshots of the attributes owned by each tenant. The {@code __root}
+   * snapshot holds the system attributes and is shared by every tenant, which only adds its custom
+   * attributes on top at read time.
+   */
+  private final LoadingCache<String, LoadedIndex> cache;
+
+  /**
+   * Incremented by each invalidation of a tenant. Invalidating does not stop a load already
+   * running, whose snapshot may predate the write and is still cached once loaded, so snapshots
+   * are tagged with the generation they were loaded in, and those of an older one are reloaded.
+   */
+  private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  /**
+   * @param config the cache configuration
+   * @param loader loads every decorated attribute owned by exactly the provided tenant
+   */
+  public AttributeMetadataCacheImpl(
+      final AttributeMetadataCacheConfig config,
+      final Function<String, List<AttributeMetadata>> loader) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumSize(config.getMaxSize())
+            .expireAfterWrite(config.getExpireAfterWrite())
+            .recordStats()
+            .build(
+                CacheLoader.from(
+                    tenantId -> {
+                      final long generation = getGeneration(tenantId).get();
+                      return new LoadedIndex(
+                          AttributeMetadataIndex.of(loader.apply(tenantId)), generation);
+                    }));
+    PlatformMetricsRegistry.registerCache(CACHE_METRICS_NAME, cache, Collections.emptyMap());
+  }
+
+  @Override
+  public List<AttributeMetadata> getAll(final String tenantId) {
+    return getOwners(tenantId)
+        .map(this::getIndex)
+        .map(AttributeMetadataIndex::getAll)
+        .flatMap(List::stream)
+        .collect(toUnmodifiableList());
+  }
+
+  @Override
+  public List<AttributeMetadata> get(final String tenantId, final AttributeMetadataFilter filter) {
+    Stream<String> owners = getOwners(tenantId);
+    if (filter.hasCustom()) {
+      // Every attribute in a snapshot shares its owner, so custom selects whole snapshots
+      final String expectedOwner = filter.getCustom() ? tenantId : ROOT_TENANT_ID;
+      owners = owners.filter(expectedOwner::equals);
+    }
+
+    return owners
+        .map(this::getIndex)
+        .map(index -> index.find(filter))
+        .flatMap(List::stream)
+        .collect(toUnmodifiableList());
+  }
+
+  @Override
+  public void invalidate(final String tenantId) {
+    getGeneration(tenantId).incrementAndGet();
+    cache.invalidate(tenantId);
+  }
+
+  private AttributeMetadataIndex getIndex(final String tenantId) {
+    final LoadedIndex loadedIndex = cache.getUnchecked(tenantId);
+    if (loadedIndex.generation == getGeneration(tenantId).get()) {
+      return loadedIndex.index;
+    }
+    // Loaded while invalidated, so reloaded once, which is started after every write invalidated
+    cache.asMap().remove(tenantId, loadedIndex);
+    return cache.getUnchecked(tenantId).index;
+  }
+
+  private AtomicLong getGeneration(final String tenantId) {
+    return generations.computeIfAbsent(tenantId, unused -> new AtomicLong());
+  }
+
+  private static Stream<String> getOwners(final String tenantId) {
+    return TenantUtils.getTenantHierarchy(tenantId).stream().distinct();
+  }
+
+  private static final class LoadedIndex {
+    private final AttributeMetadataIndex index;
+    private final long generation;
+
+    private LoadedIndex(final AttributeMetadataIndex index, final long generation) {
+      this.index = index;
+      this.generation = generation;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+
+/**
+ * Immutable snapshot of the attributes owned by a single tenant, indexed by every field supported
+ * by {@link AttributeMetadataFilter} except {@code custom}, which is constant within a snapshot.
+ * Each index maps a value to the ascending positions of the attributes holding it, so filters are
+ * answered by intersecting posting lists, starting from the shortest, rather than scanning the
+ * snapshot.
+ */
+final class AttributeMetadataIndex {
+  private static final int[] NO_POSITIONS = new int[0];
+
+  private final List<AttributeMetadata> attributes;
+  private final Map<String, int[]> positionsByFqn;
+  private final Map<String, int[]> positionsByKey;
+  private final Map<String, int[]> positionsByScopeString;
+  private final BitSet internalPositions;
+
+  private AttributeMetadataIndex(final List<AttributeMetadata> attributes) {
+    this.attributes = List.copyOf(attributes);
+    this.positionsByFqn = buildIndex(this.attributes, AttributeMetadata::getFqn);
+    this.positionsByKey = buildIndex(this.attributes, AttributeMetadata::getKey);
+    this.positionsByScopeString = buildIndex(this.attributes, AttributeMetadata::getScopeString);
+    this.internalPositions = new BitSet(this.attributes.size());
+    for (int position = 0; position < this.attributes.size(); position++) {
+      if (this.attributes.get(position).getInternal()) {
+        this.internalPositions.set(position);
+      }
+    }
+  }
+
+  static AttributeMetadataIndex of(final List<AttributeMetadata> attributes) {
+    return new AttributeMetadataIndex(attributes);
+  }
+
+  List<AttributeMetadata> getAll() {
+    return attributes;
+  }
+
+  /** Returns the attributes matching the filter, ignoring {@code custom}, in snapshot order */
+  List<AttributeMetadata> find(final AttributeMetadataFilter filter) {
+    final List<int[]> postingLists = new ArrayList<>(3);
+    if (filter.getFqnCount() > 0) {
+      postingLists.add(lookup(positionsByFqn, filter.getFqnList()));
+    }
+
+    if (filter.getScopeStringCount() > 0 || filter.getScopeCount() > 0) {
+      final List<String> scopeStrings = new ArrayList<>(filter.getScopeStringList());
+      for (final AttributeScope scope : filter.getScopeList()) {
+        scopeStrings.add(scope.name());
+      }
+      postingLists.add(lookup(positionsByScopeString, scopeStrings));
+    }
+
+    if (filter.getKeyCount() > 0) {
+      postingLists.add(lookup(positionsByKey, filter.getKeyList()));
+    }
+
+    if (postingLists.isEmpty()) {
+      return findByInternal(filter);
+    }
+
+    // Only the positions of the shortest list can match, each looked up in the longer lists
+    postingLists.sort(Comparator.comparingInt(positions -> positions.length));
+    final int[] candidates = postingLists.get(0);
+    final List<AttributeMetadata> matches = new ArrayList<>(candidates.length);
+    for (final int position : candidates) {
+      if (containedInAll(postingLists, position) && matchesInternal(filter, position)) {
+        matches.add(attributes.get(position));
+      }
+    }
+    return Collections.unmodifiableList(matches);
+  }
+
+  private List<AttributeMetadata> findByInternal(final AttributeMetadataFilter filter) {
+    if (!filter.hasInternal()) {
+      return attributes;
+    }
+    final IntStream positions =
+        filter.getInternal()
+            ? internalPositions.stream()
+            : IntStream.range(0, attributes.size())
+                .filter(position -> !internalPositions.get(position));
+    return positions.mapToObj(attributes::get).collect(toUnmodifiableList());
+  }
+
+  private boolean matchesInternal(final AttributeMetadataFilter filter, final int position) {
+    return !filter.hasInternal() || internalPositions.get(position) == filter.getInternal();
+  }
+
+  private static boolean containedInAll(final List<int[]> postingLists, final int position) {
+    for (int list = 1; list < postingLists.size(); list++) {
+      if (Arrays.binarySearch(postingLists.get(list), position) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the ascending positions holding any of the values */
+  private static int[] lookup(final Map<String, int[]> index, final Collection<String> values) {
+    if (values.size() == 1) {
+      return index.getOrDefault(values.iterator().next(), NO_POSITIONS);
+    }
+    // Each attribute holds a single value, so the lists of distinct values never overlap
+    return values.stream()
+        .distinct()
+        .map(value -> index.getOrDefault(value, NO_POSITIONS))
+        .flatMapToInt(Arrays::stream)
+        .sorted()
+        .toArray();
+  }
+
+  private static Map<String, int[]> buildIndex(
+      final List<AttributeMetadata> attributes,
+      final Function<AttributeMetadata, String> valueExtractor) {
+    final Map<String, List<Integer>> positionLists = new HashMap<>();
+    for (int position = 0; position < attributes.size(); position++) {
+      positionLists
+          .computeIfAbsent(
+              valueExtractor.apply(attributes.get(position)), unused -> new ArrayList<>())
+          .add(position);
+    }
+
+    final Map<String, int[]> index = new HashMap<>(positionLists.size());
+    positionLists.forEach((value, positions) -> index.put(value, Ints.toArray(positions)));
+    return Map.copyOf(index);
+  }
+}
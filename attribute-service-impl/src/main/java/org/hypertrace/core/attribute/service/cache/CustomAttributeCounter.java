@@ -0,0 +1,12 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import java.util.List;
+
+/** Counts the custom attributes owned by each tenant, to enforce the custom attribute limit */
+public interface CustomAttributeCounter {
+  long count(final String tenantId);
+
+  void onCreated(final String tenantId, final List<String> attributeIds);
+
+  void onDeleted(final String tenantId, final List<String> attributeIds);
+}
@@ -0,0 +1,91 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.ID_PATH;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilderImpl;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Query;
+
+/**
+ * Counts the custom attributes of each tenant from the set of their ids, read once from the store
+ * then kept up to date by the writes served by this instance. Tracking ids rather than a number
+ * keeps re-creating an existing attribute from being counted twice.
+ *
+ * <p>Writes served by other instances are only picked up once the tenant's ids are read again from
+ * the store, after the reconcile interval, so the limit may be briefly exceeded across instances.
+ */
+public class CustomAttributeCounterImpl implements CustomAttributeCounter {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final long MAX_TENANTS = 10_000;
+  private static final Duration DEFAULT_RECONCILE_INTERVAL = Duration.ofMinutes(10);
+  private static final AttributeMetadataFilter CUSTOM_ATTRIBUTE_FILTER =
+      AttributeMetadataFilter.newBuilder().setCustom(true).build();
+
+  private final Collection collection;
+  private final AttributeQueryBuilder queryBuilder;
+  private final LoadingCache<String, Set<String>> customAttributeIds;
+
+  public CustomAttributeCounterImpl(final Collection collection) {
+    this(collection, DEFAULT_RECONCILE_INTERVAL);
+  }
+
+  CustomAttributeCounterImpl(final Collection collection, final Duration reconcileInterval) {
+    this.collection = collection;
+    this.queryBuilder = new AttributeQueryBuilderImpl();
+    this.customAttributeIds =
+        CacheBuilder.newBuilder()
+            .maximumSize(MAX_TENANTS)
+            .expireAfterWrite(reconcileInterval)
+            .build(CacheLoader.from(this::loadCustomAttributeIds));
+  }
+
+  @Override
+  public long count(final String tenantId) {
+    return customAttributeIds.getUnchecked(tenantId).size();
+  }
+
+  @Override
+  public void onCreated(final String tenantId, final List<String> attributeIds) {
+    // Tenants not loaded yet read the created attributes from the store when they are
+    getIfPresent(tenantId).ifPresent(ids -> ids.addAll(attributeIds));
+  }
+
+  @Override
+  public void onDeleted(final String tenantId, final List<String> attributeIds) {
+    getIfPresent(tenantId).ifPresent(ids -> ids.removeAll(attributeIds));
+  }
+
+  private Optional<Set<String>> getIfPresent(final String tenantId) {
+    return Optional.ofNullable(customAttributeIds.getIfPresent(tenantId));
+  }
+
+  private Set<String> loadCustomAttributeIds(final String tenantId) {
+    final Query query = queryBuilder.buildFilterQuery(tenantId, CUSTOM_ATTRIBUTE_FILTER);
+    query.addSelection(ID_PATH);
+
+    final Set<String> ids = ConcurrentHashMap.newKeySet();
+    try (final CloseableIterator<Document> documents = collection.search(query)) {
+      while (documents.hasNext()) {
+        ids.add(OBJECT_MAPPER.readTree(documents.next().toJson()).path(ID_PATH).asText());
+      }
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return ids;
+  }
+}
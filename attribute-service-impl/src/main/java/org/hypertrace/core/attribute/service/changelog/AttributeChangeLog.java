@@ -0,0 +1,41 @@
+package org.hypertrace.core.attribute.service.changelog;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the catalog version of each tenant along with the version at which each of its attributes
+ * was last written, so readers can fetch only what changed since a version they already hold.
+ */
+public interface AttributeChangeLog {
+  /**
+   * Records that the provided attributes owned by the tenant were created, updated or deleted.
+   * Must be called after the write is applied.
+   *
+   * @return the catalog version assigned to the change
+   */
+  long recordChanges(final String tenantId, final List<String> attributeIds) throws IOException;
+
+  /**
+   * Returns the current catalog version of the tenant, which never decreases as long as the wall
+   * clock does not go back. Reading it does not affect the versions issued to writes.
+   */
+  long getCatalogVersion(final String tenantId);
+
+  /**
+   * Returns the ids of the attributes visible to the tenant that were written after the provided
+   * version. The result may include attributes written shortly before it, so applying it must be
+   * idempotent.
+   */
+  Set<String> getChangedAttributeIds(final String tenantId, final long sinceVersion)
+      throws IOException;
+
+  /**
+   * Returns the changed attribute ids of several tenants with a single read, as {@link
+   * #getChangedAttributeIds(String, long)} would for each tenant and its version.
+   */
+  Map<String, Set<String>> getChangedAttributeIds(final Map<String, Long> sinceVersions)
+      throws IOException;
+}
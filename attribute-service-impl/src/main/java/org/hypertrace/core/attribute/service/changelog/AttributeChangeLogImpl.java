@@ -0,0 +1,149 @@
+package org.hypertrace.core.attribute.service.changelog;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import org.hypertrace.core.attribute.service.utils.tenant.TenantUtils;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.hypertrace.core.documentstore.SingleValueKey;
+
+/**
+ * Change log keeping a single entry per written attribute, holding the catalog version of its last
+ * write. Deleted attributes keep their entry, which is how readers learn about deletions.
+ *
+ * <p>Entries are never pruned, as a reader may hold any earlier version, so the log holds one
+ * entry per attribute id ever written by each tenant. Ids are derived from scope and key, so
+ * re-creating an attribute reuses its entry, and the log only outgrows the catalog by the
+ * attributes deleted for good, which are few for catalogs mostly created by bootstraps.
+ *
+ * <p>Catalog versions are hybrid logical clocks: the epoch millis of the write, bumped past the
+ * last version issued for the tenant by this instance. Instances sharing the store are only
+ * ordered by their wall clocks, so reads go back by a clock skew allowance and may return entries
+ * the reader has already seen.
+ */
+public class AttributeChangeLogImpl implements AttributeChangeLog {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Duration DEFAULT_CLOCK_SKEW_ALLOWANCE = Duration.ofSeconds(30);
+
+  private static final String ATTRIBUTE_ID_PATH = "attribute_id";
+  private static final String CATALOG_VERSION_PATH = "catalog_version";
+
+  private final Collection collection;
+  private final long clockSkewAllowanceMillis;
+  private final LongSupplier clock;
+  private final ConcurrentMap<String, Long> catalogVersions = new ConcurrentHashMap<>();
+
+  public AttributeChangeLogImpl(final Collection collection) {
+    this(collection, DEFAULT_CLOCK_SKEW_ALLOWANCE, System::currentTimeMillis);
+  }
+
+  AttributeChangeLogImpl(
+      final Collection collection, final Duration clockSkewAllowance, final LongSupplier clock) {
+    this.collection = collection;
+    this.clockSkewAllowanceMillis = clockSkewAllowance.toMillis();
+    this.clock = clock;
+  }
+
+  @Override
+  public long recordChanges(final String tenantId, final List<String> attributeIds)
+      throws IOException {
+    final long version =
+        catalogVersions.merge(
+            tenantId, clock.getAsLong(), (lastVersion, now) -> Math.max(lastVersion + 1, now));
+    if (attributeIds.isEmpty()) {
+      return version;
+    }
+
+    final Map<Key, Document> entries = new HashMap<>();
+    for (final String attributeId : attributeIds) {
+      entries.put(
+          new SingleValueKey(tenantId, attributeId),
+          new JSONDocument(
+              Map.of(
+                  TENANT_ID_PATH, tenantId,
+                  ATTRIBUTE_ID_PATH, attributeId,
+                  CATALOG_VERSION_PATH, version)));
+    }
+    if (!collection.bulkUpsert(entries)) {
+      throw new IOException(
+          String.format("Could not record changes to %s for tenant %s", attributeIds, tenantId));
+    }
+    return version;
+  }
+
+  /**
+   * One below the clock at most, without advancing it, so that a write made later in the same
+   * millisecond is still issued a greater version than the one read
+   */
+  @Override
+  public long getCatalogVersion(final String tenantId) {
+    return Math.max(catalogVersions.getOrDefault(tenantId, 0L), clock.getAsLong() - 1);
+  }
+
+  @Override
+  public Set<String> getChangedAttributeIds(final String tenantId, final long sinceVersion)
+      throws IOException {
+    return getChangedAttributeIds(Map.of(tenantId, sinceVersion)).get(tenantId);
+  }
+
+  @Override
+  public Map<String, Set<String>> getChangedAttributeIds(final Map<String, Long> sinceVersions)
+      throws IOException {
+    if (sinceVersions.isEmpty()) {
+      return Map.of();
+    }
+    final Map<String, List<String>> tenantHierarchies = new HashMap<>();
+    final Set<String> hierarchyTenantIds = new LinkedHashSet<>();
+    for (final String tenantId : sinceVersions.keySet()) {
+      final List<String> tenantHierarchy = TenantUtils.getTenantHierarchy(tenantId);
+      tenantHierarchies.put(tenantId, tenantHierarchy);
+      hierarchyTenantIds.addAll(tenantHierarchy);
+    }
+    final Query query = new Query();
+    query.setFilter(
+        new Filter(Filter.Op.IN, TENANT_ID_PATH, List.copyOf(hierarchyTenantIds))
+            .and(
+                new Filter(
+                    Filter.Op.GT,
+                    CATALOG_VERSION_PATH,
+                    Collections.min(sinceVersions.values()) - clockSkewAllowanceMillis)));
+
+    final Map<String, Set<String>> attributeIds = new HashMap<>();
+    sinceVersions.keySet().forEach(tenantId -> attributeIds.put(tenantId, new HashSet<>()));
+    try (final CloseableIterator<Document> entries = collection.search(query)) {
+      while (entries.hasNext()) {
+        final JsonNode entry = OBJECT_MAPPER.readTree(entries.next().toJson());
+        final String entryTenantId = entry.path(TENANT_ID_PATH).asText();
+        final long entryVersion = entry.path(CATALOG_VERSION_PATH).asLong();
+        // Root entries are visible to every tenant, so each is matched against every version
+        sinceVersions.forEach(
+            (tenantId, sinceVersion) -> {
+              if (entryVersion > sinceVersion - clockSkewAllowanceMillis
+                  && tenantHierarchies.get(tenantId).contains(entryTenantId)) {
+                attributeIds.get(tenantId).add(entry.path(ATTRIBUTE_ID_PATH).asText());
+              }
+            });
+      }
+    }
+    return attributeIds;
+  }
+}
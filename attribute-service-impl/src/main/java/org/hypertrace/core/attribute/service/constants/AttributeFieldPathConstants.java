@@ -7,6 +7,7 @@ public interface AttributeFieldPathConstants {
   String SCOPE_STRING_PATH = "scope_string";
   String KEY_PATH = "key";
   String INTERNAL_PATH = "internal";
+  String CONTENT_HASH_PATH = "content_hash";
 
   String TENANT_ID_PATH = "tenant_id";
   String SOURCE_METADATA_PATH = "metadata";
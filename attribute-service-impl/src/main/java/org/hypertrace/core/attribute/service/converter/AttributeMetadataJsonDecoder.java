@@ -0,0 +1,292 @@
+package org.hypertrace.core.attribute.service.converter;
+
+import static org.hypertrace.core.attribute.service.util.AttributeScopeUtil.resolveScope;
+import static org.hypertrace.core.attribute.service.util.AttributeScopeUtil.resolveScopeString;
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.util.Base64;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AggregateFunction;
+import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.attribute.service.v1.AttributeSource;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeType;
+
+/**
+ * Decodes the JSON representation of an {@link AttributeMetadataModel} document straight into an
+ * {@link AttributeMetadata.Builder} in a single streaming pass, producing the same result as
+ * {@code AttributeMetadataModel.fromJson(json).toDTOBuilder()} without materializing the model or
+ * re-serializing the embedded {@link AttributeDefinition}.
+ */
+public class AttributeMetadataJsonDecoder {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  public AttributeMetadata.Builder decode(final String json) throws IOException {
+    try (final JsonParser parser = JSON_FACTORY.createParser(json)) {
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      return decodeAttributeMetadata(parser);
+    }
+  }
+
+  private AttributeMetadata.Builder decodeAttributeMetadata(final JsonParser parser)
+      throws IOException {
+    final AttributeMetadata.Builder builder = AttributeMetadata.newBuilder();
+    String key = null;
+    String scopeString = null;
+    String tenantId = null;
+    AttributeKind valueKind = null;
+    Boolean groupable = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      if (parser.nextToken() == JsonToken.VALUE_NULL) {
+        continue;
+      }
+
+      switch (fieldName) {
+        case "fqn":
+          builder.setFqn(parser.getText());
+          break;
+        case "key":
+          key = parser.getText();
+          break;
+        case "display_name":
+          builder.setDisplayName(parser.getText());
+          break;
+        case "scope_string":
+          scopeString = parser.getText();
+          break;
+        case "scope":
+          // Retain for backwards compat with existing JSON docs
+          scopeString = resolveScopeString(decodeEnum(parser, AttributeScope.class));
+          break;
+        case "value_kind":
+          valueKind = decodeEnum(parser, AttributeKind.class);
+          break;
+        case "type":
+          builder.setType(decodeEnum(parser, AttributeType.class));
+          break;
+        case "materialized":
+          builder.setMaterialized(parser.getValueAsBoolean());
+          break;
+        case "unit":
+          builder.setUnit(parser.getText());
+          break;
+        case "labels":
+          expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.addLabels(parser.getText());
+          }
+          break;
+        case "tenant_id":
+          tenantId = parser.getText();
+          break;
+        case "groupable":
+          groupable = parser.getValueAsBoolean();
+          break;
+        case "supportedAggregations":
+          expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.addSupportedAggregations(decodeEnum(parser, AggregateFunction.class));
+          }
+          break;
+        case "onlyAggregationsAllowed":
+          builder.setOnlyAggregationsAllowed(parser.getValueAsBoolean());
+          break;
+        case "sources":
+          expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.addSources(decodeEnum(parser, AttributeSource.class));
+          }
+          break;
+        case "metadata":
+          decodeSourceMetadata(parser, builder);
+          break;
+        case "definition":
+          final AttributeDefinition.Builder definitionBuilder = AttributeDefinition.newBuilder();
+          mergeMessage(parser, definitionBuilder);
+          if (!definitionBuilder.build().equals(AttributeDefinition.getDefaultInstance())) {
+            builder.setDefinition(definitionBuilder);
+          }
+          break;
+        case "internal":
+          builder.setInternal(parser.getValueAsBoolean());
+          break;
+        case "description":
+          builder.setDescription(parser.getText());
+          break;
+        default:
+          // Derived (e.g. id) or store managed (e.g. _id) fields
+          parser.skipChildren();
+      }
+    }
+
+    final String resolvedScopeString =
+        scopeString != null ? scopeString : AttributeScope.SCOPE_UNDEFINED.name();
+    if (key != null) {
+      builder.setKey(key);
+    }
+    if (valueKind != null) {
+      builder.setValueKind(valueKind);
+    }
+    return builder
+        .setId(resolvedScopeString + "." + key)
+        .setScope(resolveScope(scopeString))
+        .setScopeString(resolvedScopeString)
+        .setGroupable(groupable != null ? groupable : AttributeKind.TYPE_STRING.equals(valueKind))
+        .setCustom(!ROOT_TENANT_ID.equals(tenantId));
+  }
+
+  private void decodeSourceMetadata(
+      final JsonParser parser, final AttributeMetadata.Builder builder) throws IOException {
+    expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String source = parser.getCurrentName();
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      final AttributeSourceMetadata.Builder sourceMetadataBuilder =
+          AttributeSourceMetadata.newBuilder();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String sourceMetadataKey = parser.getCurrentName();
+        parser.nextToken();
+        sourceMetadataBuilder.putSourceMetadata(sourceMetadataKey, parser.getText());
+      }
+      builder.putMetadata(source, sourceMetadataBuilder.build());
+    }
+  }
+
+  /** Merges a message in the protobuf JSON format, as written by {@code JsonFormat.printer()} */
+  private void mergeMessage(final JsonParser parser, final Message.Builder builder)
+      throws IOException {
+    expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+    final Descriptor descriptor = builder.getDescriptorForType();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final FieldDescriptor field = findField(descriptor, parser.getCurrentName());
+      if (parser.nextToken() == JsonToken.VALUE_NULL || field == null) {
+        parser.skipChildren();
+        continue;
+      }
+
+      if (field.isMapField()) {
+        mergeMapField(parser, builder, field);
+      } else if (field.isRepeated()) {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          builder.addRepeatedField(field, decodeValue(parser, builder, field));
+        }
+      } else {
+        builder.setField(field, decodeValue(parser, builder, field));
+      }
+    }
+  }
+
+  private void mergeMapField(
+      final JsonParser parser, final Message.Builder builder, final FieldDescriptor field)
+      throws IOException {
+    expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+    final Descriptor entryDescriptor = field.getMessageType();
+    final FieldDescriptor keyField = entryDescriptor.findFieldByName("key");
+    final FieldDescriptor valueField = entryDescriptor.findFieldByName("value");
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final Message.Builder entryBuilder = builder.newBuilderForField(field);
+      entryBuilder.setField(keyField, decodeScalar(parser, keyField));
+      parser.nextToken();
+      entryBuilder.setField(valueField, decodeValue(parser, entryBuilder, valueField));
+      builder.addRepeatedField(field, entryBuilder.build());
+    }
+  }
+
+  private Object decodeValue(
+      final JsonParser parser, final Message.Builder parentBuilder, final FieldDescriptor field)
+      throws IOException {
+    if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+      final Message.Builder fieldBuilder = parentBuilder.newBuilderForField(field);
+      mergeMessage(parser, fieldBuilder);
+      return fieldBuilder.build();
+    }
+    return decodeScalar(parser, field);
+  }
+
+  private Object decodeScalar(final JsonParser parser, final FieldDescriptor field)
+      throws IOException {
+    final String text = parser.getText();
+    switch (field.getJavaType()) {
+      case STRING:
+        return text;
+      case BOOLEAN:
+        return Boolean.parseBoolean(text);
+      case INT:
+        return Integer.parseInt(text);
+      case LONG:
+        return Long.parseLong(text);
+      case FLOAT:
+        return Float.parseFloat(text);
+      case DOUBLE:
+        return Double.parseDouble(text);
+      case BYTE_STRING:
+        return ByteString.copyFrom(Base64.getDecoder().decode(text));
+      case ENUM:
+        return decodeEnumValue(parser, field.getEnumType());
+      default:
+        throw new JsonParseException(
+            parser, String.format("Unsupported value for field %s", field.getFullName()));
+    }
+  }
+
+  private <E extends Enum<E>> E decodeEnum(final JsonParser parser, final Class<E> enumClass)
+      throws IOException {
+    try {
+      return Enum.valueOf(enumClass, parser.getText());
+    } catch (final IllegalArgumentException exception) {
+      throw new JsonParseException(
+          parser,
+          String.format("Invalid %s value: %s", enumClass.getSimpleName(), parser.getText()),
+          exception);
+    }
+  }
+
+  private EnumValueDescriptor decodeEnumValue(
+      final JsonParser parser, final EnumDescriptor enumDescriptor) throws IOException {
+    final EnumValueDescriptor value =
+        parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+            ? enumDescriptor.findValueByNumber(parser.getIntValue())
+            : enumDescriptor.findValueByName(parser.getText());
+    if (value == null) {
+      throw new JsonParseException(
+          parser,
+          String.format("Invalid %s value: %s", enumDescriptor.getName(), parser.getText()));
+    }
+    return value;
+  }
+
+  private static FieldDescriptor findField(final Descriptor descriptor, final String name) {
+    for (final FieldDescriptor field : descriptor.getFields()) {
+      if (field.getJsonName().equals(name) || field.getName().equals(name)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  private static void expect(
+      final JsonParser parser, final JsonToken actual, final JsonToken expected)
+      throws JsonParseException {
+    if (actual != expected) {
+      throw new JsonParseException(
+          parser, String.format("Expected %s but found %s", expected, actual));
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import java.io.IOException;
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesChunkResult;
+
+public interface AttributeCreator {
+  /** @return the result of each chunk the attributes were written in, in order */
+  List<CreateAttributesChunkResult> create(
+      final String tenantId, final List<AttributeMetadata> attributes);
+
+  interface WriteListener {
+    /** Called with the ids of each chunk of attributes once it has been written */
+    void onWritten(final String tenantId, final List<String> attributeIds) throws IOException;
+  }
+}
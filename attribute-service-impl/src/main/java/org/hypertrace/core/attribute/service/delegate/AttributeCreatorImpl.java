@@ -0,0 +1,168 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.CONTENT_HASH_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.ID_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.hypertrace.core.attribute.service.cache.CustomAttributeCounter;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataDocKey;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesChunkResult;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Upserts attributes in bounded chunks, written concurrently by an executor shared by every
+ * request. Each chunk is only converted to documents once a thread picks it up, so at most one
+ * chunk per thread is held as documents, however large the request.
+ *
+ * <p>Each attribute is stored with a hash of its content, and attributes whose content hash is
+ * unchanged are not written again. Re-creating an unchanged catalog, as every bootstrap does, then
+ * only reads the stored hashes.
+ */
+public class AttributeCreatorImpl implements AttributeCreator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttributeCreatorImpl.class);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private final Collection collection;
+  private final CustomAttributeCounter customAttributeCounter;
+  private final WriteListener writeListener;
+  private final int chunkSize;
+  private final Executor executor;
+
+  /** @param executor writes the chunks, and is owned by the caller, which shuts it down */
+  public AttributeCreatorImpl(
+      final Collection collection,
+      final CustomAttributeCounter customAttributeCounter,
+      final WriteListener writeListener,
+      final int chunkSize,
+      final Executor executor) {
+    this.collection = collection;
+    this.customAttributeCounter = customAttributeCounter;
+    this.writeListener = writeListener;
+    this.chunkSize = chunkSize;
+    this.executor = executor;
+  }
+
+  @Override
+  public List<CreateAttributesChunkResult> create(
+      final String tenantId, final List<AttributeMetadata> attributes) {
+    final List<CompletableFuture<CreateAttributesChunkResult>> chunkResults =
+        Lists.partition(attributes, chunkSize).stream()
+            .map(chunk -> CompletableFuture.supplyAsync(() -> write(tenantId, chunk), executor))
+            .collect(Collectors.toUnmodifiableList());
+    return chunkResults.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private CreateAttributesChunkResult write(
+      final String tenantId, final List<AttributeMetadata> chunk) {
+    final CreateAttributesChunkResult.Builder result =
+        CreateAttributesChunkResult.newBuilder().setAttributeCount(chunk.size());
+    final Map<String, AttributeMetadataModel> attributesById =
+        Maps.newLinkedHashMapWithExpectedSize(chunk.size());
+    for (final AttributeMetadata attributeMetadata : chunk) {
+      final AttributeMetadataModel attributeMetadataModel =
+          AttributeMetadataModel.fromDTO(attributeMetadata);
+      attributeMetadataModel.setTenantId(tenantId);
+      attributeMetadataModel.setContentHash(attributeMetadataModel.computeContentHash());
+      attributesById.put(attributeMetadataModel.getId(), attributeMetadataModel);
+    }
+
+    final List<String> attributeIds = new ArrayList<>();
+    try {
+      final Map<String, String> existingContentHashes =
+          findContentHashes(tenantId, attributesById.keySet());
+      final Map<Key, Document> attributeDocs = new HashMap<>();
+      for (final AttributeMetadataModel attributeMetadataModel : attributesById.values()) {
+        final String existingContentHash =
+            existingContentHashes.get(attributeMetadataModel.getId());
+        if (attributeMetadataModel.getContentHash().equals(existingContentHash)) {
+          result.setUnchangedCount(result.getUnchangedCount() + 1);
+          continue;
+        }
+        if (existingContentHash == null) {
+          result.setCreatedCount(result.getCreatedCount() + 1);
+        } else {
+          result.setUpdatedCount(result.getUpdatedCount() + 1);
+        }
+        attributeDocs.put(
+            new AttributeMetadataDocKey(
+                tenantId, attributeMetadataModel.getScopeString(), attributeMetadataModel.getKey()),
+            attributeMetadataModel);
+        attributeIds.add(attributeMetadataModel.getId());
+      }
+      if (attributeDocs.isEmpty()) {
+        // Nothing changed, so the catalog and the caches built from it are left untouched
+        return result.build();
+      }
+
+      if (!collection.bulkUpsert(attributeDocs)) {
+        result.setErrorMessage("Could not bulk upsert the attributes");
+        return result.build();
+      }
+    } catch (final Exception e) {
+      LOGGER.warn("Could not create {} attributes for tenant {}", chunk.size(), tenantId, e);
+      result.setErrorMessage("Could not create the attributes: " + e.getMessage());
+      return result.build();
+    }
+
+    // The chunk is persisted from here on, so it is reported as written whatever the listeners do
+    customAttributeCounter.onCreated(tenantId, attributeIds);
+    try {
+      writeListener.onWritten(tenantId, attributeIds);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          "Could not propagate the write of {} attributes for tenant {}",
+          attributeIds.size(),
+          tenantId,
+          e);
+    }
+    return result.build();
+  }
+
+  /**
+   * @return the content hash of each of the tenant's own attributes with one of the ids, empty for
+   *     those written before content hashes were stored
+   */
+  private Map<String, String> findContentHashes(
+      final String tenantId, final Set<String> attributeIds) throws IOException {
+    final Query query = new Query();
+    query.setFilter(
+        new Filter(Filter.Op.EQ, TENANT_ID_PATH, tenantId)
+            .and(new Filter(Filter.Op.IN, ID_PATH, List.copyOf(attributeIds))));
+    query.addSelection(ID_PATH);
+    query.addSelection(CONTENT_HASH_PATH);
+
+    final Map<String, String> contentHashes = Maps.newHashMapWithExpectedSize(attributeIds.size());
+    try (final CloseableIterator<Document> documents = collection.search(query)) {
+      while (documents.hasNext()) {
+        final JsonNode document = OBJECT_MAPPER.readTree(documents.next().toJson());
+        contentHashes.put(
+            document.path(ID_PATH).asText(), document.path(CONTENT_HASH_PATH).asText());
+      }
+    }
+    return contentHashes;
+  }
+}
@@ -0,0 +1,11 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import java.io.IOException;
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+
+public interface AttributeDeleter {
+  /** @return the ids of the attributes deleted */
+  List<String> delete(final String tenantId, final AttributeMetadataFilter filter)
+      throws IOException;
+}
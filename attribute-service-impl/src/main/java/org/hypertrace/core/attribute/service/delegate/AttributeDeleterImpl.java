@@ -0,0 +1,82 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.KEY_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SCOPE_STRING_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.TENANT_ID_PATH;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeQueryBuilderImpl;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataDocKey;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.documentstore.BulkDeleteResult;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deletes every attribute matching a filter in a single bulk delete by key. Only the fields making
+ * up the key of each matching attribute are read to build the keys.
+ */
+public class AttributeDeleterImpl implements AttributeDeleter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AttributeDeleterImpl.class);
+
+  private final Collection collection;
+  private final AttributeQueryBuilder queryBuilder;
+
+  public AttributeDeleterImpl(final Collection collection) {
+    this.collection = collection;
+    this.queryBuilder = new AttributeQueryBuilderImpl();
+  }
+
+  @Override
+  public List<String> delete(final String tenantId, final AttributeMetadataFilter filter)
+      throws IOException {
+    final Query query = queryBuilder.buildFilterQuery(tenantId, filter);
+    query.addSelection(TENANT_ID_PATH);
+    query.addSelection(SCOPE_STRING_PATH);
+    query.addSelection(SCOPE_PATH);
+    query.addSelection(KEY_PATH);
+
+    final Set<Key> keys = new HashSet<>();
+    final List<String> attributeIds = new ArrayList<>();
+    try (final CloseableIterator<Document> documents = collection.search(query)) {
+      while (documents.hasNext()) {
+        final AttributeMetadataModel attribute =
+            AttributeMetadataModel.fromJson(documents.next().toJson());
+        // Attributes inherited from the root tenant can only be deleted by the root tenant
+        if (tenantId.equals(attribute.getTenantId())) {
+          keys.add(
+              new AttributeMetadataDocKey(
+                  tenantId, attribute.getScopeString(), attribute.getKey()));
+          attributeIds.add(attribute.getId());
+        }
+      }
+    }
+    if (keys.isEmpty()) {
+      return attributeIds;
+    }
+
+    final BulkDeleteResult result = collection.delete(keys);
+    if (result.getDeletedCount() < keys.size()) {
+      // Attributes deleted concurrently, which are reported as deleted all the same
+      LOGGER.debug(
+          "Deleted {} of {} attributes matching {} for tenant {}",
+          result.getDeletedCount(),
+          keys.size(),
+          filter,
+          tenantId);
+    }
+    return attributeIds;
+  }
+}
@@ -0,0 +1,16 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import java.io.IOException;
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataDeleteRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataUpdateRequest;
+
+public interface AttributeSourceMetadataUpdater {
+  /** @return the ids of the attributes whose source metadata was updated */
+  List<String> update(final AttributeSourceMetadataUpdateRequest request, final String tenantId)
+      throws IOException;
+
+  /** @return the ids of the attributes whose source metadata was deleted */
+  List<String> delete(final AttributeSourceMetadataDeleteRequest request, final String tenantId)
+      throws IOException;
+}
@@ -0,0 +1,110 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.ID_PATH;
+import static org.hypertrace.core.attribute.service.constants.AttributeFieldPathConstants.SOURCE_METADATA_PATH;
+import static org.hypertrace.core.documentstore.expression.impl.LogicalExpression.and;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.hypertrace.core.attribute.service.builder.AttributeFilterBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeFilterBuilderImpl;
+import org.hypertrace.core.attribute.service.builder.AttributeUpdateBuilder;
+import org.hypertrace.core.attribute.service.builder.AttributeUpdateBuilderImpl;
+import org.hypertrace.core.attribute.service.v1.AttributeSource;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataDeleteRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataUpdateRequest;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.expression.impl.IdentifierExpression;
+import org.hypertrace.core.documentstore.expression.type.FilterTypeExpression;
+import org.hypertrace.core.documentstore.model.options.ReturnDocumentType;
+import org.hypertrace.core.documentstore.model.options.UpdateOptions;
+import org.hypertrace.core.documentstore.model.subdoc.SubDocumentUpdate;
+import org.hypertrace.core.documentstore.model.subdoc.UpdateOperator;
+import org.hypertrace.core.documentstore.query.Query;
+
+/**
+ * Updates the source metadata of every attribute with an FQN in a single filtered update, rather
+ * than reading and updating each attribute in turn. Only the ids of the matching attributes are
+ * read, to report them as changed.
+ */
+public class AttributeSourceMetadataUpdaterImpl implements AttributeSourceMetadataUpdater {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final UpdateOptions NO_DOCUMENTS_UPDATE_OPTIONS =
+      UpdateOptions.builder().returnDocumentType(ReturnDocumentType.NONE).build();
+
+  private final Collection collection;
+  private final AttributeFilterBuilder filterBuilder;
+  private final AttributeUpdateBuilder updateBuilder;
+
+  public AttributeSourceMetadataUpdaterImpl(final Collection collection) {
+    this.collection = collection;
+    this.filterBuilder = new AttributeFilterBuilderImpl();
+    this.updateBuilder = new AttributeUpdateBuilderImpl();
+  }
+
+  @Override
+  public List<String> update(
+      final AttributeSourceMetadataUpdateRequest request, final String tenantId)
+      throws IOException {
+    return updateAll(
+        buildFilter(request.getFqn(), tenantId),
+        SubDocumentUpdate.of(
+            sourceMetadataPathFor(request.getSource()),
+            new JSONDocument(request.getSourceMetadataMap())));
+  }
+
+  @Override
+  public List<String> delete(
+      final AttributeSourceMetadataDeleteRequest request, final String tenantId)
+      throws IOException {
+    return updateAll(
+        buildFilter(request.getFqn(), tenantId),
+        SubDocumentUpdate.builder()
+            .subDocument(sourceMetadataPathFor(request.getSource()))
+            .operator(UpdateOperator.UNSET)
+            .build());
+  }
+
+  private List<String> updateAll(
+      final FilterTypeExpression filter, final SubDocumentUpdate subDocumentUpdate)
+      throws IOException {
+    final List<String> attributeIds = findAttributeIds(filter);
+    if (attributeIds.isEmpty()) {
+      return attributeIds;
+    }
+
+    try (final CloseableIterator<Document> ignored =
+        collection.bulkUpdate(
+            Query.builder().setFilter(filter).build(),
+            List.of(subDocumentUpdate, updateBuilder.buildContentHashReset()),
+            NO_DOCUMENTS_UPDATE_OPTIONS)) {
+      return attributeIds;
+    }
+  }
+
+  private List<String> findAttributeIds(final FilterTypeExpression filter) throws IOException {
+    final Query query =
+        Query.builder().setFilter(filter).addSelection(IdentifierExpression.of(ID_PATH)).build();
+    final List<String> attributeIds = new ArrayList<>();
+    try (final CloseableIterator<Document> documents = collection.find(query)) {
+      while (documents.hasNext()) {
+        attributeIds.add(OBJECT_MAPPER.readTree(documents.next().toJson()).path(ID_PATH).asText());
+      }
+    }
+    return attributeIds;
+  }
+
+  private FilterTypeExpression buildFilter(final String fqn, final String tenantId) {
+    // Not filtering by the tenant hierarchy to update only the attributes of the tenant
+    return and(filterBuilder.buildTenantIdFilter(tenantId), filterBuilder.buildFqnFilter(fqn));
+  }
+
+  private static String sourceMetadataPathFor(final AttributeSource source) {
+    return String.join(".", SOURCE_METADATA_PATH, source.name());
+  }
+}
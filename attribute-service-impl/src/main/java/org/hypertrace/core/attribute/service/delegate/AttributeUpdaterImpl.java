@@ -8,10 +8,12 @@ import io.grpc.Status;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.hypertrace.core.attribute.service.builder.AttributeFilterBuilder;
 import org.hypertrace.core.attribute.service.builder.AttributeFilterBuilderImpl;
 import org.hypertrace.core.attribute.service.builder.AttributeUpdateBuilder;
 import org.hypertrace.core.attribute.service.builder.AttributeUpdateBuilderImpl;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
 import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverter;
 import org.hypertrace.core.attribute.service.converter.AttributeMetadataConverterImpl;
 import org.hypertrace.core.attribute.service.v1.UpdateMetadataRequest;
@@ -28,13 +30,15 @@ import org.hypertrace.core.grpcutils.context.RequestContext;
 
 public class AttributeUpdaterImpl implements AttributeUpdater {
   private final Collection collection;
+  private final AttributeChangeLog changeLog;
   private final AttributeMetadataConverter converter;
   private final AttributeFilterBuilder filterBuilder;
   private final AttributeUpdateBuilder updateBuilder;
   private final StringLengthValidator stringLengthValidator;
 
-  public AttributeUpdaterImpl(final Collection collection) {
+  public AttributeUpdaterImpl(final Collection collection, final AttributeChangeLog changeLog) {
     this.collection = collection;
+    this.changeLog = changeLog;
     this.converter = new AttributeMetadataConverterImpl();
     this.filterBuilder = new AttributeFilterBuilderImpl();
     this.updateBuilder = new AttributeUpdateBuilderImpl();
@@ -60,6 +64,7 @@ public class AttributeUpdaterImpl implements AttributeUpdater {
           .asRuntimeException();
     }
 
+    changeLog.recordChanges(tenantId, List.of(request.getAttributeId()));
     return docOptional
         .flatMap(converter::convert)
         .map(metadata -> UpdateMetadataResponse.newBuilder().setAttribute(metadata).build())
@@ -93,8 +98,9 @@ public class AttributeUpdaterImpl implements AttributeUpdater {
   }
 
   private List<SubDocumentUpdate> buildUpdates(final UpdateMetadataRequest request) {
-    return request.getUpdatesList().stream()
-        .map(updateBuilder::buildUpdate)
+    return Stream.concat(
+            request.getUpdatesList().stream().map(updateBuilder::buildUpdate),
+            Stream.of(updateBuilder.buildContentHashReset()))
         .collect(toUnmodifiableList());
   }
 }
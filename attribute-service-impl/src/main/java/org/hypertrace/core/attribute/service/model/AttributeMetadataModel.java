@@ -4,6 +4,8 @@ import static org.hypertrace.core.attribute.service.util.AttributeScopeUtil.reso
 import static org.hypertrace.core.attribute.service.util.AttributeScopeUtil.resolveScopeString;
 import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
@@ -13,12 +15,15 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.hash.Hashing;
 import com.google.protobuf.Message;
 import com.google.protobuf.util.JsonFormat;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +47,10 @@ public class AttributeMetadataModel implements Document {
   private static final Logger LOGGER = LoggerFactory.getLogger(AttributeMetadataModel.class);
   private static final ObjectMapper OBJECT_MAPPER =
       new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  private static final ObjectMapper CONTENT_HASH_OBJECT_MAPPER =
+      new ObjectMapper()
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .addMixIn(AttributeMetadataModel.class, ContentHashExclusion.class);
 
   private String fqn;
 
@@ -80,6 +89,10 @@ public class AttributeMetadataModel implements Document {
   @JsonProperty(value = "description")
   private String description;
 
+  @JsonProperty(value = "content_hash")
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String contentHash;
+
   protected AttributeMetadataModel() {}
 
   public static AttributeMetadataModel fromDTO(AttributeMetadata attributeMetadata) {
@@ -164,6 +177,29 @@ public class AttributeMetadataModel implements Document {
     return this.scopeString;
   }
 
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * Hashes every field but the content hash itself, with maps in key order so that equal attributes
+   * always have the same hash
+   */
+  public String computeContentHash() {
+    try {
+      return Hashing.sha256()
+          .hashString(CONTENT_HASH_OBJECT_MAPPER.writeValueAsString(this), StandardCharsets.UTF_8)
+          .toString();
+    } catch (JsonProcessingException ex) {
+      LOGGER.error("Error in converting {} to json", this);
+      throw new RuntimeException("Error in hashing AttributeMetadataModel");
+    }
+  }
+
   public void setScopeString(String scopeString) {
     this.scopeString = scopeString;
   }
@@ -421,6 +457,9 @@ public class AttributeMetadataModel implements Document {
         description);
   }
 
+  @JsonIgnoreProperties("content_hash")
+  private abstract static class ContentHashExclusion {}
+
   private static class ProtobufMessageSerializer extends JsonSerializer<Message> {
     private static final JsonFormat.Printer PRINTER =
         JsonFormat.printer().omittingInsignificantWhitespace();
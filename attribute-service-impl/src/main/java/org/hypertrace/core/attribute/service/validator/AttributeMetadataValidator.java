@@ -4,12 +4,18 @@ import static org.hypertrace.core.attribute.service.util.AttributeScopeUtil.reso
 import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.typesafe.config.Config;
 import io.grpc.Status;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
@@ -23,65 +29,80 @@ import org.hypertrace.core.grpcutils.context.RequestContext;
 /** Validates {@link AttributeCreateRequest} */
 public class AttributeMetadataValidator {
   private static final String MAX_CUSTOM_ATTRIBUTES_PER_TENANT = "max.custom.attributes.per.tenant";
+  private static final String REJECT_CONFLICTING_ATTRIBUTES = "reject.conflicting.attributes";
   private static final int MAX_STRING_LENGTH = 1000;
   private static final StringLengthValidator stringLengthValidator =
       new StringLengthValidatorImpl();
   ;
 
   private final long maxCustomAttributesPerTenant;
+  private final boolean rejectConflictingAttributes;
 
   public AttributeMetadataValidator() {
     this.maxCustomAttributesPerTenant = 5;
+    this.rejectConflictingAttributes = false;
   }
 
   public AttributeMetadataValidator(final Config config) {
     this.maxCustomAttributesPerTenant = config.getInt(MAX_CUSTOM_ATTRIBUTES_PER_TENANT);
+    this.rejectConflictingAttributes =
+        config.hasPath(REJECT_CONFLICTING_ATTRIBUTES)
+            && config.getBoolean(REJECT_CONFLICTING_ATTRIBUTES);
   }
 
   public void validate(
       AttributeCreateRequest attributeCreateRequest,
       final String tenantId,
       final LongSupplier customAttributeCountSupplier) {
-    attributeCreateRequest.getAttributesList().forEach(AttributeMetadataValidator::validate);
-
-    // Ensure Scope + Key is unique
-    List<Map.Entry<String, String>> duplicateScopeKeys =
-        attributeCreateRequest.getAttributesList().stream()
-            .collect(
-                Collectors.groupingBy(
-                    attributeMetadata ->
-                        new AbstractMap.SimpleEntry<>(
-                            resolveScopeString(attributeMetadata), attributeMetadata.getKey())))
-            .entrySet()
-            .stream()
-            .filter(attributeMetadataList -> attributeMetadataList.getValue().size() > 1)
-            .map(Entry::getKey)
-            .collect(Collectors.toList());
+    validate(attributeCreateRequest, tenantId, customAttributeCountSupplier, filter -> List.of());
+  }
+
+  /**
+   * @param attributeFinder finds the existing attributes visible to the tenant matching a filter,
+   *     to check the requested attributes against if conflicting attributes are rejected
+   */
+  public void validate(
+      AttributeCreateRequest attributeCreateRequest,
+      final String tenantId,
+      final LongSupplier customAttributeCountSupplier,
+      final Function<AttributeMetadataFilter, List<AttributeMetadata>> attributeFinder) {
+    final int attributeCount = attributeCreateRequest.getAttributesCount();
+    final Set<Entry<String, String>> scopeKeys = Sets.newHashSetWithExpectedSize(attributeCount);
+    final Set<Entry<String, String>> duplicateScopeKeys = new LinkedHashSet<>();
+    final Set<Entry<String, String>> duplicateScopeFQNs = new LinkedHashSet<>();
+    final Map<Entry<String, String>, String> requestedKeysByScopeFQN =
+        Maps.newHashMapWithExpectedSize(attributeCount);
+    for (final AttributeMetadata attributeMetadata : attributeCreateRequest.getAttributesList()) {
+      final String scopeString = resolveScopeString(attributeMetadata);
+      validate(attributeMetadata, scopeString);
+
+      // Ensure Scope + Key and Scope + FQN are unique
+      final Entry<String, String> scopeKey =
+          new AbstractMap.SimpleEntry<>(scopeString, attributeMetadata.getKey());
+      if (!scopeKeys.add(scopeKey)) {
+        duplicateScopeKeys.add(scopeKey);
+      }
+      final Entry<String, String> scopeFQN =
+          new AbstractMap.SimpleEntry<>(scopeString, attributeMetadata.getFqn());
+      if (requestedKeysByScopeFQN.putIfAbsent(scopeFQN, attributeMetadata.getKey()) != null) {
+        duplicateScopeFQNs.add(scopeFQN);
+      }
+    }
     if (!duplicateScopeKeys.isEmpty()) {
       throw new IllegalArgumentException(
-          String.format("Duplicate scope + key found for:%s", duplicateScopeKeys));
+          String.format("Duplicate scope + key found for:%s", List.copyOf(duplicateScopeKeys)));
     }
-
-    // Ensure Scope + FQN is unique
-    List<Map.Entry<String, String>> duplicateScopeFQNs =
-        attributeCreateRequest.getAttributesList().stream()
-            .collect(
-                Collectors.groupingBy(
-                    attributeMetadata ->
-                        new AbstractMap.SimpleEntry<>(
-                            resolveScopeString(attributeMetadata), attributeMetadata.getFqn())))
-            .entrySet()
-            .stream()
-            .filter(attributeMetadataList -> attributeMetadataList.getValue().size() > 1)
-            .map(Entry::getKey)
-            .collect(Collectors.toList());
     if (!duplicateScopeFQNs.isEmpty()) {
       throw new IllegalArgumentException(
-          String.format("Duplicate scope + FQN found for:%s", duplicateScopeFQNs));
+          String.format("Duplicate scope + FQN found for:%s", List.copyOf(duplicateScopeFQNs)));
     }
 
-    verifyCustomAttributeLimitNotReached(
-        tenantId, customAttributeCountSupplier, attributeCreateRequest.getAttributesCount());
+    verifyCustomAttributeLimitNotReached(tenantId, customAttributeCountSupplier, attributeCount);
+
+    if (rejectConflictingAttributes) {
+      verifyNoConflictWithExistingAttributes(
+          tenantId, scopeKeys, requestedKeysByScopeFQN, attributeFinder);
+    }
   }
 
   public static AttributeMetadataFilter validateAndUpdateDeletionFilter(
@@ -109,8 +130,8 @@ public class AttributeMetadataValidator {
                     .asRuntimeException());
   }
 
-  private static void validate(AttributeMetadata attributeMetadata) {
-    if (resolveScopeString(attributeMetadata).equals(AttributeScope.SCOPE_UNDEFINED.name())
+  private static void validate(AttributeMetadata attributeMetadata, String scopeString) {
+    if (scopeString.equals(AttributeScope.SCOPE_UNDEFINED.name())
         || Strings.isNullOrEmpty(attributeMetadata.getKey())
         || Strings.isNullOrEmpty(attributeMetadata.getFqn())
         || attributeMetadata.getValueKind().equals(AttributeKind.KIND_UNDEFINED)
@@ -142,4 +163,47 @@ public class AttributeMetadataValidator {
           .asRuntimeException();
     }
   }
+
+  /**
+   * Creating an attribute overwrites the existing attribute with the same scope and key, which is
+   * how attributes are updated. Once conflicting attributes are rejected, it may however not
+   * register an FQN already registered by another attribute of the scope, nor shadow a system
+   * attribute with a custom one.
+   */
+  private void verifyNoConflictWithExistingAttributes(
+      final String tenantId,
+      final Set<Entry<String, String>> requestedScopeKeys,
+      final Map<Entry<String, String>, String> requestedKeysByScopeFQN,
+      final Function<AttributeMetadataFilter, List<AttributeMetadata>> attributeFinder) {
+    final AttributeMetadataFilter filter =
+        AttributeMetadataFilter.newBuilder()
+            .addAllScopeString(
+                requestedScopeKeys.stream().map(Entry::getKey).collect(Collectors.toSet()))
+            .build();
+    final boolean customTenant = !ROOT_TENANT_ID.equals(tenantId);
+    final List<String> conflicts = new ArrayList<>();
+    for (final AttributeMetadata existingAttribute : attributeFinder.apply(filter)) {
+      final String scopeString = resolveScopeString(existingAttribute);
+      // Overwritten by the request, so its FQN is released, as when FQNs are swapped or renamed
+      final boolean requested =
+          requestedScopeKeys.contains(
+              new AbstractMap.SimpleEntry<>(scopeString, existingAttribute.getKey()));
+      final String requestedKey =
+          requestedKeysByScopeFQN.get(
+              new AbstractMap.SimpleEntry<>(scopeString, existingAttribute.getFqn()));
+      if (!requested && requestedKey != null) {
+        conflicts.add(
+            String.format(
+                "%s.%s is already registered for FQN %s",
+                scopeString, existingAttribute.getKey(), existingAttribute.getFqn()));
+      }
+      if (customTenant && !existingAttribute.getCustom() && requested) {
+        conflicts.add(String.format("%s is a system attribute", existingAttribute.getId()));
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      throw new IllegalArgumentException(
+          String.format("Conflicts with existing attributes found:%s", conflicts));
+    }
+  }
 }
@@ -7,55 +7,48 @@ import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import io.grpc.Status;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Validates every string of a message, including those of its nested messages and maps. The fields
+ * to visit are compiled once per message type into a {@link ValidationPlan}, which skips fields of
+ * types that cannot hold a string.
+ */
 public class StringLengthValidatorImpl implements StringLengthValidator {
   private static final int MAX_STRING_LENGTH = 1000;
+  private static final Map<Descriptor, ValidationPlan> VALIDATION_PLANS = new ConcurrentHashMap<>();
 
   @Override
   public void validate(final Message message) {
-    final Descriptor descriptor = message.getDescriptorForType();
-    validateProto(message, descriptor);
+    validate(message, planFor(message.getDescriptorForType()));
   }
 
-  private void validateProto(final Message message, final Descriptor descriptor) {
-    final List<FieldDescriptor> fieldDescriptors = descriptor.getFields();
-
-    for (final FieldDescriptor fieldDescriptor : fieldDescriptors) {
-      if (fieldDescriptor.getJavaType() == MESSAGE) {
-        validateProto(message, fieldDescriptor);
-      } else if (fieldDescriptor.getJavaType() == STRING) {
-        validateStringLength(message.getField(fieldDescriptor).toString());
+  private void validate(final Message message, final ValidationPlan plan) {
+    for (final FieldDescriptor stringField : plan.stringFields) {
+      if (stringField.isRepeated()) {
+        final int count = message.getRepeatedFieldCount(stringField);
+        for (int index = 0; index < count; index++) {
+          validateStringLength((String) message.getRepeatedField(stringField, index));
+        }
+      } else {
+        validateStringLength((String) message.getField(stringField));
       }
     }
-  }
-
-  private void validateProto(final Message message, final FieldDescriptor fieldDescriptor) {
-    if (fieldDescriptor.isRepeated()) {
-      validateRepeatedProto(message, fieldDescriptor);
-    } else {
-      validateSingleProto(message, fieldDescriptor);
-    }
-  }
-
-  private void validateRepeatedProto(final Message message, final FieldDescriptor fieldDescriptor) {
-    final Object object = message.getField(fieldDescriptor);
 
-    if (object instanceof List) {
-      final List<?> values = (List<?>) object;
-      values.stream()
-          .filter(value -> value instanceof Message)
-          .map(value -> (Message) value)
-          .forEach(value -> validateProto(value, value.getDescriptorForType()));
-    }
-  }
-
-  private void validateSingleProto(final Message message, final FieldDescriptor fieldDescriptor) {
-    final Object object = message.getField(fieldDescriptor);
-
-    if (object instanceof Message) {
-      final Message value = (Message) object;
-      validateProto(value, fieldDescriptor.getMessageType());
+    for (final FieldDescriptor messageField : plan.messageFields) {
+      final ValidationPlan messagePlan = planFor(messageField.getMessageType());
+      if (messageField.isRepeated()) {
+        // Map fields are repeated entry messages, holding the key and value
+        final int count = message.getRepeatedFieldCount(messageField);
+        for (int index = 0; index < count; index++) {
+          validate((Message) message.getRepeatedField(messageField, index), messagePlan);
+        }
+      } else if (message.hasField(messageField)) {
+        validate((Message) message.getField(messageField), messagePlan);
+      }
     }
   }
 
@@ -68,4 +61,44 @@ public class StringLengthValidatorImpl implements StringLengthValidator {
           .asRuntimeException();
     }
   }
+
+  private static ValidationPlan planFor(final Descriptor descriptor) {
+    return VALIDATION_PLANS.computeIfAbsent(descriptor, ValidationPlan::compile);
+  }
+
+  private static final class ValidationPlan {
+    private final FieldDescriptor[] stringFields;
+    private final FieldDescriptor[] messageFields;
+
+    private ValidationPlan(
+        final FieldDescriptor[] stringFields, final FieldDescriptor[] messageFields) {
+      this.stringFields = stringFields;
+      this.messageFields = messageFields;
+    }
+
+    private static ValidationPlan compile(final Descriptor descriptor) {
+      return new ValidationPlan(
+          descriptor.getFields().stream()
+              .filter(field -> field.getJavaType() == STRING)
+              .toArray(FieldDescriptor[]::new),
+          descriptor.getFields().stream()
+              .filter(field -> field.getJavaType() == MESSAGE)
+              .filter(field -> canHoldStrings(field.getMessageType(), new HashSet<>()))
+              .toArray(FieldDescriptor[]::new));
+    }
+
+    private static boolean canHoldStrings(
+        final Descriptor descriptor, final Set<Descriptor> visitedDescriptors) {
+      if (!visitedDescriptors.add(descriptor)) {
+        // Already being searched for strings further up
+        return false;
+      }
+      return descriptor.getFields().stream()
+          .anyMatch(
+              field ->
+                  field.getJavaType() == STRING
+                      || (field.getJavaType() == MESSAGE
+                          && canHoldStrings(field.getMessageType(), visitedDescriptors)));
+    }
+  }
 }
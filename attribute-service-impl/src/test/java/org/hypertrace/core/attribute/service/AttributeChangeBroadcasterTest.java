@@ -0,0 +1,179 @@
+package org.hypertrace.core.attribute.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.hypertrace.core.attribute.service.AttributeChangeBroadcaster.ChangeLoader;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AttributeChangeBroadcasterTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+  private static final String OTHER_TENANT_ID = "other-tenant-id";
+  private static final AttributeMetadataFilter FILTER =
+      AttributeMetadataFilter.getDefaultInstance();
+  private static final GetAttributeChangesResponse CATALOG =
+      GetAttributeChangesResponse.newBuilder()
+          .setCatalogVersion(1000)
+          .addUpsertedAttributes(AttributeMetadata.newBuilder().setId("EVENT.name"))
+          .build();
+  private static final GetAttributeChangesResponse NO_CHANGES =
+      GetAttributeChangesResponse.newBuilder().setCatalogVersion(1500).build();
+  private static final GetAttributeChangesResponse CHANGES =
+      GetAttributeChangesResponse.newBuilder()
+          .setCatalogVersion(2000)
+          .addDeletedAttributeIds("EVENT.name")
+          .build();
+
+  private AttributeChangeLog mockChangeLog;
+  private ChangeLoader mockChangeLoader;
+  private AttributeChangeBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    mockChangeLog = mock(AttributeChangeLog.class);
+    when(mockChangeLog.getCatalogVersion(TEST_TENANT_ID)).thenReturn(2000L);
+    when(mockChangeLog.getChangedAttributeIds(Map.of(TEST_TENANT_ID, 1000L)))
+        .thenReturn(Map.of(TEST_TENANT_ID, Set.of("EVENT.name")));
+    mockChangeLoader = mock(ChangeLoader.class);
+    when(mockChangeLoader.load(TEST_TENANT_ID, FILTER, 0)).thenReturn(CATALOG);
+    when(mockChangeLoader.load(TEST_TENANT_ID, FILTER, 500)).thenReturn(NO_CHANGES);
+    when(mockChangeLoader.load(TEST_TENANT_ID, Set.of(FILTER), 2000, Set.of("EVENT.name")))
+        .thenReturn(Map.of(FILTER, CHANGES));
+    broadcaster =
+        new AttributeChangeBroadcaster(mockChangeLog, mockChangeLoader, Duration.ofHours(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    broadcaster.close();
+  }
+
+  @Test
+  void sendsCatalogThenPushedChanges() throws Exception {
+    StreamObserver<GetAttributeChangesResponse> mockObserver = mock(StreamObserver.class);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), mockObserver);
+    verify(mockObserver, timeout(1000)).onNext(CATALOG);
+
+    broadcaster.onCatalogChanged(OTHER_TENANT_ID);
+    broadcaster.onCatalogChanged(TEST_TENANT_ID);
+    verify(mockObserver, timeout(1000)).onNext(CHANGES);
+    verify(mockChangeLog, times(1)).getChangedAttributeIds(anyMap());
+  }
+
+  @Test
+  void sharesPollsAcrossWatchersOfATenant() throws Exception {
+    StreamObserver<GetAttributeChangesResponse> firstObserver = mock(StreamObserver.class);
+    StreamObserver<GetAttributeChangesResponse> secondObserver = mock(StreamObserver.class);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), firstObserver);
+    broadcaster.watch(
+        TEST_TENANT_ID,
+        WatchAttributesRequest.newBuilder().setSinceCatalogVersion(500).build(),
+        secondObserver);
+
+    // Root changes are visible to every tenant
+    broadcaster.onCatalogChanged("__root");
+    verify(firstObserver, timeout(1000)).onNext(CHANGES);
+    verify(secondObserver, timeout(1000)).onNext(CHANGES);
+    // Catching up from 500 found nothing to send
+    verify(secondObserver, times(1)).onNext(any());
+    verify(mockChangeLoader, times(1))
+        .load(TEST_TENANT_ID, Set.of(FILTER), 2000, Set.of("EVENT.name"));
+  }
+
+  @Test
+  void readsChangeLogOnceForEveryWatchedTenant() throws Exception {
+    when(mockChangeLog.getCatalogVersion(OTHER_TENANT_ID)).thenReturn(2000L);
+    when(mockChangeLoader.load(OTHER_TENANT_ID, FILTER, 0)).thenReturn(CATALOG);
+    when(mockChangeLog.getChangedAttributeIds(
+            Map.of(TEST_TENANT_ID, 1000L, OTHER_TENANT_ID, 1000L)))
+        .thenReturn(Map.of(TEST_TENANT_ID, Set.of("EVENT.name"), OTHER_TENANT_ID, Set.of()));
+    StreamObserver<GetAttributeChangesResponse> mockObserver = mock(StreamObserver.class);
+    StreamObserver<GetAttributeChangesResponse> otherObserver = mock(StreamObserver.class);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), mockObserver);
+    broadcaster.watch(OTHER_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), otherObserver);
+    verify(otherObserver, timeout(1000)).onNext(CATALOG);
+
+    broadcaster.onCatalogChanged("__root");
+    verify(mockObserver, timeout(1000)).onNext(CHANGES);
+    verify(mockChangeLog, times(1)).getChangedAttributeIds(anyMap());
+    // The other tenant had no changes, so none were loaded for it
+    verify(mockChangeLoader, never()).load(eq(OTHER_TENANT_ID), anySet(), anyLong(), anySet());
+    verify(otherObserver, times(1)).onNext(any());
+  }
+
+  @Test
+  void mergesChangesPendingUntilWatcherIsReady() throws Exception {
+    ServerCallStreamObserver<GetAttributeChangesResponse> mockObserver =
+        mock(ServerCallStreamObserver.class);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), mockObserver);
+    verify(mockChangeLoader, timeout(1000)).load(TEST_TENANT_ID, FILTER, 0);
+    broadcaster.onCatalogChanged(TEST_TENANT_ID);
+    verify(mockChangeLoader, timeout(1000))
+        .load(TEST_TENANT_ID, Set.of(FILTER), 2000, Set.of("EVENT.name"));
+    verify(mockObserver, after(200).never()).onNext(any());
+
+    when(mockObserver.isReady()).thenReturn(true);
+    ArgumentCaptor<Runnable> onReadyCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockObserver).setOnReadyHandler(onReadyCaptor.capture());
+    onReadyCaptor.getValue().run();
+
+    // The catalog upserted the attribute the changes then deleted
+    verify(mockObserver, timeout(1000))
+        .onNext(
+            GetAttributeChangesResponse.newBuilder()
+                .setCatalogVersion(2000)
+                .addDeletedAttributeIds("EVENT.name")
+                .build());
+    verify(mockObserver, times(1)).onNext(any());
+  }
+
+  @Test
+  void stopsPushingToCancelledWatchers() throws Exception {
+    ServerCallStreamObserver<GetAttributeChangesResponse> mockObserver =
+        mock(ServerCallStreamObserver.class);
+    when(mockObserver.isReady()).thenReturn(true);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), mockObserver);
+    verify(mockObserver, timeout(1000)).onNext(CATALOG);
+
+    ArgumentCaptor<Runnable> onCancelCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(mockObserver).setOnCancelHandler(onCancelCaptor.capture());
+    onCancelCaptor.getValue().run();
+
+    broadcaster.onCatalogChanged(TEST_TENANT_ID);
+    verify(mockObserver, after(200).times(1)).onNext(any());
+    verify(mockChangeLog, never()).getChangedAttributeIds(anyMap());
+  }
+
+  @Test
+  void failsWatchersThatCannotCatchUp() throws Exception {
+    when(mockChangeLoader.load(TEST_TENANT_ID, FILTER, 0)).thenThrow(new RuntimeException());
+    StreamObserver<GetAttributeChangesResponse> mockObserver = mock(StreamObserver.class);
+    broadcaster.watch(TEST_TENANT_ID, WatchAttributesRequest.getDefaultInstance(), mockObserver);
+
+    verify(mockObserver, timeout(1000)).onError(any());
+    verify(mockObserver, never()).onNext(any());
+  }
+}
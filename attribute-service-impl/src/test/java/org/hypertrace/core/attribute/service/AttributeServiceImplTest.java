@@ -1,6 +1,7 @@
 package org.hypertrace.core.attribute.service;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -10,10 +11,15 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.Iterators;
 import com.google.protobuf.ServiceException;
 import io.grpc.Context;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import org.hypertrace.core.attribute.service.cache.AttributeMetadataCacheConfig;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
 import org.hypertrace.core.attribute.service.v1.AggregateFunction;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
@@ -21,6 +27,10 @@ import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
 import org.hypertrace.core.attribute.service.v1.AttributeScope;
 import org.hypertrace.core.attribute.service.v1.AttributeType;
 import org.hypertrace.core.attribute.service.v1.Empty;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesRequest;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.GetAttributesPagedRequest;
+import org.hypertrace.core.attribute.service.v1.GetAttributesPagedResponse;
 import org.hypertrace.core.attribute.service.v1.GetAttributesRequest;
 import org.hypertrace.core.attribute.service.v1.GetAttributesResponse;
 import org.hypertrace.core.documentstore.CloseableIterator;
@@ -32,8 +42,10 @@ import org.hypertrace.core.grpcutils.context.RequestContext;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 public class AttributeServiceImplTest {
+  private final AttributeChangeLog mockChangeLog = mock(AttributeChangeLog.class);
 
   private static final AttributeMetadata MOCK_EVENT_NAME_ATTRIBUTE =
       AttributeMetadata.newBuilder()
@@ -110,7 +122,7 @@ public class AttributeServiceImplTest {
                   AttributeKind.TYPE_INT64));
       StreamObserver<AttributeMetadata> responseObserver = mock(StreamObserver.class);
 
-      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection);
+      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection, mockChangeLog);
 
       attributeService.findAll(Empty.newBuilder().build(), responseObserver);
 
@@ -150,7 +162,7 @@ public class AttributeServiceImplTest {
       Collection collection = mock(Collection.class);
       StreamObserver<AttributeMetadata> responseObserver = mock(StreamObserver.class);
 
-      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection);
+      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection, mockChangeLog);
 
       attributeService.findAll(Empty.newBuilder().build(), responseObserver);
 
@@ -186,7 +198,7 @@ public class AttributeServiceImplTest {
                   AttributeType.METRIC,
                   AttributeKind.TYPE_INT64));
       StreamObserver<AttributeMetadata> responseObserver = mock(StreamObserver.class);
-      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection);
+      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection, mockChangeLog);
 
       List<String> fqnList = List.of("EVENT.name", "EVENT.id");
       List<String> keyList = List.of("name", "startTime", "duration");
@@ -298,7 +310,7 @@ public class AttributeServiceImplTest {
                   AttributeType.METRIC,
                   AttributeKind.TYPE_INT64));
       StreamObserver<AttributeMetadata> responseObserver = mock(StreamObserver.class);
-      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection);
+      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection, mockChangeLog);
 
       List<String> fqnList = List.of("EVENT.name", "EVENT.id");
       List<String> keyList = List.of("name", "startTime", "duration");
@@ -392,7 +404,8 @@ public class AttributeServiceImplTest {
                               "duration",
                               AttributeScope.EVENT,
                               AttributeType.METRIC,
-                              AttributeKind.TYPE_INT64)));
+                              AttributeKind.TYPE_INT64)),
+                      mockChangeLog);
 
               StreamObserver<GetAttributesResponse> mockObserver = mock(StreamObserver.class);
               attributeService.getAttributes(
@@ -416,6 +429,191 @@ public class AttributeServiceImplTest {
             });
   }
 
+  @Test
+  public void testGetAttributesFromCache() {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              Collection collection =
+                  mockCollectionReturningDocuments(
+                      createMockDocument(
+                          "__root",
+                          "name",
+                          AttributeScope.EVENT,
+                          AttributeType.ATTRIBUTE,
+                          AttributeKind.TYPE_STRING),
+                      createMockDocument(
+                          "__root",
+                          "duration",
+                          AttributeScope.EVENT,
+                          AttributeType.METRIC,
+                          AttributeKind.TYPE_INT64));
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(
+                      collection,
+                      new AttributeMetadataCacheConfig(true, 10, Duration.ofMinutes(1)),
+                      mockChangeLog);
+
+              StreamObserver<GetAttributesResponse> mockObserver = mock(StreamObserver.class);
+              attributeService.getAttributes(
+                  GetAttributesRequest.newBuilder()
+                      .setFilter(
+                          AttributeMetadataFilter.newBuilder()
+                              .addKey(MOCK_EVENT_NAME_ATTRIBUTE.getKey()))
+                      .build(),
+                  mockObserver);
+              attributeService.getAttributes(
+                  GetAttributesRequest.newBuilder()
+                      .setFilter(
+                          AttributeMetadataFilter.newBuilder()
+                              .addKey(MOCK_EVENT_DURATION_ATTRIBUTE.getKey()))
+                      .build(),
+                  mockObserver);
+
+              // One load for the shared root attributes and one for the tenant's own attributes
+              ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+              verify(collection, times(2)).search(queryCaptor.capture());
+              List<Query> queries = queryCaptor.getAllValues();
+              Assertions.assertEquals(Filter.Op.EQ, queries.get(0).getFilter().getOp());
+              Assertions.assertEquals("tenant_id", queries.get(0).getFilter().getFieldName());
+              Assertions.assertEquals("__root", queries.get(0).getFilter().getValue());
+              Assertions.assertEquals("test-tenant-id", queries.get(1).getFilter().getValue());
+
+              verify(mockObserver, times(1))
+                  .onNext(
+                      GetAttributesResponse.newBuilder()
+                          .addAttributes(MOCK_EVENT_NAME_ATTRIBUTE)
+                          .build());
+              verify(mockObserver, times(1))
+                  .onNext(
+                      GetAttributesResponse.newBuilder()
+                          .addAttributes(MOCK_EVENT_DURATION_ATTRIBUTE)
+                          .build());
+              verify(mockObserver, times(2)).onCompleted();
+              verify(mockObserver, never()).onError(any());
+            });
+  }
+
+  @Test
+  public void testGetAttributesPaged() {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              Collection collection =
+                  mockCollectionReturningDocuments(
+                      createMockDocument(
+                          "__root",
+                          "duration",
+                          AttributeScope.EVENT,
+                          AttributeType.METRIC,
+                          AttributeKind.TYPE_INT64),
+                      createMockDocument(
+                          "__root",
+                          "name",
+                          AttributeScope.EVENT,
+                          AttributeType.ATTRIBUTE,
+                          AttributeKind.TYPE_STRING),
+                      createMockDocument(
+                          "test-tenant-id",
+                          "type",
+                          AttributeScope.EVENT,
+                          AttributeType.ATTRIBUTE,
+                          AttributeKind.TYPE_STRING));
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(collection, mockChangeLog);
+
+              StreamObserver<GetAttributesPagedResponse> mockObserver = mock(StreamObserver.class);
+              attributeService.getAttributesPaged(
+                  GetAttributesPagedRequest.newBuilder()
+                      .setPageSize(2)
+                      .setContinuationToken("EVENT.bytes")
+                      .build(),
+                  mockObserver);
+
+              ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+              verify(collection, times(1)).search(queryCaptor.capture());
+              Filter filter = queryCaptor.getValue().getFilter();
+              Assertions.assertEquals(Filter.Op.AND, filter.getOp());
+              Assertions.assertEquals(Filter.Op.GT, filter.getChildFilters()[1].getOp());
+              Assertions.assertEquals("id", filter.getChildFilters()[1].getFieldName());
+              Assertions.assertEquals("EVENT.bytes", filter.getChildFilters()[1].getValue());
+
+              InOrder inOrder = inOrder(mockObserver);
+              inOrder
+                  .verify(mockObserver)
+                  .onNext(
+                      GetAttributesPagedResponse.newBuilder()
+                          .addAttributes(MOCK_EVENT_DURATION_ATTRIBUTE)
+                          .addAttributes(MOCK_EVENT_NAME_ATTRIBUTE)
+                          .setContinuationToken("EVENT.name")
+                          .build());
+              inOrder
+                  .verify(mockObserver)
+                  .onNext(
+                      GetAttributesPagedResponse.newBuilder()
+                          .addAttributes(MOCK_EVENT_TYPE_ATTRIBUTE)
+                          .setContinuationToken("EVENT.type")
+                          .build());
+              inOrder.verify(mockObserver).onCompleted();
+              verify(mockObserver, never()).onError(any());
+            });
+  }
+
+  @Test
+  public void testGetAttributesPagedRespectsFlowControl() {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(
+                      mockCollectionReturningDocuments(
+                          createMockDocument(
+                              "__root",
+                              "name",
+                              AttributeScope.EVENT,
+                              AttributeType.ATTRIBUTE,
+                              AttributeKind.TYPE_STRING),
+                          createMockDocument(
+                              "__root",
+                              "duration",
+                              AttributeScope.EVENT,
+                              AttributeType.METRIC,
+                              AttributeKind.TYPE_INT64)),
+                      mockChangeLog);
+
+              ServerCallStreamObserver<GetAttributesPagedResponse> mockObserver =
+                  mock(ServerCallStreamObserver.class);
+              when(mockObserver.isReady()).thenReturn(false);
+              attributeService.getAttributesPaged(
+                  GetAttributesPagedRequest.newBuilder().setPageSize(1).build(), mockObserver);
+
+              ArgumentCaptor<Runnable> onReadyCaptor = ArgumentCaptor.forClass(Runnable.class);
+              verify(mockObserver).setOnReadyHandler(onReadyCaptor.capture());
+              verify(mockObserver, never()).onNext(any());
+
+              // One page fits before the client stops being ready again
+              when(mockObserver.isReady()).thenReturn(true, false);
+              onReadyCaptor.getValue().run();
+              verify(mockObserver, times(1)).onNext(any());
+              verify(mockObserver, never()).onCompleted();
+
+              when(mockObserver.isReady()).thenReturn(true);
+              onReadyCaptor.getValue().run();
+              verify(mockObserver, times(2)).onNext(any());
+              verify(mockObserver, times(1)).onCompleted();
+              verify(mockObserver, never()).onError(any());
+            });
+  }
+
   @Test
   public void testGetCustomAttributes() {
     RequestContext requestContext = mock(RequestContext.class);
@@ -433,7 +631,8 @@ public class AttributeServiceImplTest {
                               "type",
                               AttributeScope.EVENT,
                               AttributeType.ATTRIBUTE,
-                              AttributeKind.TYPE_STRING)));
+                              AttributeKind.TYPE_STRING)),
+                      mockChangeLog);
 
               StreamObserver<GetAttributesResponse> mockObserver = mock(StreamObserver.class);
               attributeService.getAttributes(
@@ -453,6 +652,142 @@ public class AttributeServiceImplTest {
             });
   }
 
+  @Test
+  public void testGetAttributeChanges() throws Exception {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    when(mockChangeLog.getCatalogVersion("test-tenant-id")).thenReturn(2000L);
+    when(mockChangeLog.getChangedAttributeIds("test-tenant-id", 1000L))
+        .thenReturn(Set.of("EVENT.name", "EVENT.deleted"));
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              Collection collection =
+                  mockCollectionReturningDocuments(
+                      createMockDocument(
+                          "__root",
+                          "name",
+                          AttributeScope.EVENT,
+                          AttributeType.ATTRIBUTE,
+                          AttributeKind.TYPE_STRING));
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(collection, mockChangeLog);
+
+              StreamObserver<GetAttributeChangesResponse> mockObserver =
+                  mock(StreamObserver.class);
+              attributeService.getAttributeChanges(
+                  GetAttributeChangesRequest.newBuilder().setSinceCatalogVersion(1000L).build(),
+                  mockObserver);
+
+              ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+              verify(collection, times(1)).search(queryCaptor.capture());
+              Filter idFilter = queryCaptor.getValue().getFilter().getChildFilters()[1];
+              Assertions.assertEquals("id", idFilter.getFieldName());
+              Assertions.assertEquals(List.of("EVENT.deleted", "EVENT.name"), idFilter.getValue());
+
+              verify(mockObserver, times(1))
+                  .onNext(
+                      GetAttributeChangesResponse.newBuilder()
+                          .setCatalogVersion(2000L)
+                          .addUpsertedAttributes(MOCK_EVENT_NAME_ATTRIBUTE)
+                          .addDeletedAttributeIds("EVENT.deleted")
+                          .build());
+              verify(mockObserver, times(1)).onCompleted();
+              verify(mockObserver, never()).onError(any());
+            });
+  }
+
+  @Test
+  public void testGetAttributeChangesResolvesDeletionsWithoutFilter() throws Exception {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    when(mockChangeLog.getCatalogVersion("test-tenant-id")).thenReturn(2000L);
+    when(mockChangeLog.getChangedAttributeIds("test-tenant-id", 1000L))
+        .thenReturn(Set.of("EVENT.name", "EVENT.deleted"));
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              Collection collection = mock(Collection.class);
+              // The changed attribute does not match the filter, but still exists
+              when(collection.search(any(Query.class)))
+                  .thenReturn(
+                      convertToCloseableIterator(Iterators.forArray()),
+                      convertToCloseableIterator(
+                          Iterators.forArray(
+                              createMockDocument(
+                                  "__root",
+                                  "name",
+                                  AttributeScope.EVENT,
+                                  AttributeType.ATTRIBUTE,
+                                  AttributeKind.TYPE_STRING))));
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(collection, mockChangeLog);
+
+              StreamObserver<GetAttributeChangesResponse> mockObserver =
+                  mock(StreamObserver.class);
+              attributeService.getAttributeChanges(
+                  GetAttributeChangesRequest.newBuilder()
+                      .setSinceCatalogVersion(1000L)
+                      .setFilter(AttributeMetadataFilter.newBuilder().setCustom(true))
+                      .build(),
+                  mockObserver);
+
+              verify(collection, times(2)).search(any(Query.class));
+              verify(mockObserver, times(1))
+                  .onNext(
+                      GetAttributeChangesResponse.newBuilder()
+                          .setCatalogVersion(2000L)
+                          .addDeletedAttributeIds("EVENT.deleted")
+                          .build());
+              verify(mockObserver, times(1)).onCompleted();
+            });
+  }
+
+  @Test
+  public void testGetAttributeChangesWithoutVersionReturnsCatalog() {
+    RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.getTenantId()).thenReturn(Optional.of("test-tenant-id"));
+    when(mockChangeLog.getCatalogVersion("test-tenant-id")).thenReturn(2000L);
+    Context.current()
+        .withValue(RequestContext.CURRENT, requestContext)
+        .run(
+            () -> {
+              AttributeServiceImpl attributeService =
+                  new AttributeServiceImpl(
+                      mockCollectionReturningDocuments(
+                          createMockDocument(
+                              "__root",
+                              "name",
+                              AttributeScope.EVENT,
+                              AttributeType.ATTRIBUTE,
+                              AttributeKind.TYPE_STRING),
+                          createMockDocument(
+                              "test-tenant-id",
+                              "type",
+                              AttributeScope.EVENT,
+                              AttributeType.ATTRIBUTE,
+                              AttributeKind.TYPE_STRING)),
+                      mockChangeLog);
+
+              StreamObserver<GetAttributeChangesResponse> mockObserver =
+                  mock(StreamObserver.class);
+              attributeService.getAttributeChanges(
+                  GetAttributeChangesRequest.getDefaultInstance(), mockObserver);
+
+              verify(mockObserver, times(1))
+                  .onNext(
+                      GetAttributeChangesResponse.newBuilder()
+                          .setCatalogVersion(2000L)
+                          .addUpsertedAttributes(MOCK_EVENT_NAME_ATTRIBUTE)
+                          .addUpsertedAttributes(MOCK_EVENT_TYPE_ATTRIBUTE)
+                          .build());
+              verify(mockObserver, times(1)).onCompleted();
+              verify(mockObserver, never()).onError(any());
+            });
+  }
+
   @Test
   public void testFindAttributesNoTenantId() {
     RequestContext requestContext = mock(RequestContext.class);
@@ -464,7 +799,7 @@ public class AttributeServiceImplTest {
       Collection collection = mock(Collection.class);
       StreamObserver<AttributeMetadata> responseObserver = mock(StreamObserver.class);
 
-      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection);
+      AttributeServiceImpl attributeService = new AttributeServiceImpl(collection, mockChangeLog);
 
       attributeService.findAttributes(
           AttributeMetadataFilter.newBuilder().build(), responseObserver);
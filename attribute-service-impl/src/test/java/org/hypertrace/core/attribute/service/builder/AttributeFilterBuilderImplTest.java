@@ -36,4 +36,12 @@ class AttributeFilterBuilderImplTest {
     final FilterTypeExpression result = attributeFilterBuilderImpl.buildTenantIdFilter("tenantId");
     assertEquals(expectedResult, result);
   }
+
+  @Test
+  void testBuildFqnFilter() {
+    final FilterTypeExpression expectedResult =
+        RelationalExpression.of(IdentifierExpression.of("fqn"), EQ, ConstantExpression.of("fqn"));
+    final FilterTypeExpression result = attributeFilterBuilderImpl.buildFqnFilter("fqn");
+    assertEquals(expectedResult, result);
+  }
 }
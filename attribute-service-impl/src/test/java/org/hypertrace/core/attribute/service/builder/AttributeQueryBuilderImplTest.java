@@ -0,0 +1,98 @@
+package org.hypertrace.core.attribute.service.builder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.Filter.Op;
+import org.hypertrace.core.documentstore.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeQueryBuilderImplTest {
+
+  private AttributeQueryBuilder attributeQueryBuilderImpl;
+
+  @BeforeEach
+  void setUp() {
+    attributeQueryBuilderImpl = new AttributeQueryBuilderImpl();
+  }
+
+  @Test
+  void testBuildFilterQueryForEmptyFilter() {
+    final Filter filter =
+        attributeQueryBuilderImpl
+            .buildFilterQuery("tenantId", AttributeMetadataFilter.getDefaultInstance())
+            .getFilter();
+    assertEquals(Op.IN, filter.getOp());
+    assertEquals("tenant_id", filter.getFieldName());
+    assertEquals(List.of("__root", "tenantId"), filter.getValue());
+  }
+
+  @Test
+  void testBuildFilterQuery() {
+    final Filter filter =
+        attributeQueryBuilderImpl
+            .buildFilterQuery(
+                "tenantId",
+                AttributeMetadataFilter.newBuilder()
+                    .addFqn("fqn")
+                    .addScope(AttributeScope.EVENT)
+                    .addKey("key")
+                    .setInternal(false)
+                    .setCustom(true)
+                    .build())
+            .getFilter();
+    // ((((tenant_id ^ fqn) ^ (scope_string | scope)) ^ key) ^ internal) ^ custom tenant_id
+    assertEquals(Op.AND, filter.getOp());
+    assertEquals(Op.EQ, filter.getChildFilters()[1].getOp());
+    assertEquals("tenant_id", filter.getChildFilters()[1].getFieldName());
+    assertEquals("tenantId", filter.getChildFilters()[1].getValue());
+
+    final Filter internalFilter = filter.getChildFilters()[0].getChildFilters()[1];
+    assertEquals(Op.OR, internalFilter.getOp());
+    assertEquals(Op.EQ, internalFilter.getChildFilters()[0].getOp());
+    assertEquals(false, internalFilter.getChildFilters()[0].getValue());
+    assertEquals(Op.NOT_EXISTS, internalFilter.getChildFilters()[1].getOp());
+  }
+
+  @Test
+  void testBuildPageQuery() {
+    final Query firstPageQuery =
+        attributeQueryBuilderImpl.buildPageQuery(
+            "tenantId", AttributeMetadataFilter.getDefaultInstance(), "");
+    assertEquals(Op.IN, firstPageQuery.getFilter().getOp());
+    assertEquals(1, firstPageQuery.getOrderBys().size());
+    assertEquals("id", firstPageQuery.getOrderBys().get(0).getField());
+    assertTrue(firstPageQuery.getOrderBys().get(0).isAsc());
+
+    final Filter nextPageFilter =
+        attributeQueryBuilderImpl
+            .buildPageQuery("tenantId", AttributeMetadataFilter.getDefaultInstance(), "API.name")
+            .getFilter();
+    assertEquals(Op.AND, nextPageFilter.getOp());
+    assertEquals(Op.GT, nextPageFilter.getChildFilters()[1].getOp());
+    assertEquals("id", nextPageFilter.getChildFilters()[1].getFieldName());
+    assertEquals("API.name", nextPageFilter.getChildFilters()[1].getValue());
+  }
+
+  @Test
+  void testBuildIdQuery() {
+    final Filter filter =
+        attributeQueryBuilderImpl
+            .buildIdQuery(
+                "tenantId",
+                AttributeMetadataFilter.getDefaultInstance(),
+                List.of("EVENT.name", "EVENT.type"))
+            .getFilter();
+    assertEquals(Op.AND, filter.getOp());
+    assertEquals("tenant_id", filter.getChildFilters()[0].getFieldName());
+    assertEquals(List.of("__root", "tenantId"), filter.getChildFilters()[0].getValue());
+    assertEquals(Op.IN, filter.getChildFilters()[1].getOp());
+    assertEquals("id", filter.getChildFilters()[1].getFieldName());
+    assertEquals(List.of("EVENT.name", "EVENT.type"), filter.getChildFilters()[1].getValue());
+  }
+}
@@ -14,6 +14,7 @@ import java.util.stream.Stream;
 import org.hypertrace.core.attribute.service.v1.Update;
 import org.hypertrace.core.documentstore.model.subdoc.PrimitiveSubDocumentValue;
 import org.hypertrace.core.documentstore.model.subdoc.SubDocumentUpdate;
+import org.hypertrace.core.documentstore.model.subdoc.UpdateOperator;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,14 @@ class AttributeUpdateBuilderImplTest {
         "new_display_name", ((PrimitiveSubDocumentValue) result.getSubDocumentValue()).getValue());
   }
 
+  @Test
+  void testBuildContentHashReset() {
+    final SubDocumentUpdate result = attributeUpdateBuilderImpl.buildContentHashReset();
+
+    assertEquals("content_hash", result.getSubDocument().getPath());
+    assertEquals(UpdateOperator.UNSET, result.getOperator());
+  }
+
   private static <SOURCE, ENUM extends Enum<ENUM> & EnumLite> void verifyAllOneOfCasesCovered(
       final ENUM[] allValues,
       final Function<SOURCE, ENUM> caseEnumMapper,
@@ -0,0 +1,157 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeMetadataCacheImplTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+  private static final String OTHER_TENANT_ID = "other-tenant-id";
+
+  private static final AttributeMetadata SYSTEM_ATTRIBUTE =
+      AttributeMetadata.newBuilder()
+          .setFqn("EVENT.name")
+          .setKey("name")
+          .setScopeString(AttributeScope.EVENT.name())
+          .build();
+  private static final AttributeMetadata INTERNAL_SYSTEM_ATTRIBUTE =
+      AttributeMetadata.newBuilder()
+          .setFqn("API.id")
+          .setKey("id")
+          .setScopeString(AttributeScope.API.name())
+          .setInternal(true)
+          .build();
+  private static final AttributeMetadata CUSTOM_ATTRIBUTE =
+      AttributeMetadata.newBuilder()
+          .setFqn("EVENT.type")
+          .setKey("type")
+          .setScopeString(AttributeScope.EVENT.name())
+          .setCustom(true)
+          .build();
+
+  private List<String> loadedTenantIds;
+  private AttributeMetadataCache cache;
+
+  @BeforeEach
+  void setUp() {
+    loadedTenantIds = new ArrayList<>();
+    cache =
+        new AttributeMetadataCacheImpl(
+            new AttributeMetadataCacheConfig(true, 10, Duration.ofMinutes(1)),
+            tenantId -> {
+              loadedTenantIds.add(tenantId);
+              return ROOT_TENANT_ID.equals(tenantId)
+                  ? List.of(SYSTEM_ATTRIBUTE, INTERNAL_SYSTEM_ATTRIBUTE)
+                  : List.of(CUSTOM_ATTRIBUTE);
+            });
+  }
+
+  @Test
+  void sharesRootAttributesAcrossTenants() {
+    assertEquals(
+        List.of(SYSTEM_ATTRIBUTE, INTERNAL_SYSTEM_ATTRIBUTE, CUSTOM_ATTRIBUTE),
+        cache.getAll(TEST_TENANT_ID));
+    cache.get(TEST_TENANT_ID, AttributeMetadataFilter.getDefaultInstance());
+    cache.getAll(OTHER_TENANT_ID);
+
+    assertEquals(List.of(ROOT_TENANT_ID, TEST_TENANT_ID, OTHER_TENANT_ID), loadedTenantIds);
+  }
+
+  @Test
+  void doesNotDuplicateRootAttributesForRootTenant() {
+    assertEquals(
+        List.of(SYSTEM_ATTRIBUTE, INTERNAL_SYSTEM_ATTRIBUTE), cache.getAll(ROOT_TENANT_ID));
+    assertEquals(List.of(ROOT_TENANT_ID), loadedTenantIds);
+  }
+
+  @Test
+  void filtersCachedAttributes() {
+    assertEquals(
+        List.of(SYSTEM_ATTRIBUTE, CUSTOM_ATTRIBUTE),
+        cache.get(
+            TEST_TENANT_ID,
+            AttributeMetadataFilter.newBuilder().addScope(AttributeScope.EVENT).build()));
+    assertEquals(
+        List.of(CUSTOM_ATTRIBUTE),
+        cache.get(
+            TEST_TENANT_ID,
+            AttributeMetadataFilter.newBuilder().addScopeString("EVENT").addKey("type").build()));
+    assertEquals(
+        List.of(SYSTEM_ATTRIBUTE),
+        cache.get(
+            TEST_TENANT_ID, AttributeMetadataFilter.newBuilder().addFqn("EVENT.name").build()));
+    assertEquals(
+        List.of(INTERNAL_SYSTEM_ATTRIBUTE),
+        cache.get(TEST_TENANT_ID, AttributeMetadataFilter.newBuilder().setInternal(true).build()));
+    assertEquals(
+        List.of(SYSTEM_ATTRIBUTE, INTERNAL_SYSTEM_ATTRIBUTE),
+        cache.get(TEST_TENANT_ID, AttributeMetadataFilter.newBuilder().setCustom(false).build()));
+    assertEquals(
+        List.of(CUSTOM_ATTRIBUTE),
+        cache.get(TEST_TENANT_ID, AttributeMetadataFilter.newBuilder().setCustom(true).build()));
+  }
+
+  @Test
+  void invalidatesOnlyTheWrittenTenant() {
+    cache.getAll(TEST_TENANT_ID);
+    cache.getAll(OTHER_TENANT_ID);
+
+    cache.invalidate(TEST_TENANT_ID);
+    cache.getAll(TEST_TENANT_ID);
+    cache.getAll(OTHER_TENANT_ID);
+    assertEquals(4, loadedTenantIds.size());
+
+    cache.invalidate(ROOT_TENANT_ID);
+    cache.getAll(TEST_TENANT_ID);
+    cache.getAll(OTHER_TENANT_ID);
+    assertEquals(5, loadedTenantIds.size());
+  }
+
+  @Test
+  void doesNotCacheLoadRunningWhileInvalidated() throws Exception {
+    final CountDownLatch loadStarted = new CountDownLatch(1);
+    final CountDownLatch writeDone = new CountDownLatch(1);
+    final AtomicReference<List<AttributeMetadata>> storedAttributes =
+        new AtomicReference<>(List.of(CUSTOM_ATTRIBUTE));
+    final AttributeMetadata writtenAttribute =
+        CUSTOM_ATTRIBUTE.toBuilder().setDisplayName("written").build();
+    final AttributeMetadataCache blockingCache =
+        new AttributeMetadataCacheImpl(
+            new AttributeMetadataCacheConfig(true, 10, Duration.ofMinutes(1)),
+            tenantId -> {
+              if (ROOT_TENANT_ID.equals(tenantId)) {
+                return List.of();
+              }
+              final List<AttributeMetadata> attributes = storedAttributes.get();
+              if (loadStarted.getCount() > 0) {
+                // Read the store before the write, then block until it is invalidated
+                loadStarted.countDown();
+                awaitUninterruptibly(writeDone);
+              }
+              return attributes;
+            });
+
+    final CompletableFuture<List<AttributeMetadata>> blockedRead =
+        CompletableFuture.supplyAsync(() -> blockingCache.getAll(TEST_TENANT_ID));
+    loadStarted.await();
+    storedAttributes.set(List.of(writtenAttribute));
+    blockingCache.invalidate(TEST_TENANT_ID);
+    writeDone.countDown();
+
+    assertEquals(List.of(writtenAttribute), blockedRead.get(10, TimeUnit.SECONDS));
+    assertEquals(List.of(writtenAttribute), blockingCache.getAll(TEST_TENANT_ID));
+  }
+}
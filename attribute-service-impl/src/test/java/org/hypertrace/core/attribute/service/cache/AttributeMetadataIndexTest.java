@@ -0,0 +1,95 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.junit.jupiter.api.Test;
+
+class AttributeMetadataIndexTest {
+  private static final AttributeMetadata EVENT_NAME =
+      AttributeMetadata.newBuilder()
+          .setFqn("EVENT.name")
+          .setKey("name")
+          .setScopeString(AttributeScope.EVENT.name())
+          .build();
+  private static final AttributeMetadata EVENT_ID =
+      AttributeMetadata.newBuilder()
+          .setFqn("EVENT.id")
+          .setKey("id")
+          .setScopeString(AttributeScope.EVENT.name())
+          .setInternal(true)
+          .build();
+  private static final AttributeMetadata API_NAME =
+      AttributeMetadata.newBuilder()
+          .setFqn("API.name")
+          .setKey("name")
+          .setScopeString(AttributeScope.API.name())
+          .build();
+  private static final AttributeMetadata OTHER_NAME =
+      AttributeMetadata.newBuilder()
+          .setFqn("OTHER.name")
+          .setKey("name")
+          .setScopeString("OTHER")
+          .build();
+
+  private final AttributeMetadataIndex index =
+      AttributeMetadataIndex.of(List.of(EVENT_NAME, EVENT_ID, API_NAME, OTHER_NAME));
+
+  @Test
+  void returnsEverythingForEmptyFilter() {
+    assertEquals(
+        List.of(EVENT_NAME, EVENT_ID, API_NAME, OTHER_NAME),
+        index.find(AttributeMetadataFilter.getDefaultInstance()));
+  }
+
+  @Test
+  void intersectsFieldsAndUnionsValues() {
+    assertEquals(
+        List.of(EVENT_NAME, OTHER_NAME),
+        index.find(
+            AttributeMetadataFilter.newBuilder()
+                .addKey("name")
+                .addKey("unknown")
+                .addScope(AttributeScope.EVENT)
+                .addScopeString("OTHER")
+                .build()));
+    assertEquals(
+        List.of(API_NAME),
+        index.find(
+            AttributeMetadataFilter.newBuilder()
+                .addFqn("API.name")
+                .addFqn("EVENT.id")
+                .addScopeString("API")
+                .build()));
+  }
+
+  @Test
+  void keepsSnapshotOrderAcrossRepeatedValues() {
+    assertEquals(
+        List.of(EVENT_NAME, API_NAME, OTHER_NAME),
+        index.find(
+            AttributeMetadataFilter.newBuilder()
+                .addScopeString("OTHER")
+                .addScopeString("API")
+                .addScope(AttributeScope.EVENT)
+                .addScope(AttributeScope.API)
+                .addKey("name")
+                .build()));
+  }
+
+  @Test
+  void filtersOnInternal() {
+    assertEquals(
+        List.of(EVENT_ID),
+        index.find(AttributeMetadataFilter.newBuilder().setInternal(true).build()));
+    assertEquals(
+        List.of(EVENT_NAME, API_NAME, OTHER_NAME),
+        index.find(AttributeMetadataFilter.newBuilder().setInternal(false).build()));
+    assertEquals(
+        List.of(),
+        index.find(AttributeMetadataFilter.newBuilder().addKey("name").setInternal(true).build()));
+  }
+}
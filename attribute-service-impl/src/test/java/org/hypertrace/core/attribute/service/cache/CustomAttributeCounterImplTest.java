@@ -0,0 +1,95 @@
+package org.hypertrace.core.attribute.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class CustomAttributeCounterImplTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+
+  private Collection mockCollection;
+  private CustomAttributeCounter customAttributeCounter;
+
+  @BeforeEach
+  void setUp() {
+    mockCollection = mock(Collection.class);
+    customAttributeCounter = new CustomAttributeCounterImpl(mockCollection);
+  }
+
+  @Test
+  void readsCountOnceThenTracksWrites() {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(toCloseableIterator(List.of("{\"id\":\"EVENT.a\"}", "{\"id\":\"EVENT.b\"}")));
+
+    assertEquals(2, customAttributeCounter.count(TEST_TENANT_ID));
+    customAttributeCounter.onCreated(TEST_TENANT_ID, List.of("EVENT.b", "EVENT.c"));
+    assertEquals(3, customAttributeCounter.count(TEST_TENANT_ID));
+    customAttributeCounter.onDeleted(TEST_TENANT_ID, List.of("EVENT.a"));
+    assertEquals(2, customAttributeCounter.count(TEST_TENANT_ID));
+
+    final ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(mockCollection, times(1)).search(queryCaptor.capture());
+    assertEquals(List.of("id"), queryCaptor.getValue().getSelections());
+    final Filter[] filters = queryCaptor.getValue().getFilter().getChildFilters();
+    assertEquals("tenant_id", filters[1].getFieldName());
+    assertEquals(TEST_TENANT_ID, filters[1].getValue());
+  }
+
+  @Test
+  void ignoresWritesToTenantsNotCountedYet() {
+    customAttributeCounter.onCreated(TEST_TENANT_ID, List.of("EVENT.a"));
+    customAttributeCounter.onDeleted(TEST_TENANT_ID, List.of("EVENT.b"));
+    verifyNoInteractions(mockCollection);
+  }
+
+  @Test
+  void reconcilesCountWithStore() {
+    customAttributeCounter = new CustomAttributeCounterImpl(mockCollection, Duration.ZERO);
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(toCloseableIterator(List.of("{\"id\":\"EVENT.a\"}")))
+        .thenReturn(toCloseableIterator(List.of()));
+
+    assertEquals(1, customAttributeCounter.count(TEST_TENANT_ID));
+    assertEquals(0, customAttributeCounter.count(TEST_TENANT_ID));
+  }
+
+  private static CloseableIterator<Document> toCloseableIterator(final List<String> documents) {
+    final Iterator<String> iterator = documents.iterator();
+    return new CloseableIterator<>() {
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Document next() {
+        try {
+          return new JSONDocument(iterator.next());
+        } catch (IOException e) {
+          throw new IllegalArgumentException(e);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,172 @@
+package org.hypertrace.core.attribute.service.changelog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.Filter;
+import org.hypertrace.core.documentstore.Filter.Op;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AttributeChangeLogImplTest {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+
+  private Collection mockCollection;
+  private AtomicLong now;
+  private AttributeChangeLog changeLog;
+
+  @BeforeEach
+  void setUp() {
+    mockCollection = mock(Collection.class);
+    now = new AtomicLong(1000);
+    changeLog = new AttributeChangeLogImpl(mockCollection, Duration.ofMillis(100), now::get);
+  }
+
+  @Test
+  void issuesIncreasingVersionsPerTenant() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(true);
+
+    // Reads stay below writes made in the same millisecond, without advancing the clock
+    assertEquals(999, changeLog.getCatalogVersion(TEST_TENANT_ID));
+    assertEquals(999, changeLog.getCatalogVersion(TEST_TENANT_ID));
+    assertEquals(1000, changeLog.recordChanges(TEST_TENANT_ID, List.of("EVENT.name")));
+    assertEquals(1001, changeLog.recordChanges(TEST_TENANT_ID, List.of("EVENT.name")));
+    assertEquals(1001, changeLog.getCatalogVersion(TEST_TENANT_ID));
+    assertEquals(999, changeLog.getCatalogVersion("other-tenant-id"));
+
+    now.set(2000);
+    assertEquals(2000, changeLog.recordChanges(TEST_TENANT_ID, List.of("EVENT.name")));
+  }
+
+  @Test
+  void recordsOneEntryPerAttribute() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(true);
+
+    changeLog.recordChanges(TEST_TENANT_ID, List.of("EVENT.name", "EVENT.type"));
+
+    ArgumentCaptor<Map<Key, Document>> entriesCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(mockCollection).bulkUpsert(entriesCaptor.capture());
+    Set<String> recordedAttributeIds = new HashSet<>();
+    for (Document entry : entriesCaptor.getValue().values()) {
+      JsonNode entryJson = OBJECT_MAPPER.readTree(entry.toJson());
+      assertEquals(TEST_TENANT_ID, entryJson.get("tenant_id").asText());
+      assertEquals(1000, entryJson.get("catalog_version").asLong());
+      recordedAttributeIds.add(entryJson.get("attribute_id").asText());
+    }
+    assertEquals(Set.of("EVENT.name", "EVENT.type"), recordedAttributeIds);
+  }
+
+  @Test
+  void skipsStoreForEmptyChanges() throws IOException {
+    assertEquals(1000, changeLog.recordChanges(TEST_TENANT_ID, List.of()));
+    verifyNoInteractions(mockCollection);
+  }
+
+  @Test
+  void failsIfChangesAreNotRecorded() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(false);
+    assertThrows(
+        IOException.class, () -> changeLog.recordChanges(TEST_TENANT_ID, List.of("EVENT.name")));
+  }
+
+  @Test
+  void readsChangesWithinClockSkewAllowance() throws IOException {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(
+                List.of(
+                    new JSONDocument(
+                        "{\"tenant_id\":\"__root\",\"attribute_id\":\"EVENT.name\","
+                            + "\"catalog_version\":950}"),
+                    new JSONDocument(
+                        "{\"tenant_id\":\"test-tenant-id\",\"attribute_id\":\"EVENT.type\","
+                            + "\"catalog_version\":1200}"))));
+
+    assertEquals(
+        Set.of("EVENT.name", "EVENT.type"), changeLog.getChangedAttributeIds(TEST_TENANT_ID, 1000));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(mockCollection).search(queryCaptor.capture());
+    Filter filter = queryCaptor.getValue().getFilter();
+    assertEquals(Op.AND, filter.getOp());
+    assertEquals(List.of("__root", TEST_TENANT_ID), filter.getChildFilters()[0].getValue());
+    assertEquals(Op.GT, filter.getChildFilters()[1].getOp());
+    assertEquals("catalog_version", filter.getChildFilters()[1].getFieldName());
+    assertEquals(900L, filter.getChildFilters()[1].getValue());
+  }
+
+  @Test
+  void readsChangesOfSeveralTenantsAtOnce() throws IOException {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(
+                List.of(
+                    new JSONDocument(
+                        "{\"tenant_id\":\"__root\",\"attribute_id\":\"EVENT.name\","
+                            + "\"catalog_version\":1500}"),
+                    new JSONDocument(
+                        "{\"tenant_id\":\"test-tenant-id\",\"attribute_id\":\"EVENT.type\","
+                            + "\"catalog_version\":1200}"),
+                    new JSONDocument(
+                        "{\"tenant_id\":\"other-tenant-id\",\"attribute_id\":\"EVENT.other\","
+                            + "\"catalog_version\":1200}"))));
+
+    assertEquals(
+        Map.of(
+            TEST_TENANT_ID,
+            Set.of("EVENT.name", "EVENT.type"),
+            "other-tenant-id",
+            Set.of("EVENT.name")),
+        changeLog.getChangedAttributeIds(Map.of(TEST_TENANT_ID, 1000L, "other-tenant-id", 1400L)));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(mockCollection).search(queryCaptor.capture());
+    Filter filter = queryCaptor.getValue().getFilter();
+    assertEquals(
+        Set.of("__root", TEST_TENANT_ID, "other-tenant-id"),
+        Set.copyOf((List<?>) filter.getChildFilters()[0].getValue()));
+    assertEquals(900L, filter.getChildFilters()[1].getValue());
+  }
+
+  private static CloseableIterator<Document> toCloseableIterator(List<Document> documents) {
+    Iterator<Document> iterator = documents.iterator();
+    return new CloseableIterator<>() {
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Document next() {
+        return iterator.next();
+      }
+    };
+  }
+}
@@ -0,0 +1,114 @@
+package org.hypertrace.core.attribute.service.converter;
+
+import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AggregateFunction;
+import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeScope;
+import org.hypertrace.core.attribute.service.v1.AttributeSource;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeType;
+import org.hypertrace.core.attribute.service.v1.LiteralValue;
+import org.hypertrace.core.attribute.service.v1.Projection;
+import org.hypertrace.core.attribute.service.v1.ProjectionExpression;
+import org.hypertrace.core.attribute.service.v1.ProjectionOperator;
+import org.junit.jupiter.api.Test;
+
+class AttributeMetadataJsonDecoderTest {
+  private final AttributeMetadataJsonDecoder decoder = new AttributeMetadataJsonDecoder();
+
+  @Test
+  void decodesSameAsModel() throws IOException {
+    final AttributeMetadataModel model =
+        AttributeMetadataModel.fromDTO(
+            AttributeMetadata.newBuilder()
+                .setFqn("EVENT.name")
+                .setKey("name")
+                .setDisplayName("Name")
+                .setScopeString(AttributeScope.EVENT.name())
+                .setValueKind(AttributeKind.TYPE_STRING)
+                .setType(AttributeType.ATTRIBUTE)
+                .setMaterialized(true)
+                .setUnit("ms")
+                .addLabels("label")
+                .addSupportedAggregations(AggregateFunction.DISTINCT_COUNT)
+                .setOnlyAggregationsAllowed(true)
+                .addSources(AttributeSource.QS)
+                .putMetadata(
+                    AttributeSource.QS.name(),
+                    AttributeSourceMetadata.newBuilder()
+                        .putSourceMetadata("path", "attributes.name")
+                        .build())
+                .setDefinition(
+                    AttributeDefinition.newBuilder()
+                        .setProjection(
+                            Projection.newBuilder()
+                                .setExpression(
+                                    ProjectionExpression.newBuilder()
+                                        .setOperator(ProjectionOperator.PROJECTION_OPERATOR_CONCAT)
+                                        .addArguments(
+                                            Projection.newBuilder().setAttributeId("EVENT.key"))
+                                        .addArguments(
+                                            Projection.newBuilder()
+                                                .setLiteral(
+                                                    LiteralValue.newBuilder()
+                                                        .setStringValue("-")))
+                                        .addArguments(
+                                            Projection.newBuilder()
+                                                .setLiteral(
+                                                    LiteralValue.newBuilder()
+                                                        .setIntValue(42L))))))
+                .setInternal(true)
+                .setDescription("description")
+                .build());
+    model.setTenantId("test-tenant-id");
+
+    assertDecodesSameAsModel(model.toJson());
+  }
+
+  @Test
+  void decodesSameAsModelForRootAttributeWithoutOptionalFields() throws IOException {
+    final AttributeMetadataModel model =
+        AttributeMetadataModel.fromDTO(
+            AttributeMetadata.newBuilder()
+                .setFqn("API.id")
+                .setKey("id")
+                .setScopeString(AttributeScope.API.name())
+                .setValueKind(AttributeKind.TYPE_INT64)
+                .build());
+    model.setTenantId(ROOT_TENANT_ID);
+
+    assertDecodesSameAsModel(model.toJson());
+  }
+
+  @Test
+  void decodesLegacyScopeAndIgnoresStoreFields() throws IOException {
+    final String json =
+        "{\"_id\":{\"$oid\":\"5f1a\"},\"fqn\":\"fqn\",\"key\":\"key\",\"scope\":\"EVENT\","
+            + "\"display_name\":\"Key\",\"type\":\"ATTRIBUTE\",\"value_kind\":\"TYPE_STRING\","
+            + "\"unit\":null,\"tenant_id\":\"tenant\","
+            + "\"definition\":{},\"unknown\":[1,{\"a\":2}]}";
+
+    assertDecodesSameAsModel(json);
+    assertEquals("EVENT.key", decoder.decode(json).getId());
+  }
+
+  @Test
+  void failsOnInvalidEnumValue() {
+    assertThrows(
+        IOException.class,
+        () -> decoder.decode("{\"key\":\"key\",\"value_kind\":\"TYPE_UNKNOWN\"}"));
+  }
+
+  private void assertDecodesSameAsModel(final String json) throws IOException {
+    assertEquals(
+        AttributeMetadataModel.fromJson(json).toDTOBuilder().build(),
+        decoder.decode(json).build());
+  }
+}
@@ -0,0 +1,206 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.hypertrace.core.attribute.service.cache.CustomAttributeCounter;
+import org.hypertrace.core.attribute.service.model.AttributeMetadataModel;
+import org.hypertrace.core.attribute.service.v1.AttributeKind;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeType;
+import org.hypertrace.core.attribute.service.v1.CreateAttributesChunkResult;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AttributeCreatorImplTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+
+  private Collection mockCollection;
+  private CustomAttributeCounter mockCustomAttributeCounter;
+  private AttributeCreator.WriteListener mockWriteListener;
+  private AttributeCreator attributeCreatorImpl;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    mockCollection = mock(Collection.class);
+    mockCustomAttributeCounter = mock(CustomAttributeCounter.class);
+    mockWriteListener = mock(AttributeCreator.WriteListener.class);
+    attributeCreatorImpl =
+        new AttributeCreatorImpl(
+            mockCollection, mockCustomAttributeCounter, mockWriteListener, 2, Runnable::run);
+    when(mockCollection.search(any(Query.class))).thenReturn(toCloseableIterator(List.of()));
+  }
+
+  @Test
+  void testCreateInChunks() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(true);
+
+    final List<CreateAttributesChunkResult> results =
+        attributeCreatorImpl.create(
+            TEST_TENANT_ID, List.of(attribute("a"), attribute("b"), attribute("c")));
+
+    assertEquals(
+        List.of(
+            CreateAttributesChunkResult.newBuilder()
+                .setAttributeCount(2)
+                .setCreatedCount(2)
+                .build(),
+            CreateAttributesChunkResult.newBuilder()
+                .setAttributeCount(1)
+                .setCreatedCount(1)
+                .build()),
+        results);
+    final ArgumentCaptor<Map<Key, Document>> documentsCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(mockCollection, times(2)).bulkUpsert(documentsCaptor.capture());
+    assertEquals(2, documentsCaptor.getAllValues().get(0).size());
+    assertEquals(1, documentsCaptor.getAllValues().get(1).size());
+    verify(mockWriteListener).onWritten(TEST_TENANT_ID, List.of("EVENT.a", "EVENT.b"));
+    verify(mockWriteListener).onWritten(TEST_TENANT_ID, List.of("EVENT.c"));
+    verify(mockCustomAttributeCounter).onCreated(TEST_TENANT_ID, List.of("EVENT.a", "EVENT.b"));
+    verify(mockCustomAttributeCounter).onCreated(TEST_TENANT_ID, List.of("EVENT.c"));
+  }
+
+  @Test
+  void testCreateSkipsUnchangedAttributes() throws IOException {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(
+                List.of(
+                    String.format(
+                        "{\"id\":\"EVENT.a\",\"content_hash\":\"%s\"}", contentHashOf("a")),
+                    "{\"id\":\"EVENT.b\",\"content_hash\":\"outdated\"}")));
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(true);
+
+    final List<CreateAttributesChunkResult> results =
+        attributeCreatorImpl.create(TEST_TENANT_ID, List.of(attribute("a"), attribute("b")));
+
+    assertEquals(
+        List.of(
+            CreateAttributesChunkResult.newBuilder()
+                .setAttributeCount(2)
+                .setUpdatedCount(1)
+                .setUnchangedCount(1)
+                .build()),
+        results);
+    final ArgumentCaptor<Map<Key, Document>> documentsCaptor = ArgumentCaptor.forClass(Map.class);
+    verify(mockCollection).bulkUpsert(documentsCaptor.capture());
+    assertEquals(1, documentsCaptor.getValue().size());
+    verify(mockWriteListener).onWritten(TEST_TENANT_ID, List.of("EVENT.b"));
+  }
+
+  @Test
+  void testCreateWithoutChangesDoesNotWrite() throws IOException {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(
+                List.of(
+                    String.format(
+                        "{\"id\":\"EVENT.a\",\"content_hash\":\"%s\"}", contentHashOf("a")))));
+
+    final List<CreateAttributesChunkResult> results =
+        attributeCreatorImpl.create(TEST_TENANT_ID, List.of(attribute("a")));
+
+    assertEquals(
+        List.of(
+            CreateAttributesChunkResult.newBuilder()
+                .setAttributeCount(1)
+                .setUnchangedCount(1)
+                .build()),
+        results);
+    verify(mockCollection, never()).bulkUpsert(anyMap());
+    verify(mockWriteListener, never()).onWritten(anyString(), anyList());
+  }
+
+  @Test
+  void testCreateReportsFailedChunks() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(false, true);
+
+    final List<CreateAttributesChunkResult> results =
+        attributeCreatorImpl.create(
+            TEST_TENANT_ID, List.of(attribute("a"), attribute("b"), attribute("c")));
+
+    assertEquals(2, results.size());
+    assertEquals("Could not bulk upsert the attributes", results.get(0).getErrorMessage());
+    assertEquals("", results.get(1).getErrorMessage());
+    verify(mockWriteListener, never()).onWritten(TEST_TENANT_ID, List.of("EVENT.a", "EVENT.b"));
+    verify(mockWriteListener).onWritten(TEST_TENANT_ID, List.of("EVENT.c"));
+    verify(mockCustomAttributeCounter, never())
+        .onCreated(TEST_TENANT_ID, List.of("EVENT.a", "EVENT.b"));
+    verify(mockCustomAttributeCounter).onCreated(TEST_TENANT_ID, List.of("EVENT.c"));
+  }
+
+  @Test
+  void testCreateDoesNotReportListenerFailure() throws IOException {
+    when(mockCollection.bulkUpsert(anyMap())).thenReturn(true);
+    doThrow(new IOException("unavailable"))
+        .when(mockWriteListener)
+        .onWritten(TEST_TENANT_ID, List.of("EVENT.a"));
+
+    final List<CreateAttributesChunkResult> results =
+        attributeCreatorImpl.create(TEST_TENANT_ID, List.of(attribute("a")));
+
+    // The chunk was persisted, so it is neither reported as failed nor left out of the count
+    assertEquals("", results.get(0).getErrorMessage());
+    assertEquals(1, results.get(0).getCreatedCount());
+    verify(mockCustomAttributeCounter).onCreated(TEST_TENANT_ID, List.of("EVENT.a"));
+  }
+
+  private static String contentHashOf(final String key) {
+    final AttributeMetadataModel attributeMetadataModel =
+        AttributeMetadataModel.fromDTO(attribute(key));
+    attributeMetadataModel.setTenantId(TEST_TENANT_ID);
+    return attributeMetadataModel.computeContentHash();
+  }
+
+  private static AttributeMetadata attribute(final String key) {
+    return AttributeMetadata.newBuilder()
+        .setScopeString("EVENT")
+        .setKey(key)
+        .setFqn("EVENT." + key)
+        .setValueKind(AttributeKind.TYPE_STRING)
+        .setType(AttributeType.ATTRIBUTE)
+        .build();
+  }
+
+  private static CloseableIterator<Document> toCloseableIterator(final List<String> documents) {
+    final Iterator<String> iterator = documents.iterator();
+    return new CloseableIterator<>() {
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Document next() {
+        try {
+          return new JSONDocument(iterator.next());
+        } catch (IOException e) {
+          throw new IllegalArgumentException(e);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,100 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
+import org.hypertrace.core.documentstore.BulkDeleteResult;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.Key;
+import org.hypertrace.core.documentstore.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AttributeDeleterImplTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+  private static final AttributeMetadataFilter FILTER =
+      AttributeMetadataFilter.newBuilder().setCustom(true).addKey("name").build();
+
+  private Collection mockCollection;
+  private AttributeDeleter attributeDeleterImpl;
+
+  @BeforeEach
+  void setUp() {
+    mockCollection = mock(Collection.class);
+    attributeDeleterImpl = new AttributeDeleterImpl(mockCollection);
+  }
+
+  @Test
+  void testDelete() throws IOException {
+    when(mockCollection.search(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(
+                List.of(
+                    "{\"tenant_id\":\"test-tenant-id\",\"scope_string\":\"EVENT\","
+                        + "\"key\":\"name\"}",
+                    "{\"tenant_id\":\"test-tenant-id\",\"scope\":\"API\",\"key\":\"name\"}",
+                    "{\"tenant_id\":\"__root\",\"scope_string\":\"SPAN\",\"key\":\"name\"}")));
+    final BulkDeleteResult mockDeleteResult = mock(BulkDeleteResult.class);
+    when(mockDeleteResult.getDeletedCount()).thenReturn(2L);
+    when(mockCollection.delete(anySet())).thenReturn(mockDeleteResult);
+
+    assertEquals(
+        List.of("EVENT.name", "API.name"), attributeDeleterImpl.delete(TEST_TENANT_ID, FILTER));
+
+    final ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+    verify(mockCollection).search(queryCaptor.capture());
+    assertEquals(
+        List.of("tenant_id", "scope_string", "scope", "key"),
+        queryCaptor.getValue().getSelections());
+    final ArgumentCaptor<Set<Key>> keysCaptor = ArgumentCaptor.forClass(Set.class);
+    verify(mockCollection).delete(keysCaptor.capture());
+    assertEquals(
+        Set.of("test-tenant-id:EVENT:name", "test-tenant-id:API:name"),
+        keysCaptor.getValue().stream().map(Key::toString).collect(Collectors.toSet()));
+  }
+
+  @Test
+  void testDeleteWithoutMatchingAttributes() throws IOException {
+    when(mockCollection.search(any(Query.class))).thenReturn(toCloseableIterator(List.of()));
+
+    assertEquals(List.of(), attributeDeleterImpl.delete(TEST_TENANT_ID, FILTER));
+    verify(mockCollection, never()).delete(anySet());
+  }
+
+  private static CloseableIterator<Document> toCloseableIterator(final List<String> documents) {
+    final Iterator<String> iterator = documents.iterator();
+    return new CloseableIterator<>() {
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Document next() {
+        try {
+          return new JSONDocument(iterator.next());
+        } catch (IOException e) {
+          throw new IllegalArgumentException(e);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,134 @@
+package org.hypertrace.core.attribute.service.delegate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.hypertrace.core.attribute.service.builder.AttributeUpdateBuilderImpl;
+import org.hypertrace.core.attribute.service.v1.AttributeSource;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataDeleteRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadataUpdateRequest;
+import org.hypertrace.core.documentstore.CloseableIterator;
+import org.hypertrace.core.documentstore.Collection;
+import org.hypertrace.core.documentstore.Document;
+import org.hypertrace.core.documentstore.JSONDocument;
+import org.hypertrace.core.documentstore.model.options.UpdateOptions;
+import org.hypertrace.core.documentstore.model.subdoc.SubDocumentUpdate;
+import org.hypertrace.core.documentstore.model.subdoc.UpdateOperator;
+import org.hypertrace.core.documentstore.query.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class AttributeSourceMetadataUpdaterImplTest {
+  private static final String TEST_TENANT_ID = "test-tenant-id";
+
+  private Collection mockCollection;
+  private AttributeSourceMetadataUpdater sourceMetadataUpdaterImpl;
+
+  @BeforeEach
+  void setUp() {
+    mockCollection = mock(Collection.class);
+    sourceMetadataUpdaterImpl = new AttributeSourceMetadataUpdaterImpl(mockCollection);
+  }
+
+  @Test
+  void testUpdate() throws IOException {
+    when(mockCollection.find(any(Query.class)))
+        .thenReturn(
+            toCloseableIterator(List.of("{\"id\":\"EVENT.name\"}", "{\"id\":\"EVENT.type\"}")));
+    when(mockCollection.bulkUpdate(any(Query.class), anyList(), any(UpdateOptions.class)))
+        .thenReturn(toCloseableIterator(List.of()));
+
+    final List<String> result =
+        sourceMetadataUpdaterImpl.update(
+            AttributeSourceMetadataUpdateRequest.newBuilder()
+                .setFqn("fqn")
+                .setSource(AttributeSource.EDS)
+                .putSourceMetadata("key", "value")
+                .build(),
+            TEST_TENANT_ID);
+
+    assertEquals(List.of("EVENT.name", "EVENT.type"), result);
+    final ArgumentCaptor<List<SubDocumentUpdate>> updatesCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(mockCollection)
+        .bulkUpdate(any(Query.class), updatesCaptor.capture(), any(UpdateOptions.class));
+    assertEquals(
+        List.of(
+            SubDocumentUpdate.of("metadata.EDS", new JSONDocument(Map.of("key", "value"))),
+            new AttributeUpdateBuilderImpl().buildContentHashReset()),
+        updatesCaptor.getValue());
+  }
+
+  @Test
+  void testDelete() throws IOException {
+    when(mockCollection.find(any(Query.class)))
+        .thenReturn(toCloseableIterator(List.of("{\"id\":\"EVENT.name\"}")));
+    when(mockCollection.bulkUpdate(any(Query.class), anyList(), any(UpdateOptions.class)))
+        .thenReturn(toCloseableIterator(List.of()));
+
+    final List<String> result =
+        sourceMetadataUpdaterImpl.delete(
+            AttributeSourceMetadataDeleteRequest.newBuilder()
+                .setFqn("fqn")
+                .setSource(AttributeSource.EDS)
+                .build(),
+            TEST_TENANT_ID);
+
+    assertEquals(List.of("EVENT.name"), result);
+    final ArgumentCaptor<List<SubDocumentUpdate>> updatesCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(mockCollection)
+        .bulkUpdate(any(Query.class), updatesCaptor.capture(), any(UpdateOptions.class));
+    assertEquals(UpdateOperator.UNSET, updatesCaptor.getValue().get(0).getOperator());
+    assertEquals("metadata.EDS", updatesCaptor.getValue().get(0).getSubDocument().getPath());
+    assertEquals("content_hash", updatesCaptor.getValue().get(1).getSubDocument().getPath());
+  }
+
+  @Test
+  void testUpdateWithoutMatchingAttributes() throws IOException {
+    when(mockCollection.find(any(Query.class))).thenReturn(toCloseableIterator(List.of()));
+
+    final List<String> result =
+        sourceMetadataUpdaterImpl.update(
+            AttributeSourceMetadataUpdateRequest.newBuilder()
+                .setFqn("fqn")
+                .setSource(AttributeSource.EDS)
+                .build(),
+            TEST_TENANT_ID);
+
+    assertEquals(List.of(), result);
+    verify(mockCollection, never()).bulkUpdate(any(Query.class), anyList(), any());
+  }
+
+  private static CloseableIterator<Document> toCloseableIterator(final List<String> documents) {
+    final Iterator<String> iterator = documents.iterator();
+    return new CloseableIterator<>() {
+      @Override
+      public void close() {}
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public Document next() {
+        try {
+          return new JSONDocument(iterator.next());
+        } catch (IOException e) {
+          throw new IllegalArgumentException(e);
+        }
+      }
+    };
+  }
+}
@@ -7,13 +7,17 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Lists;
 import io.grpc.StatusRuntimeException;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.IntStream;
+import org.hypertrace.core.attribute.service.changelog.AttributeChangeLog;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
 import org.hypertrace.core.attribute.service.v1.AttributeScope;
@@ -33,6 +37,7 @@ class AttributeUpdaterImplTest {
   private static final String TEST_TENANT_ID = "test-tenant-id";
 
   private Collection mockCollection;
+  private AttributeChangeLog mockChangeLog;
   private RequestContext mockContext;
 
   private AttributeUpdater attributeUpdaterImpl;
@@ -40,8 +45,9 @@ class AttributeUpdaterImplTest {
   @BeforeEach
   void setUp() {
     mockCollection = mock(Collection.class);
+    mockChangeLog = mock(AttributeChangeLog.class);
     mockContext = RequestContext.forTenantId(TEST_TENANT_ID);
-    attributeUpdaterImpl = new AttributeUpdaterImpl(mockCollection);
+    attributeUpdaterImpl = new AttributeUpdaterImpl(mockCollection, mockChangeLog);
   }
 
   @Test
@@ -95,6 +101,7 @@ class AttributeUpdaterImplTest {
 
     final UpdateMetadataResponse result = attributeUpdaterImpl.update(request, mockContext);
     assertEquals(expectedResult, result);
+    verify(mockChangeLog).recordChanges(TEST_TENANT_ID, List.of("attributeId"));
   }
 
   @Test
@@ -149,6 +156,7 @@ class AttributeUpdaterImplTest {
         .thenReturn(Optional.empty());
     assertThrows(
         StatusRuntimeException.class, () -> attributeUpdaterImpl.update(request, mockContext));
+    verifyNoInteractions(mockChangeLog);
   }
 
   @Test
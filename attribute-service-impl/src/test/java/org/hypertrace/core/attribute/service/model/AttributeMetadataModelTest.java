@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.hypertrace.core.attribute.service.v1.AttributeDefinition;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
@@ -556,4 +557,37 @@ public class AttributeMetadataModelTest {
 
     assertFalse(AttributeMetadataModel.fromJson(defaultDefinitionJson).toDTO().hasDefinition());
   }
+
+  @Test
+  void testContentHash() throws IOException {
+    final AttributeMetadataModel model =
+        AttributeMetadataModel.fromDTO(
+            AttributeMetadata.newBuilder()
+                .setFqn("fqn")
+                .setKey("key")
+                .setScopeString("EVENT")
+                .setType(AttributeType.ATTRIBUTE)
+                .setValueKind(AttributeKind.TYPE_STRING)
+                .build());
+    final Map<String, Map<String, String>> metadata = new LinkedHashMap<>();
+    metadata.put(AttributeSource.EDS.name(), Map.of("key", "value"));
+    metadata.put(AttributeSource.QS.name(), Map.of("key", "value"));
+    model.setMetadata(metadata);
+    final String contentHash = model.computeContentHash();
+
+    final Map<String, Map<String, String>> reorderedMetadata = new LinkedHashMap<>();
+    reorderedMetadata.put(AttributeSource.QS.name(), Map.of("key", "value"));
+    reorderedMetadata.put(AttributeSource.EDS.name(), Map.of("key", "value"));
+    model.setMetadata(reorderedMetadata);
+    Assertions.assertEquals(contentHash, model.computeContentHash());
+
+    model.setContentHash(contentHash);
+    final AttributeMetadataModel deserializedModel =
+        AttributeMetadataModel.fromJson(model.toJson());
+    Assertions.assertEquals(contentHash, deserializedModel.getContentHash());
+    Assertions.assertEquals(contentHash, deserializedModel.computeContentHash());
+
+    model.setDisplayName("Other Name");
+    Assertions.assertNotEquals(contentHash, model.computeContentHash());
+  }
 }
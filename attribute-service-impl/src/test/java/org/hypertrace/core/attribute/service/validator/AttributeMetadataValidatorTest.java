@@ -2,9 +2,11 @@ package org.hypertrace.core.attribute.service.validator;
 
 import static org.hypertrace.core.attribute.service.utils.tenant.TenantUtils.ROOT_TENANT_ID;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.typesafe.config.ConfigFactory;
+import java.util.List;
 import java.util.Map;
 import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
 import org.hypertrace.core.attribute.service.v1.AttributeKind;
@@ -115,4 +117,135 @@ public class AttributeMetadataValidatorTest {
               .validate(attributeCreateRequest, ROOT_TENANT_ID, () -> 7);
         });
   }
+
+  @Test
+  public void testAttributeMetadataValidatorDuplicateAttributes() {
+    AttributeMetadata attributeMetadata =
+        AttributeMetadata.newBuilder()
+            .setScope(AttributeScope.EVENT)
+            .setKey("name")
+            .setFqn("EVENT.name")
+            .setValueKind(AttributeKind.TYPE_STRING)
+            .setType(AttributeType.ATTRIBUTE)
+            .build();
+    IllegalArgumentException duplicateKeyException =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                new AttributeMetadataValidator()
+                    .validate(
+                        AttributeCreateRequest.newBuilder()
+                            .addAttributes(attributeMetadata)
+                            .addAttributes(attributeMetadata.toBuilder().setFqn("EVENT.other"))
+                            .addAttributes(attributeMetadata.toBuilder().setFqn("EVENT.another"))
+                            .build(),
+                        "someTenantId",
+                        () -> 0));
+    assertEquals(
+        "Duplicate scope + key found for:[EVENT=name]", duplicateKeyException.getMessage());
+
+    IllegalArgumentException duplicateFqnException =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                new AttributeMetadataValidator()
+                    .validate(
+                        AttributeCreateRequest.newBuilder()
+                            .addAttributes(attributeMetadata)
+                            .addAttributes(attributeMetadata.toBuilder().setKey("other"))
+                            .build(),
+                        "someTenantId",
+                        () -> 0));
+    assertEquals(
+        "Duplicate scope + FQN found for:[EVENT=EVENT.name]", duplicateFqnException.getMessage());
+  }
+
+  @Test
+  public void testAttributeMetadataValidatorConflictsWithExistingAttributes() {
+    AttributeMetadata attributeMetadata =
+        AttributeMetadata.newBuilder()
+            .setScope(AttributeScope.EVENT)
+            .setScopeString(AttributeScope.EVENT.name())
+            .setKey("name")
+            .setFqn("EVENT.name")
+            .setValueKind(AttributeKind.TYPE_STRING)
+            .setType(AttributeType.ATTRIBUTE)
+            .build();
+    AttributeCreateRequest attributeCreateRequest =
+        AttributeCreateRequest.newBuilder().addAttributes(attributeMetadata).build();
+    AttributeMetadataValidator validator =
+        new AttributeMetadataValidator(
+            ConfigFactory.parseMap(
+                Map.of(
+                    "max.custom.attributes.per.tenant", "5",
+                    "reject.conflicting.attributes", "true")));
+
+    // Existing attributes are not checked against unless conflicting attributes are rejected
+    assertDoesNotThrow(
+        () ->
+            new AttributeMetadataValidator()
+                .validate(
+                    attributeCreateRequest,
+                    "someTenantId",
+                    () -> 0,
+                    filter -> {
+                      throw new AssertionError("Existing attributes were searched");
+                    }));
+
+    // Overwriting an attribute of the tenant updates it
+    assertDoesNotThrow(
+        () ->
+            validator.validate(
+                attributeCreateRequest,
+                "someTenantId",
+                () -> 0,
+                filter -> {
+                  assertEquals(List.of("EVENT"), filter.getScopeStringList());
+                  return List.of(attributeMetadata.toBuilder().setCustom(true).build());
+                }));
+
+    // Another attribute of the scope is registered for the FQN
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            validator.validate(
+                attributeCreateRequest,
+                "someTenantId",
+                () -> 0,
+                filter ->
+                    List.of(
+                        attributeMetadata.toBuilder().setKey("other").setCustom(true).build())));
+
+    // The other attribute of the scope releases the FQN in the same request
+    assertDoesNotThrow(
+        () ->
+            validator.validate(
+                AttributeCreateRequest.newBuilder()
+                    .addAttributes(attributeMetadata)
+                    .addAttributes(
+                        attributeMetadata.toBuilder().setKey("other").setFqn("EVENT.other"))
+                    .build(),
+                "someTenantId",
+                () -> 0,
+                filter ->
+                    List.of(
+                        attributeMetadata.toBuilder().setKey("other").setCustom(true).build())));
+
+    // A system attribute would be shadowed
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            validator.validate(
+                attributeCreateRequest,
+                "someTenantId",
+                () -> 0,
+                filter -> List.of(attributeMetadata.toBuilder().setFqn("EVENT.other").build())));
+    assertDoesNotThrow(
+        () ->
+            validator.validate(
+                attributeCreateRequest,
+                ROOT_TENANT_ID,
+                () -> 0,
+                filter -> List.of(attributeMetadata.toBuilder().setFqn("EVENT.other").build())));
+  }
 }
@@ -0,0 +1,79 @@
+package org.hypertrace.core.attribute.service.validator;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.Message;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.AttributeSourceMetadata;
+import org.junit.jupiter.api.Test;
+
+class StringLengthValidatorImplTest {
+  private static final String LONG_STRING = "a".repeat(1001);
+
+  private final StringLengthValidator stringLengthValidator = new StringLengthValidatorImpl();
+
+  @Test
+  void acceptsStringsWithinLimit() {
+    assertDoesNotThrow(
+        () ->
+            this.stringLengthValidator.validate(
+                AttributeMetadata.newBuilder()
+                    .setKey("a".repeat(1000))
+                    .addLabels("label")
+                    .putMetadata(
+                        "EDS",
+                        AttributeSourceMetadata.newBuilder()
+                            .putSourceMetadata("key", "value")
+                            .build())
+                    .build()));
+  }
+
+  @Test
+  void rejectsLongString() {
+    assertInvalid(AttributeMetadata.newBuilder().setDisplayName(LONG_STRING).build());
+  }
+
+  @Test
+  void rejectsLongRepeatedString() {
+    assertInvalid(AttributeMetadata.newBuilder().addLabels("label").addLabels(LONG_STRING).build());
+  }
+
+  @Test
+  void rejectsLongMapKeyOrValue() {
+    assertInvalid(
+        AttributeMetadata.newBuilder()
+            .putMetadata(
+                "EDS",
+                AttributeSourceMetadata.newBuilder().putSourceMetadata("key", LONG_STRING).build())
+            .build());
+    assertInvalid(
+        AttributeMetadata.newBuilder()
+            .putMetadata(
+                "EDS",
+                AttributeSourceMetadata.newBuilder()
+                    .putSourceMetadata(LONG_STRING, "value")
+                    .build())
+            .build());
+  }
+
+  @Test
+  void rejectsLongStringInNestedMessage() {
+    assertInvalid(
+        AttributeCreateRequest.newBuilder()
+            .addAttributes(AttributeMetadata.newBuilder().setKey("key"))
+            .addAttributes(AttributeMetadata.newBuilder().setDescription(LONG_STRING))
+            .build());
+  }
+
+  private void assertInvalid(final Message message) {
+    final StatusRuntimeException exception =
+        assertThrows(
+            StatusRuntimeException.class, () -> this.stringLengthValidator.validate(message));
+    assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+  }
+}
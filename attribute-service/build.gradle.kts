@@ -81,6 +81,7 @@ tasks.run<JavaExec> {
 tasks.jacocoIntegrationTestReport {
   sourceSets(project(":attribute-service-impl").sourceSets.getByName("main"))
   sourceSets(project(":attribute-service-client").sourceSets.getByName("main"))
+  sourceSets(project(":attribute-service-client-common").sourceSets.getByName("main"))
 }
 
 hypertraceDocker {
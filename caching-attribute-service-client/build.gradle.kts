@@ -7,6 +7,7 @@ plugins {
 
 dependencies {
   api(projects.attributeServiceApi)
+  implementation(projects.attributeServiceClientCommon)
   api(commonLibs.rxjava3)
   api(commonLibs.grpc.api)
 
@@ -15,6 +16,7 @@ dependencies {
   implementation(commonLibs.hypertrace.grpcutils.rx.client)
   implementation(commonLibs.hypertrace.grpcutils.context)
   implementation(commonLibs.guava)
+  implementation(libs.caffeine)
   implementation(commonLibs.slf4j2.api)
 
   annotationProcessor(commonLibs.lombok)
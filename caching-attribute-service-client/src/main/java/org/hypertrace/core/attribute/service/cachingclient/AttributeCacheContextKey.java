@@ -16,14 +16,20 @@ class AttributeCacheContextKey {
 
   private static final String DEFAULT_IDENTITY = "default";
 
+  private final RequestContext requestContext;
   private final GrpcRxExecutionContext executionContext;
   private final String identity;
 
   private AttributeCacheContextKey(@Nonnull RequestContext requestContext) {
+    this.requestContext = requestContext;
     this.executionContext = GrpcRxExecutionContext.forContext(requestContext);
     this.identity = requestContext.getTenantId().orElse(DEFAULT_IDENTITY);
   }
 
+  public RequestContext getRequestContext() {
+    return requestContext;
+  }
+
   public GrpcRxExecutionContext getExecutionContext() {
     return executionContext;
   }
@@ -0,0 +1,111 @@
+package org.hypertrace.core.attribute.service.cachingclient;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
+
+/**
+ * Serves the last table of attributes loaded for a context while a reload runs in the background,
+ * rather than making callers wait for it. A table older than the refresh interval is served along
+ * with triggering a reload, and a table older than the max staleness is no longer served, making
+ * callers wait for the reload instead.
+ *
+ * <p>Concurrent loads are coalesced into one, whichever request context of the tenant triggered
+ * them. A failed load is only retried in the background after the error backoff, so the last table
+ * keeps being served without hammering a failing service.
+ */
+@Slf4j
+class AttributeTableRefresher {
+  // One log a minute
+  private static final RateLimiter LOGGING_LIMITER = RateLimiter.create(1 / 60d);
+
+  private final Function<AttributeCacheContextKey, Single<AttributeTable>> tableLoader;
+  private final long refreshIntervalNanos;
+  private final long maxStalenessNanos;
+  private final long errorBackoffNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicReference<SingleSubject<AttributeTable>> pendingLoad =
+      new AtomicReference<>();
+  private volatile LoadedTable loadedTable;
+  private volatile long nextBackgroundLoadNanos;
+
+  AttributeTableRefresher(
+      Function<AttributeCacheContextKey, Single<AttributeTable>> tableLoader,
+      Duration refreshInterval,
+      Duration maxStaleness,
+      Duration errorBackoff,
+      LongSupplier nanoClock) {
+    this.tableLoader = tableLoader;
+    this.refreshIntervalNanos = refreshInterval.toNanos();
+    this.maxStalenessNanos = maxStaleness.toNanos();
+    this.errorBackoffNanos = errorBackoff.toNanos();
+    this.nanoClock = nanoClock;
+    this.nextBackgroundLoadNanos = nanoClock.getAsLong();
+  }
+
+  /**
+   * @param key the context of the caller, used to load the table if needed, so that loads are
+   *     made with up to date credentials
+   */
+  Single<AttributeTable> getTable(AttributeCacheContextKey key) {
+    LoadedTable loaded = this.loadedTable;
+    long now = this.nanoClock.getAsLong();
+    if (loaded == null || now - loaded.loadedAtNanos >= this.maxStalenessNanos) {
+      return this.load(key);
+    }
+    if (now - loaded.loadedAtNanos >= this.refreshIntervalNanos
+        && now - this.nextBackgroundLoadNanos >= 0) {
+      this.load(key).subscribe(table -> {}, this::logBackgroundLoadError);
+    }
+    return Single.just(loaded.table);
+  }
+
+  private Single<AttributeTable> load(AttributeCacheContextKey key) {
+    while (true) {
+      SingleSubject<AttributeTable> pending = this.pendingLoad.get();
+      if (pending != null) {
+        return pending;
+      }
+      SingleSubject<AttributeTable> load = SingleSubject.create();
+      if (this.pendingLoad.compareAndSet(null, load)) {
+        this.tableLoader
+            .apply(key)
+            .subscribe(
+                table -> {
+                  this.loadedTable = new LoadedTable(table, this.nanoClock.getAsLong());
+                  this.pendingLoad.set(null);
+                  load.onSuccess(table);
+                },
+                error -> {
+                  this.nextBackgroundLoadNanos =
+                      this.nanoClock.getAsLong() + this.errorBackoffNanos;
+                  this.pendingLoad.set(null);
+                  load.onError(error);
+                });
+        return load;
+      }
+    }
+  }
+
+  private void logBackgroundLoadError(Throwable error) {
+    if (LOGGING_LIMITER.tryAcquire()) {
+      log.warn("Could not refresh attributes, serving the last attributes loaded", error);
+    }
+  }
+
+  private static final class LoadedTable {
+    private final AttributeTable table;
+    private final long loadedAtNanos;
+
+    private LoadedTable(AttributeTable table, long loadedAtNanos) {
+      this.table = table;
+      this.loadedAtNanos = loadedAtNanos;
+    }
+  }
+}
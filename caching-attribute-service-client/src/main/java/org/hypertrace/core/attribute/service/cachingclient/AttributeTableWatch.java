@@ -0,0 +1,53 @@
+package org.hypertrace.core.attribute.service.cachingclient;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.CompletableSubject;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.hypertrace.core.attribute.service.client.common.AbstractAttributeTableWatch;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+
+/**
+ * Watches the table of a context, emitting the latest table once the initial catalog is received,
+ * so the cached table never expires while the stream is up.
+ */
+class AttributeTableWatch extends AbstractAttributeTableWatch {
+  private final Consumer<Single<AttributeTable>> terminationListener;
+  private final CompletableSubject initialized = CompletableSubject.create();
+  private final Single<AttributeTable> latestTable;
+
+  /**
+   * @param tableBuilder builds a table from attributes
+   * @param terminationListener notified with {@link #getTable()} if the stream terminates without
+   *     being cancelled
+   */
+  AttributeTableWatch(
+      Function<List<AttributeMetadata>, AttributeTable> tableBuilder,
+      Consumer<Single<AttributeTable>> terminationListener) {
+    super(tableBuilder);
+    this.terminationListener = terminationListener;
+    this.latestTable = this.initialized.andThen(Single.fromCallable(this::getLatestTable));
+  }
+
+  /** Emits the latest table to each subscriber, once the initial catalog is received */
+  Single<AttributeTable> getTable() {
+    return this.latestTable;
+  }
+
+  @Override
+  protected void onInitialTable(AttributeTable table) {
+    this.initialized.onComplete();
+  }
+
+  @Override
+  protected void onTerminated(Throwable throwable, boolean cancelled) {
+    if (!this.initialized.hasComplete()) {
+      this.initialized.onError(throwable);
+    }
+    if (!cancelled) {
+      this.terminationListener.accept(this.latestTable);
+    }
+  }
+}
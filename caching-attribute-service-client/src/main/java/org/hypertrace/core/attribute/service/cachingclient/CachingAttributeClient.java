@@ -38,10 +38,14 @@ public interface CachingAttributeClient {
   final class Builder {
     private final Channel channel;
     private int maxCacheContexts = 100;
+    private long maxCachedAttributes = 0;
     private Duration cacheExpiration = Duration.of(3, ChronoUnit.MINUTES);
     private CallCredentials callCredentials =
         RequestContextClientCallCredsProviderFactory.getClientCallCredsProvider().get();
     private AttributeMetadataFilter attributeFilter = AttributeMetadataFilter.getDefaultInstance();
+    private boolean watchChanges = false;
+    private Duration maxStaleness = Duration.ZERO;
+    private Duration refreshErrorBackoff = Duration.of(10, ChronoUnit.SECONDS);
 
     private Builder(Channel channel) {
       this.channel = channel;
@@ -52,8 +56,12 @@ public interface CachingAttributeClient {
           this.channel,
           this.callCredentials,
           this.maxCacheContexts,
+          this.maxCachedAttributes,
           this.cacheExpiration,
-          this.attributeFilter);
+          this.attributeFilter,
+          this.watchChanges,
+          this.maxStaleness,
+          this.refreshErrorBackoff);
     }
 
     /**
@@ -68,6 +76,20 @@ public interface CachingAttributeClient {
       return this;
     }
 
+    /**
+     * Limits the total number of attributes to maintain in the cache across every context, rather
+     * than the number of contexts, so that a few contexts with large catalogs cannot crowd out
+     * many small ones. Contexts are evicted by recency and frequency of use. Replaces the maximum
+     * cache contexts if positive. Defaults to zero.
+     *
+     * @param maxCachedAttributes
+     * @return
+     */
+    public Builder withMaximumCachedAttributes(long maxCachedAttributes) {
+      this.maxCachedAttributes = maxCachedAttributes;
+      return this;
+    }
+
     /**
      * Expires a cached context the provided duration after write. Defaults to 15 minutes.
      *
@@ -102,5 +124,45 @@ public interface CachingAttributeClient {
       this.attributeFilter = attributeFilter;
       return this;
     }
+
+    /**
+     * Keeps each cached context up to date with the changes pushed by the service, rather than
+     * only refreshing it on expiry, so the cache expiration can be raised to hours. Requires a
+     * service supporting WatchAttributes. Defaults to false.
+     *
+     * @param watchChanges
+     * @return
+     */
+    public Builder withChangeWatching(boolean watchChanges) {
+      this.watchChanges = watchChanges;
+      return this;
+    }
+
+    /**
+     * Keeps serving a cached context past its expiration while it is reloaded in the background,
+     * until it is older than the provided duration. Concurrent loads of a context are coalesced,
+     * and a context failing to reload keeps being served until then. Only applies if longer than
+     * the cache expiration, and if changes are not watched. Defaults to zero.
+     *
+     * @param maxStaleness
+     * @return
+     */
+    public Builder withMaxStaleness(@Nonnull Duration maxStaleness) {
+      this.maxStaleness = maxStaleness;
+      return this;
+    }
+
+    /**
+     * Waits the provided duration after a failed background reload before trying again, serving
+     * the stale context meanwhile. Only applies with {@link #withMaxStaleness(Duration)}. Defaults
+     * to 10 seconds.
+     *
+     * @param refreshErrorBackoff
+     * @return
+     */
+    public Builder withRefreshErrorBackoff(@Nonnull Duration refreshErrorBackoff) {
+      this.refreshErrorBackoff = refreshErrorBackoff;
+      return this;
+    }
   }
 }
@@ -1,24 +1,29 @@
 package org.hypertrace.core.attribute.service.cachingclient;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableTable;
-import com.google.common.collect.Table;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.util.concurrent.RateLimiter;
 import io.grpc.CallCredentials;
 import io.grpc.Channel;
+import io.grpc.Context;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
 import org.hypertrace.core.attribute.service.v1.AttributeCreateRequest;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
 import org.hypertrace.core.attribute.service.v1.AttributeMetadataFilter;
@@ -30,40 +35,70 @@ import org.hypertrace.core.attribute.service.v1.GetAttributesResponse;
 import org.hypertrace.core.attribute.service.v1.Update;
 import org.hypertrace.core.attribute.service.v1.UpdateMetadataRequest;
 import org.hypertrace.core.attribute.service.v1.UpdateMetadataResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
+import org.hypertrace.core.grpcutils.context.RequestContext;
 
 @Slf4j
 class DefaultCachingAttributeClient implements CachingAttributeClient {
   // One log a minute
   private static final RateLimiter LOGGING_LIMITER = RateLimiter.create(1 / 60d);
   private final AttributeServiceStub attributeServiceClient;
-  private final LoadingCache<
-          AttributeCacheContextKey, Single<Table<String, String, AttributeMetadata>>>
-      cache;
-  private final Cache<String, AttributeScopeAndKey> scopeAndKeyLookup;
+  private final LoadingCache<AttributeCacheContextKey, CachedTable> cache;
   private final AttributeMetadataFilter attributeFilter;
+  private final boolean watchChanges;
+  private final boolean refreshAhead;
+  private final Map<Single<AttributeTable>, AttributeTableWatch> watches =
+      new ConcurrentHashMap<>();
+  // Shared by the tables of every context, so that identical attributes are only held once
+  private final Interner<AttributeMetadata> attributeInterner = Interners.newWeakInterner();
 
   DefaultCachingAttributeClient(
       @Nonnull Channel channel,
       @Nonnull CallCredentials credentials,
       int maxCacheContexts,
+      long maxCachedAttributes,
       @Nonnull Duration cacheExpiration,
-      @Nonnull AttributeMetadataFilter attributeFilter) {
+      @Nonnull AttributeMetadataFilter attributeFilter,
+      boolean watchChanges,
+      @Nonnull Duration maxStaleness,
+      @Nonnull Duration refreshErrorBackoff) {
 
     this.attributeFilter = attributeFilter;
+    this.watchChanges = watchChanges;
     this.attributeServiceClient =
         AttributeServiceGrpc.newStub(channel).withCallCredentials(credentials);
-    this.cache =
-        CacheBuilder.newBuilder()
-            .maximumSize(maxCacheContexts)
-            .expireAfterWrite(cacheExpiration)
-            .build(CacheLoader.from(this::loadTable));
-    this.scopeAndKeyLookup = CacheBuilder.newBuilder().expireAfterWrite(cacheExpiration).build();
+    // Changes are watched rather than refreshed if both are enabled
+    this.refreshAhead = !watchChanges && maxStaleness.compareTo(cacheExpiration) > 0;
+    RemovalListener<AttributeCacheContextKey, CachedTable> removalListener = this::cancelWatch;
+    Caffeine<Object, Object> cacheBuilder =
+        this.buildCacheBuilder(maxCacheContexts, maxCachedAttributes);
+    if (this.refreshAhead) {
+      // Refreshed tables are served until too stale, so are kept for as long as they are used
+      this.cache =
+          cacheBuilder
+              .expireAfterAccess(maxStaleness)
+              .build(
+                  key ->
+                      new CachedTable(
+                          new AttributeTableRefresher(
+                              this::loadTable,
+                              cacheExpiration,
+                              maxStaleness,
+                              refreshErrorBackoff,
+                              System::nanoTime)));
+    } else {
+      this.cache =
+          cacheBuilder
+              .expireAfter(new LoadedTableExpiry(cacheExpiration))
+              .removalListener(removalListener)
+              .build(key -> new CachedTable(this.loadTable(key)));
+    }
   }
 
   @Override
   public Single<AttributeMetadata> get(String scope, String key) {
     return this.getOrInvalidate(AttributeCacheContextKey.forCurrentContext())
-        .mapOptional(table -> Optional.ofNullable(table.get(scope, key)))
+        .mapOptional(table -> table.get(scope, key))
         .switchIfEmpty(
             buildAndLogErrorLazily(
                 "No attribute available for scope '%s' and key '%s'", scope, key));
@@ -72,23 +107,20 @@ class DefaultCachingAttributeClient implements CachingAttributeClient {
   @Override
   public Single<AttributeMetadata> get(String attributeId) {
     return this.getOrInvalidate(AttributeCacheContextKey.forCurrentContext())
-        .mapOptional(
-            table ->
-                Optional.ofNullable(this.scopeAndKeyLookup.getIfPresent(attributeId))
-                    .map(scopeAndKey -> table.get(scopeAndKey.scope, scopeAndKey.key)))
+        .mapOptional(table -> table.getById(attributeId))
         .switchIfEmpty(buildAndLogErrorLazily("No attribute available for id '%s'", attributeId));
   }
 
   @Override
   public Single<List<AttributeMetadata>> getAllInScope(String scope) {
     return this.getOrInvalidate(AttributeCacheContextKey.forCurrentContext())
-        .map(table -> List.copyOf(table.row(scope).values()));
+        .map(table -> table.getAllInScope(scope));
   }
 
   @Override
   public Single<List<AttributeMetadata>> getAll() {
     return this.getOrInvalidate(AttributeCacheContextKey.forCurrentContext())
-        .map(table -> List.copyOf(table.values()));
+        .map(AttributeTable::values);
   }
 
   @Override
@@ -99,7 +131,7 @@ class DefaultCachingAttributeClient implements CachingAttributeClient {
                 this.attributeServiceClient.create(
                     AttributeCreateRequest.newBuilder().addAllAttributes(attributeMetadata).build(),
                     streamObserver))
-        .doOnNext(empty -> cache.invalidate(key))
+        .doOnNext(empty -> this.invalidate(key))
         .ignoreElements();
   }
 
@@ -108,7 +140,7 @@ class DefaultCachingAttributeClient implements CachingAttributeClient {
     final AttributeCacheContextKey key = AttributeCacheContextKey.forCurrentContext();
     return key.getExecutionContext().<Empty>stream(
             streamObserver -> this.attributeServiceClient.delete(filter, streamObserver))
-        .doOnNext(empty -> cache.invalidate(key))
+        .doOnNext(empty -> this.invalidate(key))
         .ignoreElements();
   }
 
@@ -119,40 +151,110 @@ class DefaultCachingAttributeClient implements CachingAttributeClient {
     final AttributeCacheContextKey key = AttributeCacheContextKey.forCurrentContext();
     return key.getExecutionContext().<UpdateMetadataResponse>stream(
             streamObserver -> this.attributeServiceClient.updateMetadata(request, streamObserver))
-        .doOnNext(response -> cache.invalidate(key))
+        .doOnNext(response -> this.invalidate(key))
         .map(UpdateMetadataResponse::getAttribute)
         .firstOrError();
   }
 
-  private Single<Table<String, String, AttributeMetadata>> loadTable(AttributeCacheContextKey key) {
+  private Caffeine<Object, Object> buildCacheBuilder(
+      int maxCacheContexts, long maxCachedAttributes) {
+    // Maintenance runs on the calling thread, as it only cancels the watches of removed tables
+    Caffeine<Object, Object> cacheBuilder = Caffeine.newBuilder().executor(Runnable::run);
+    if (maxCachedAttributes <= 0) {
+      return cacheBuilder.maximumSize(maxCacheContexts);
+    }
+    return cacheBuilder
+        .maximumWeight(maxCachedAttributes)
+        .weigher((Object key, Object cachedTable) -> ((CachedTable) cachedTable).getWeight());
+  }
+
+  private Single<AttributeTable> loadTable(AttributeCacheContextKey key) {
+    if (this.watchChanges) {
+      return this.watchTable(key);
+    }
     return key.getExecutionContext().<GetAttributesResponse>stream(
             streamObserver ->
                 this.attributeServiceClient.getAttributes(
                     GetAttributesRequest.newBuilder().setFilter(this.attributeFilter).build(),
                     streamObserver))
         .flatMapIterable(GetAttributesResponse::getAttributesList)
-        .doOnNext(this::loadScopeAndKeyCache)
         .toList()
         .map(this::buildTable)
         .cache();
   }
 
-  private Table<String, String, AttributeMetadata> buildTable(List<AttributeMetadata> attributes) {
-    return attributes.stream()
-        .collect(
-            ImmutableTable.toImmutableTable(
-                AttributeMetadata::getScopeString, AttributeMetadata::getKey, Function.identity()));
+  private Single<AttributeTable> watchTable(AttributeCacheContextKey key) {
+    AttributeTableWatch watch =
+        new AttributeTableWatch(
+            this::buildTable,
+            table ->
+                this.cache
+                    .asMap()
+                    .computeIfPresent(
+                        key,
+                        (unused, cachedTable) -> cachedTable.table == table ? null : cachedTable));
+    this.watches.put(watch.getTable(), watch);
+    Context.current()
+        .withValue(RequestContext.CURRENT, key.getRequestContext())
+        .run(
+            () ->
+                this.attributeServiceClient.watchAttributes(
+                    WatchAttributesRequest.newBuilder().setFilter(this.attributeFilter).build(),
+                    watch));
+    return watch.getTable();
+  }
+
+  private void cancelWatch(
+      AttributeCacheContextKey key, CachedTable cachedTable, RemovalCause cause) {
+    // Reweighing a table replaces it with itself, which must keep its watch
+    if (cachedTable == null || cause == RemovalCause.REPLACED) {
+      return;
+    }
+    Optional.ofNullable(this.watches.remove(cachedTable.table))
+        .ifPresent(AttributeTableWatch::cancel);
+  }
+
+  private AttributeTable buildTable(List<AttributeMetadata> attributes) {
+    AttributeTable table = AttributeTable.of(attributes, this.attributeInterner);
+    if (log.isDebugEnabled()) {
+      log.debug(
+          "Built attribute table of {} attributes, indexed in about {} bytes",
+          table.size(),
+          table.estimateFootprintBytes());
+    }
+    return table;
+  }
+
+  private Single<AttributeTable> getOrInvalidate(AttributeCacheContextKey key) {
+    return Single.defer(
+        () -> {
+          CachedTable cachedTable = this.cache.get(key);
+          Single<AttributeTable> table =
+              cachedTable
+                  .getTable(key)
+                  .doOnSuccess(loaded -> this.updateWeight(key, cachedTable, loaded.size()));
+          // Errors of refreshed tables are not invalidated, so the last table keeps being served
+          // until too stale
+          return this.refreshAhead ? table : table.doOnError(x -> this.cache.invalidate(key));
+        });
   }
 
-  private Single<Table<String, String, AttributeMetadata>> getOrInvalidate(
-      AttributeCacheContextKey key) {
-    return this.cache.getUnchecked(key).doOnError(x -> this.cache.invalidate(key));
+  /**
+   * Tables are only weighed once loaded, and watched and refreshed tables change size, so are
+   * weighed again whenever their size is seen to change, by replacing the entry with itself. The
+   * replacement counts as a write, which does not postpone the expiry of loaded tables, as that
+   * is only set on creation, and as an access for refreshed tables, which were just accessed.
+   */
+  private void updateWeight(AttributeCacheContextKey key, CachedTable cachedTable, int size) {
+    if (cachedTable.attributeCount == size) {
+      return;
+    }
+    cachedTable.attributeCount = size;
+    this.cache.asMap().replace(key, cachedTable, cachedTable);
   }
 
-  private void loadScopeAndKeyCache(AttributeMetadata attributeMetadata) {
-    this.scopeAndKeyLookup.put(
-        attributeMetadata.getId(),
-        new AttributeScopeAndKey(attributeMetadata.getScopeString(), attributeMetadata.getKey()));
+  private void invalidate(AttributeCacheContextKey key) {
+    this.cache.invalidate(key);
   }
 
   private <T> Single<T> buildAndLogErrorLazily(String message, Object... args) {
@@ -165,13 +267,63 @@ class DefaultCachingAttributeClient implements CachingAttributeClient {
         });
   }
 
-  private static final class AttributeScopeAndKey {
-    private final String scope;
-    private final String key;
+  /** Expires tables a fixed time after they are loaded, however often they are weighed again */
+  private static final class LoadedTableExpiry
+      implements Expiry<AttributeCacheContextKey, CachedTable> {
+    private final long expirationNanos;
+
+    private LoadedTableExpiry(Duration expiration) {
+      this.expirationNanos = expiration.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(
+        AttributeCacheContextKey key, CachedTable cachedTable, long currentTime) {
+      return this.expirationNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        AttributeCacheContextKey key,
+        CachedTable cachedTable,
+        long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(
+        AttributeCacheContextKey key,
+        CachedTable cachedTable,
+        long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+  }
+
+  private static final class CachedTable {
+    // Either the table, loaded once, or the refresher of the table, which holds the latest loaded
+    @Nullable private final Single<AttributeTable> table;
+    @Nullable private final AttributeTableRefresher refresher;
+    private volatile int attributeCount;
+
+    private CachedTable(Single<AttributeTable> table) {
+      this.table = table;
+      this.refresher = null;
+    }
+
+    private CachedTable(AttributeTableRefresher refresher) {
+      this.table = null;
+      this.refresher = refresher;
+    }
+
+    private Single<AttributeTable> getTable(AttributeCacheContextKey key) {
+      return this.refresher == null ? this.table : this.refresher.getTable(key);
+    }
 
-    private AttributeScopeAndKey(String scope, String key) {
-      this.scope = scope;
-      this.key = key;
+    private int getWeight() {
+      // Counting the table itself, so that contexts without attributes still carry a weight
+      return this.attributeCount + 1;
     }
   }
 }
@@ -0,0 +1,109 @@
+package org.hypertrace.core.attribute.service.cachingclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.Interners;
+import io.grpc.Status;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeTableRefresherTest {
+  private final AttributeTable table1 =
+      AttributeTable.of(
+          List.of(AttributeMetadata.newBuilder().setScopeString("EVENT").setKey("first").build()),
+          Interners.newWeakInterner());
+  private final AttributeTable table2 =
+      AttributeTable.of(
+          List.of(AttributeMetadata.newBuilder().setScopeString("EVENT").setKey("second").build()),
+          Interners.newWeakInterner());
+  private final AttributeCacheContextKey mockKey = mock(AttributeCacheContextKey.class);
+
+  private List<SingleSubject<AttributeTable>> loads;
+  private long nanoTime;
+  private AttributeTableRefresher refresher;
+
+  @BeforeEach
+  void beforeEach() {
+    this.loads = new ArrayList<>();
+    this.nanoTime = 0;
+    this.refresher =
+        new AttributeTableRefresher(
+            key -> {
+              SingleSubject<AttributeTable> load = SingleSubject.create();
+              this.loads.add(load);
+              return load;
+            },
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(10),
+            Duration.ofSeconds(10),
+            () -> this.nanoTime);
+  }
+
+  @Test
+  void coalescesInitialLoads() {
+    Single<AttributeTable> first = this.refresher.getTable(this.mockKey);
+    Single<AttributeTable> second = this.refresher.getTable(this.mockKey);
+
+    assertEquals(1, this.loads.size());
+    this.loads.get(0).onSuccess(this.table1);
+    assertSame(this.table1, first.blockingGet());
+    assertSame(this.table1, second.blockingGet());
+  }
+
+  @Test
+  void servesStaleTableWhileReloading() {
+    this.refresher.getTable(this.mockKey);
+    this.loads.get(0).onSuccess(this.table1);
+
+    this.advance(Duration.ofMinutes(2));
+    assertSame(this.table1, this.refresher.getTable(this.mockKey).blockingGet());
+    assertSame(this.table1, this.refresher.getTable(this.mockKey).blockingGet());
+    assertEquals(2, this.loads.size());
+
+    this.loads.get(1).onSuccess(this.table2);
+    assertSame(this.table2, this.refresher.getTable(this.mockKey).blockingGet());
+    assertEquals(2, this.loads.size());
+  }
+
+  @Test
+  void backsOffAfterFailedReload() {
+    this.refresher.getTable(this.mockKey);
+    this.loads.get(0).onSuccess(this.table1);
+
+    this.advance(Duration.ofMinutes(2));
+    this.refresher.getTable(this.mockKey);
+    this.loads.get(1).onError(Status.UNAVAILABLE.asRuntimeException());
+
+    this.advance(Duration.ofSeconds(5));
+    assertSame(this.table1, this.refresher.getTable(this.mockKey).blockingGet());
+    assertEquals(2, this.loads.size());
+
+    this.advance(Duration.ofSeconds(5));
+    assertSame(this.table1, this.refresher.getTable(this.mockKey).blockingGet());
+    assertEquals(3, this.loads.size());
+  }
+
+  @Test
+  void waitsForReloadOnceTooStale() {
+    this.refresher.getTable(this.mockKey);
+    this.loads.get(0).onSuccess(this.table1);
+
+    this.advance(Duration.ofMinutes(10));
+    Single<AttributeTable> table = this.refresher.getTable(this.mockKey);
+    this.loads.get(1).onSuccess(this.table2);
+    assertSame(this.table2, table.blockingGet());
+  }
+
+  private void advance(Duration duration) {
+    this.nanoTime += duration.toNanos();
+  }
+}
@@ -0,0 +1,85 @@
+package org.hypertrace.core.attribute.service.cachingclient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.reactivex.rxjava3.core.Single;
+import java.util.List;
+import java.util.function.Consumer;
+import org.hypertrace.core.attribute.service.client.common.AttributeTable;
+import org.hypertrace.core.attribute.service.v1.AttributeMetadata;
+import org.hypertrace.core.attribute.service.v1.GetAttributeChangesResponse;
+import org.hypertrace.core.attribute.service.v1.WatchAttributesRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AttributeTableWatchTest {
+  private final AttributeMetadata metadata1 =
+      AttributeMetadata.newBuilder().setScopeString("EVENT").setKey("first").setId("1").build();
+  private final AttributeMetadata metadata2 =
+      AttributeMetadata.newBuilder().setScopeString("EVENT").setKey("second").setId("2").build();
+
+  private Consumer<Single<AttributeTable>> mockTerminationListener;
+  private AttributeTableWatch watch;
+
+  @BeforeEach
+  void beforeEach() {
+    this.mockTerminationListener = mock(Consumer.class);
+    Interner<AttributeMetadata> attributeInterner = Interners.newWeakInterner();
+    this.watch =
+        new AttributeTableWatch(
+            attributes -> AttributeTable.of(attributes, attributeInterner),
+            this.mockTerminationListener);
+  }
+
+  @Test
+  void emitsLatestTable() {
+    GetAttributeChangesResponse catalog =
+        GetAttributeChangesResponse.newBuilder()
+            .setCatalogVersion(1)
+            .addUpsertedAttributes(this.metadata1)
+            .build();
+    this.watch.onNext(catalog);
+    assertEquals(
+        List.of(this.metadata1), this.watch.getTable().blockingGet().getAllInScope("EVENT"));
+
+    GetAttributeChangesResponse changes =
+        GetAttributeChangesResponse.newBuilder()
+            .setCatalogVersion(2)
+            .addUpsertedAttributes(this.metadata2)
+            .addDeletedAttributeIds("1")
+            .build();
+    this.watch.onNext(changes);
+    assertEquals(
+        List.of(this.metadata2), this.watch.getTable().blockingGet().getAllInScope("EVENT"));
+  }
+
+  @Test
+  void failsTableAndNotifiesIfStreamTerminates() {
+    this.watch.onError(Status.UNAVAILABLE.asException());
+
+    this.watch.getTable().test().assertError(StatusException.class);
+    verify(this.mockTerminationListener).accept(this.watch.getTable());
+  }
+
+  @Test
+  void cancelsStreamWithoutNotifying() {
+    ClientCallStreamObserver<WatchAttributesRequest> mockRequestStream =
+        mock(ClientCallStreamObserver.class);
+    this.watch.beforeStart(mockRequestStream);
+
+    this.watch.cancel();
+    this.watch.onError(Status.CANCELLED.asException());
+
+    verify(mockRequestStream).cancel(any(), any());
+    verify(this.mockTerminationListener, never()).accept(any());
+  }
+}
@@ -23,6 +23,7 @@ import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -155,7 +156,8 @@ class CachingAttributeClientTest {
     when(otherMockContext.getTenantId()).thenReturn(Optional.of("other tenant"));
     Context otherGrpcContext =
         Context.current().withValue(RequestContext.CURRENT, otherMockContext);
-    AttributeMetadata otherContextMetadata = AttributeMetadata.newBuilder(this.metadata1).build();
+    AttributeMetadata otherContextMetadata =
+        AttributeMetadata.newBuilder(this.metadata1).setDisplayName("other").build();
 
     this.responseMetadata = List.of(otherContextMetadata);
 
@@ -193,6 +195,30 @@ class CachingAttributeClientTest {
     verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
   }
 
+  @Test
+  void servesStaleTableIfRefreshFails() throws Exception {
+    this.attributeClient =
+        CachingAttributeClient.builder(this.grpcChannel)
+            .withCacheExpiration(Duration.ZERO)
+            .withMaxStaleness(Duration.ofHours(1))
+            .build();
+    assertSame(
+        this.metadata1,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "first").blockingGet()));
+
+    this.responseError = Optional.of(new UnsupportedOperationException());
+    assertSame(
+        this.metadata1,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "first").blockingGet()));
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+
+    // The failed refresh is not retried before the error backoff
+    assertSame(
+        this.metadata1,
+        this.grpcTestContext.call(() -> this.attributeClient.get("first-id").blockingGet()));
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+  }
+
   @Test
   void hasConfigurableCacheSize() throws Exception {
     this.attributeClient =
@@ -212,6 +238,44 @@ class CachingAttributeClientTest {
     verify(this.mockAttributeService, times(3)).getAttributes(any(), any());
   }
 
+  @Test
+  void evictsContextsOverMaximumCachedAttributes() throws Exception {
+    this.attributeClient =
+        CachingAttributeClient.builder(this.grpcChannel).withMaximumCachedAttributes(1).build();
+
+    // Both attributes of the context are loaded, outweighing the cache once weighed
+    assertSame(
+        this.metadata1,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "first").blockingGet()));
+    assertSame(
+        this.metadata2,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "second").blockingGet()));
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+
+    this.attributeClient =
+        CachingAttributeClient.builder(this.grpcChannel).withMaximumCachedAttributes(10).build();
+    this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "first").blockingGet());
+    this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "second").blockingGet());
+    verify(this.mockAttributeService, times(3)).getAttributes(any(), any());
+  }
+
+  @Test
+  void evictsRefreshedContextsOverMaximumCachedAttributes() throws Exception {
+    this.attributeClient =
+        CachingAttributeClient.builder(this.grpcChannel)
+            .withMaxStaleness(Duration.ofHours(1))
+            .withMaximumCachedAttributes(1)
+            .build();
+
+    assertSame(
+        this.metadata1,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "first").blockingGet()));
+    assertSame(
+        this.metadata2,
+        this.grpcTestContext.call(() -> this.attributeClient.get("EVENT", "second").blockingGet()));
+    verify(this.mockAttributeService, times(2)).getAttributes(any(), any());
+  }
+
   @Test
   void supportsAppliedFilter() throws Exception {
     AttributeMetadataFilter attributeMetadataFilter =
@@ -23,6 +23,7 @@ configure<DependencyPluginSettingExtension> {
 
 include(":attribute-service-api")
 include(":attribute-service-client")
+include(":attribute-service-client-common")
 include(":attribute-service-impl")
 include(":attribute-service")
 include(":attribute-service-factory")
@@ -30,4 +31,5 @@ include(":attribute-service-tenant-api")
 include(":caching-attribute-service-client")
 include(":attribute-projection-functions")
 include(":attribute-projection-registry")
+include(":attribute-service-benchmarks")
 